@@ -1,5 +1,6 @@
 package com.github.yunabraska.githubworkflow.entry;
 
+import com.github.yunabraska.githubworkflow.syntax.WorkflowExpressions;
 import com.github.yunabraska.githubworkflow.syntax.WorkflowReferences;
 
 import com.github.yunabraska.githubworkflow.syntax.WorkflowSyntax;
@@ -21,8 +22,13 @@ import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.editor.DefaultLanguageHighlighterColors;
 import com.intellij.openapi.editor.colors.TextAttributesKey;
 import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFileManager;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.impl.source.tree.LeafPsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.yaml.psi.YAMLKeyValue;
 import org.jetbrains.yaml.psi.YAMLSequence;
@@ -31,14 +37,12 @@ import org.jetbrains.yaml.psi.YAMLSequenceItem;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.BiConsumer;
 import java.util.function.Predicate;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -58,7 +62,6 @@ import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getText;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getTextElement;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.parseEnvVariables;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.parseOutputVariables;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.toYAMLKeyValue;
 import static com.github.yunabraska.githubworkflow.syntax.Action.highLightAction;
 import static com.github.yunabraska.githubworkflow.syntax.Action.highlightActionInput;
 import static com.github.yunabraska.githubworkflow.syntax.Envs.highLightEnvs;
@@ -76,8 +79,6 @@ import static com.github.yunabraska.githubworkflow.model.NodeIcon.SUPPRESS_ON;
 import static com.github.yunabraska.githubworkflow.git.WorkflowLocation.isChildOf;
 import static com.github.yunabraska.githubworkflow.git.WorkflowLocation.pathEndsWith;
 import static com.github.yunabraska.githubworkflow.git.WorkflowLocation.pathMatches;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowReferences.splitToElements;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowReferences.toSimpleElements;
 import static com.intellij.lang.annotation.HighlightSeverity.INFORMATION;
 import static java.util.Optional.ofNullable;
 
@@ -99,72 +100,80 @@ public class WorkflowAnnotator implements Annotator {
             "GITHUB_WORKFLOW_SCALAR_LITERAL",
             DefaultLanguageHighlighterColors.NUMBER
     );
-    private static final Pattern EXPRESSION_FUNCTION = Pattern.compile("\\b([A-Za-z_][A-Za-z0-9_]*)\\s*\\(");
     private static final Set<String> GITHUB_EXPRESSION_FUNCTIONS = Set.copyOf(githubExpressionFunctionNames());
     private static final Set<String> GITEA_EXPRESSION_FUNCTIONS = Set.of("always");
 
     @Override
     public void annotate(@NotNull final PsiElement psiElement, @NotNull final AnnotationHolder holder) {
-        annotationTrigger(holder, psiElement).ifPresent(trigger -> trigger
-                .then(WorkflowAnnotator::processPsiElement)
-                .then(WorkflowAnnotator::variableElementHandler)
-                .then(WorkflowAnnotator::validateGiteaExpressionFunctions)
-                .then(WorkflowAnnotator::highlightVariableReferences)
-                .then(WorkflowAnnotator::highlightDeclarations)
-                .then(WorkflowAnnotator::highlightRunOutputs)
-                .then(WorkflowAnnotator::highlightRunnerVariables)
-                .then(WorkflowAnnotator::highlightScalarLiterals)
-                .then(WorkflowAnnotator::validateWorkflowSyntax)
-                .then((currentHolder, currentElement) -> highlightActionInput(currentHolder, currentElement))
-                .then((currentHolder, currentElement) -> highlightNeeds(currentHolder, currentElement)));
-    }
-
-    private static Optional<AnnotationTrigger> annotationTrigger(final AnnotationHolder holder, final PsiElement psiElement) {
-        return psiElement.isValid()
-                ? Optional.of(new AnnotationTrigger(holder, psiElement))
-                : Optional.empty();
+        if (!psiElement.isValid()) {
+            return;
+        }
+        // Stages only emit annotations; where an element sits (if/run/needs, variables, provider) is classified once per file
+        final FileAnalysis analysis = FileAnalysis.of(psiElement);
+        final ElementScope scope = analysis.scope(psiElement);
+        final YAMLKeyValue keyValue = psiElement instanceof final YAMLKeyValue element ? element : null;
+        final LeafPsiElement leaf = psiElement instanceof final LeafPsiElement element ? element : null;
+        final boolean textElement = WorkflowPsi.isTextElement(psiElement);
+
+        if (keyValue != null) {
+            processPsiElement(holder, keyValue, analysis);
+        }
+        if (leaf != null && scope.variables()) {
+            variableElementHandler(holder, leaf, scope);
+            if (analysis.provider() == WorkflowSyntax.Provider.GITEA) {
+                validateGiteaExpressionFunctions(holder, leaf, scope);
+            }
+        }
+        if (textElement) {
+            highlightVariableReferences(holder, psiElement);
+        }
+        if (keyValue != null) {
+            highlightDeclarations(holder, keyValue);
+        }
+        if (leaf != null && scope.run()) {
+            highlightRunOutputs(holder, leaf);
+            highlightRunnerVariables(holder, leaf, analysis.provider());
+        }
+        if (keyValue != null) {
+            highlightScalarLiterals(holder, keyValue);
+            validateWorkflowSyntax(holder, keyValue, analysis);
+            highlightActionInput(holder, keyValue);
+        }
+        if (textElement && scope.needs()) {
+            highlightNeeds(holder, psiElement);
+        }
     }
 
-    public static void processPsiElement(final AnnotationHolder holder, final PsiElement psiElement) {
-        toYAMLKeyValue(psiElement).ifPresent(element -> {
-            switch (element.getKeyText()) {
-                case FIELD_USES -> highLightAction(holder, element);
-                case FIELD_OUTPUTS -> outputsHandler(holder, element);
-                default -> {
-                    // No Action
-                }
+    private static void processPsiElement(final AnnotationHolder holder, final YAMLKeyValue element, final FileAnalysis analysis) {
+        switch (element.getKeyText()) {
+            case FIELD_USES -> highLightAction(holder, element);
+            case FIELD_OUTPUTS -> outputsHandler(holder, element, analysis);
+            default -> {
+                // No Action
             }
-        });
+        }
     }
 
-    private static void highlightRunOutputs(final AnnotationHolder holder, final PsiElement psiElement) {
+    private static void highlightRunOutputs(final AnnotationHolder holder, final LeafPsiElement element) {
         // SHOW Output Env && Output Variable declaration
-        Optional.of(psiElement)
-                .filter(LeafPsiElement.class::isInstance)
-                .map(LeafPsiElement.class::cast)
-                .filter(element -> WorkflowPsi.getParent(element, FIELD_RUN).isPresent())
-                .ifPresent(element -> Stream.of(
-                        parseEnvVariables(element).stream().map(variable -> withIcon(variable, ICON_ENV)).toList(),
-                        parseOutputVariables(element).stream().map(variable -> withIcon(variable, ICON_TEXT_VARIABLE)).toList()
-                ).flatMap(Collection::stream).collect(Collectors.groupingBy(SimpleElement::startIndexOffset)).forEach((integer, elements) -> ofNullable(getFirstChild(elements)).ifPresent(lineElement -> holder
-                        .newSilentAnnotation(INFORMATION)
-                        .range(lineElement.range())
-                        .textAttributes(DECLARATION)
-                        .gutterIconRenderer(new IconRenderer(null, element, lineElement.icon()))
-                        .create()
-                )));
+        Stream.of(
+                parseEnvVariables(element).stream().map(variable -> withIcon(variable, ICON_ENV)).toList(),
+                parseOutputVariables(element).stream().map(variable -> withIcon(variable, ICON_TEXT_VARIABLE)).toList()
+        ).flatMap(Collection::stream).collect(Collectors.groupingBy(SimpleElement::startIndexOffset)).forEach((integer, elements) -> ofNullable(getFirstChild(elements)).ifPresent(lineElement -> holder
+                .newSilentAnnotation(INFORMATION)
+                .range(lineElement.range())
+                .textAttributes(DECLARATION)
+                .gutterIconRenderer(new IconRenderer(null, element, lineElement.icon()))
+                .create()
+        ));
     }
 
     private static SimpleElement withIcon(final SimpleElement element, final NodeIcon icon) {
         return new SimpleElement(element.key(), element.text(), element.range(), icon);
     }
 
-    private static void highlightRunnerVariables(final AnnotationHolder holder, final PsiElement psiElement) {
-        Optional.of(psiElement)
-                .filter(LeafPsiElement.class::isInstance)
-                .map(LeafPsiElement.class::cast)
-                .filter(element -> getParent(element, FIELD_RUN).isPresent())
-                .ifPresent(element -> defaultEnvs(WorkflowSyntax.providerFor(element)).keySet().forEach(name -> highlightWord(holder, element, name, RUNNER_VARIABLE)));
+    private static void highlightRunnerVariables(final AnnotationHolder holder, final LeafPsiElement element, final WorkflowSyntax.Provider provider) {
+        defaultEnvs(provider).keySet().forEach(name -> highlightWord(holder, element, name, RUNNER_VARIABLE));
     }
 
     private static void highlightWord(
@@ -189,9 +198,8 @@ public class WorkflowAnnotator implements Annotator {
         }
     }
 
-    private static void highlightScalarLiterals(final AnnotationHolder holder, final PsiElement psiElement) {
-        toYAMLKeyValue(psiElement)
-                .flatMap(WorkflowPsi::getTextElement)
+    private static void highlightScalarLiterals(final AnnotationHolder holder, final YAMLKeyValue keyValue) {
+        getTextElement(keyValue)
                 .filter(text -> text.getText().matches("true|false|-?\\d+(?:\\.\\d+)?"))
                 .ifPresent(text -> holder.newSilentAnnotation(INFORMATION)
                         .range(text)
@@ -199,29 +207,17 @@ public class WorkflowAnnotator implements Annotator {
                         .create());
     }
 
-    private static void validateWorkflowSyntax(final AnnotationHolder holder, final PsiElement psiElement) {
-        if (!(psiElement instanceof YAMLKeyValue)) {
-            return;
-        }
-        WorkflowLocation.from(psiElement)
-                .filter(WorkflowAnnotator::shouldValidateWorkflowSyntax)
+    private static void validateWorkflowSyntax(final AnnotationHolder holder, final YAMLKeyValue keyValue, final FileAnalysis analysis) {
+        WorkflowLocation.from(keyValue)
+                .filter(location -> location.workflowFile() || analysis.unitTestWorkflow())
                 .ifPresent(location -> validateWorkflowKeyValue(
                         holder,
                         location.keyValue(),
                         location.path(),
-                        WorkflowSyntax.providerFor(location.keyValue())
+                        analysis.provider()
                 ));
     }
 
-    private static boolean shouldValidateWorkflowSyntax(final WorkflowLocation location) {
-        return location.workflowFile() || isUnitTestWorkflowFile(location.keyValue());
-    }
-
-    private static boolean isUnitTestWorkflowFile(final YAMLKeyValue element) {
-        return ApplicationManager.getApplication().isUnitTestMode()
-                && WorkflowPsi.getChild(element.getContainingFile(), "runs").isEmpty();
-    }
-
     private static void validateWorkflowKeyValue(
             final AnnotationHolder holder,
             final YAMLKeyValue element,
@@ -345,14 +341,11 @@ public class WorkflowAnnotator implements Annotator {
         SyntaxAnnotation.createAnnotation(element, range, holder, fixes);
     }
 
-    private static void outputsHandler(final AnnotationHolder holder, final PsiElement psiElement) {
+    private static void outputsHandler(final AnnotationHolder holder, final PsiElement psiElement, final FileAnalysis analysis) {
         getParentJob(psiElement).ifPresent(job -> {
             final List<YAMLKeyValue> outputs = WorkflowPsi.getChildren(psiElement).stream().toList();
-            final String workflowText = WorkflowPsi.getChild(psiElement.getContainingFile(), FIELD_JOBS).map(PsiElement::getText).orElse("");
-            final List<String> workflowOutputs = WorkflowPsi.getChild(psiElement.getContainingFile(), FIELD_ON)
-                    .map(on -> getAllElements(on, FIELD_OUTPUTS))
-                    .map(list -> list.stream().flatMap(keyValue -> WorkflowPsi.getChildren(keyValue).stream().map(output -> getText(output, "value").orElse(""))).toList())
-                    .orElseGet(Collections::emptyList);
+            final String workflowText = analysis.jobsText();
+            final List<String> workflowOutputs = analysis.workflowOutputs();
             outputs.stream().filter(output -> {
                 final String outputKey = output.getKeyText();
                 final String reusableOutputReference = FIELD_JOBS + "." + job.getKeyText() + "." + FIELD_OUTPUTS + "." + outputKey;
@@ -412,112 +405,47 @@ public class WorkflowAnnotator implements Annotator {
                 .isPresent();
     }
 
-    private static void variableElementHandler(final AnnotationHolder holder, final PsiElement psiElement) {
-        final Optional<YAMLKeyValue> parentIf = getParent(psiElement, FIELD_IF);
-        Optional.of(psiElement)
-                .filter(LeafPsiElement.class::isInstance)
-                .map(LeafPsiElement.class::cast)
-                .filter(isElementWithVariables(parentIf.orElse(null)))
-                .ifPresent(element -> toSimpleElements(element).forEach(simpleElement -> {
-                            final SimpleElement[] parts = splitToElements(simpleElement);
-                            switch (parts.length > 0 ? parts[0].text() : "N/A") {
-                                case FIELD_INPUTS -> highLightInputs(holder, element, parts);
-                                case FIELD_SECRETS ->
-                                        highLightSecrets(holder, psiElement, element, simpleElement, parts, parentIf.orElse(null));
-                                case FIELD_ENVS -> highLightEnvs(holder, element, parts);
-                                case FIELD_GITHUB -> highlightContext(holder, element, parts, FIELD_GITHUB, -1);
-                                case FIELD_GITEA -> highlightContext(holder, element, parts, FIELD_GITEA, -1);
-                                case FIELD_JOB -> highlightJob(holder, element, parts);
-                                case FIELD_RUNNER -> highlightContext(holder, element, parts, FIELD_RUNNER, 2);
-                                case FIELD_MATRIX -> highlightMatrix(holder, element, parts);
-                                case FIELD_STRATEGY -> highlightContext(holder, element, parts, FIELD_STRATEGY, 2);
-                                case FIELD_STEPS -> highlightSteps(holder, element, parts);
-                                case FIELD_JOBS -> highLightJobs(holder, element, parts);
-                                case FIELD_NEEDS -> highlightNeeds(holder, element, parts);
-                                default -> {
-                                    // ignored
-                                }
-                            }
-                        })
-                );
-    }
-
-    private static void validateGiteaExpressionFunctions(final AnnotationHolder holder, final PsiElement psiElement) {
-        Optional.of(psiElement)
-                .filter(LeafPsiElement.class::isInstance)
-                .map(LeafPsiElement.class::cast)
-                .filter(element -> WorkflowSyntax.providerFor(element) == WorkflowSyntax.Provider.GITEA)
-                .filter(isElementWithVariables(getParent(psiElement, FIELD_IF).orElse(null)))
-                .ifPresent(element -> expressionRanges(element).forEach(range -> validateGiteaExpressionRange(holder, element, range)));
-    }
-
-    private static List<TextRange> expressionRanges(final LeafPsiElement element) {
-        final String text = element.getText();
-        if (getParent(element, FIELD_IF).isPresent()) {
-            return text.isBlank() ? List.of() : List.of(new TextRange(0, text.length()));
-        }
-        final List<TextRange> result = new ArrayList<>();
-        int index = 0;
-        while (index < text.length()) {
-            final int start = text.indexOf("${{", index);
-            if (start < 0) {
-                break;
-            }
-            final int bodyStart = start + 3;
-            final int end = text.indexOf("}}", bodyStart);
-            if (end < 0) {
-                break;
-            }
-            result.add(new TextRange(bodyStart, end));
-            index = end + 2;
-        }
-        return result;
-    }
-
-    private static void validateGiteaExpressionRange(final AnnotationHolder holder, final LeafPsiElement element, final TextRange relativeRange) {
-        final String body = element.getText().substring(relativeRange.getStartOffset(), relativeRange.getEndOffset());
-        final Matcher matcher = EXPRESSION_FUNCTION.matcher(body);
-        while (matcher.find()) {
-            if (insideQuotedString(body, matcher.start(1))) {
-                continue;
-            }
-            final String name = matcher.group(1);
-            if (!GITHUB_EXPRESSION_FUNCTIONS.contains(name) || GITEA_EXPRESSION_FUNCTIONS.contains(name)) {
-                continue;
+    private static void variableElementHandler(final AnnotationHolder holder, final LeafPsiElement element, final ElementScope scope) {
+        final WorkflowExpressions expressions = WorkflowExpressions.of(element);
+        for (int index = 0; index < expressions.references().size(); index++) {
+            final SimpleElement simpleElement = expressions.references().get(index);
+            final SimpleElement[] parts = expressions.segments(index);
+            switch (parts.length > 0 ? parts[0].text() : "N/A") {
+                case FIELD_INPUTS -> highLightInputs(holder, element, parts);
+                case FIELD_SECRETS ->
+                        highLightSecrets(holder, element, element, simpleElement, parts, scope.parentIf());
+                case FIELD_ENVS -> highLightEnvs(holder, element, parts);
+                case FIELD_GITHUB -> highlightContext(holder, element, parts, FIELD_GITHUB, -1);
+                case FIELD_GITEA -> highlightContext(holder, element, parts, FIELD_GITEA, -1);
+                case FIELD_JOB -> highlightJob(holder, element, parts);
+                case FIELD_RUNNER -> highlightContext(holder, element, parts, FIELD_RUNNER, 2);
+                case FIELD_MATRIX -> highlightMatrix(holder, element, parts);
+                case FIELD_STRATEGY -> highlightContext(holder, element, parts, FIELD_STRATEGY, 2);
+                case FIELD_STEPS -> highlightSteps(holder, element, parts);
+                case FIELD_JOBS -> highLightJobs(holder, element, parts);
+                case FIELD_NEEDS -> highlightNeeds(holder, element, parts);
+                default -> {
+                    // ignored
+                }
             }
-            final int start = element.getTextRange().getStartOffset() + relativeRange.getStartOffset() + matcher.start(1);
-            final int end = element.getTextRange().getStartOffset() + relativeRange.getStartOffset() + matcher.end(1);
-            new SyntaxAnnotation(
-                    GitHubWorkflowBundle.message("inspection.workflow.syntax.giteaExpressionFunction", name + "()"),
-                    null,
-                    HighlightSeverity.WEAK_WARNING,
-                    ProblemHighlightType.WEAK_WARNING,
-                    null
-            ).createAnnotation(element, new TextRange(start, end), holder);
         }
     }
 
-    private static boolean insideQuotedString(final String text, final int offset) {
-        char quote = 0;
-        for (int index = 0; index < text.length() && index < offset; index++) {
-            final char current = text.charAt(index);
-            if (quote == '\'') {
-                if (current == '\'' && index + 1 < text.length() && text.charAt(index + 1) == '\'') {
-                    index++;
-                } else if (current == '\'') {
-                    quote = 0;
-                }
-            } else if (quote == '"') {
-                if (current == '\\' && index + 1 < text.length()) {
-                    index++;
-                } else if (current == '"') {
-                    quote = 0;
-                }
-            } else if (current == '\'' || current == '"') {
-                quote = current;
+    private static void validateGiteaExpressionFunctions(final AnnotationHolder holder, final LeafPsiElement element, final ElementScope scope) {
+        final String text = element.getText();
+        final int elementStart = element.getTextRange().getStartOffset();
+        WorkflowExpressions.of(element).functionCalls(scope.parentIf() != null).forEach(range -> {
+            final String name = range.substring(text);
+            if (GITHUB_EXPRESSION_FUNCTIONS.contains(name) && !GITEA_EXPRESSION_FUNCTIONS.contains(name)) {
+                new SyntaxAnnotation(
+                        GitHubWorkflowBundle.message("inspection.workflow.syntax.giteaExpressionFunction", name + "()"),
+                        null,
+                        HighlightSeverity.WEAK_WARNING,
+                        ProblemHighlightType.WEAK_WARNING,
+                        null
+                ).createAnnotation(element, range.shiftRight(elementStart), holder);
             }
-        }
-        return quote != 0;
+        });
     }
 
     private static void highlightContext(
@@ -534,12 +462,15 @@ public class WorkflowAnnotator implements Annotator {
         Optional.of(psiElement)
                 .filter(WorkflowPsi::isTextElement)
                 .ifPresent(element -> {
-                    toSimpleElements(element).stream()
-                            .flatMap(source -> Stream.of(splitToElements(source)))
-                            .forEach(segment -> holder.newSilentAnnotation(HighlightSeverity.INFORMATION)
+                    final WorkflowExpressions expressions = WorkflowExpressions.of(element);
+                    for (int index = 0; index < expressions.references().size(); index++) {
+                        for (final SimpleElement segment : expressions.segments(index)) {
+                            holder.newSilentAnnotation(HighlightSeverity.INFORMATION)
                                     .range(simpleTextRange(element, segment))
                                     .textAttributes(VARIABLE_REFERENCE)
-                                    .create());
+                                    .create();
+                        }
+                    }
                     WorkflowReferences.resolve(element).forEach(target -> {
                     final String tooltip = goToDeclarationString();
                     holder.newSilentAnnotation(HighlightSeverity.INFORMATION)
@@ -555,11 +486,9 @@ public class WorkflowAnnotator implements Annotator {
                 });
     }
 
-    private static void highlightDeclarations(final AnnotationHolder holder, final PsiElement psiElement) {
-        toYAMLKeyValue(psiElement).ifPresent(element -> {
-            highlightJobDeclaration(holder, element);
-            highlightStepDeclaration(holder, element);
-        });
+    private static void highlightDeclarations(final AnnotationHolder holder, final YAMLKeyValue element) {
+        highlightJobDeclaration(holder, element);
+        highlightStepDeclaration(holder, element);
     }
 
     private static void highlightJobDeclaration(final AnnotationHolder holder, final YAMLKeyValue element) {
@@ -596,11 +525,68 @@ public class WorkflowAnnotator implements Annotator {
         return WorkflowReferences.isIdentifierChar(character);
     }
 
-    private record AnnotationTrigger(AnnotationHolder holder, PsiElement psiElement) {
+    /**
+     * Where a key-value sits, shared by every leaf whose closest key-value it is.
+     */
+    private record ElementScope(YAMLKeyValue parentIf, boolean run, boolean needs, boolean variables) {
+
+        private static final ElementScope NONE = new ElementScope(null, false, false, false);
+    }
 
-        private AnnotationTrigger then(final BiConsumer<AnnotationHolder, PsiElement> step) {
-            step.accept(holder, psiElement);
-            return this;
+    /**
+     * Per-file facts the annotation stages used to re-derive for every element. Built once per file modification (or
+     * VFS move, which can change the provider) and shared by all daemon passes until then.
+     */
+    private record FileAnalysis(
+            WorkflowSyntax.Provider provider,
+            boolean unitTestWorkflow,
+            String jobsText,
+            List<String> workflowOutputs,
+            Map<YAMLKeyValue, ElementScope> scopes
+    ) {
+
+        private static FileAnalysis of(final PsiElement psiElement) {
+            final PsiFile file = psiElement.getContainingFile();
+            return file == null ? build(psiElement) : CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(
+                    build(file),
+                    file,
+                    VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS
+            ));
+        }
+
+        private ElementScope scope(final PsiElement psiElement) {
+            final YAMLKeyValue keyValue = psiElement instanceof final YAMLKeyValue element ? element : PsiTreeUtil.getParentOfType(psiElement, YAMLKeyValue.class);
+            return keyValue == null ? ElementScope.NONE : scopes.getOrDefault(keyValue, ElementScope.NONE);
+        }
+
+        private static FileAnalysis build(final PsiElement root) {
+            final Map<YAMLKeyValue, ElementScope> scopes = new HashMap<>();
+            // Pre-order: a parent's scope is always known before its children are visited
+            PsiTreeUtil.processElements(root, YAMLKeyValue.class, keyValue -> {
+                final ElementScope parent = ofNullable(PsiTreeUtil.getParentOfType(keyValue, YAMLKeyValue.class))
+                        .map(scopes::get)
+                        .orElse(ElementScope.NONE);
+                final String key = keyValue.getKeyText();
+                final YAMLKeyValue parentIf = FIELD_IF.equals(key) ? keyValue : parent.parentIf();
+                scopes.put(keyValue, new ElementScope(
+                        parentIf,
+                        parent.run() || FIELD_RUN.equals(key),
+                        parent.needs() || FIELD_NEEDS.equals(key),
+                        isElementWithVariables(parentIf).test(keyValue)
+                ));
+                return true;
+            });
+            final PsiElement file = ofNullable(root.getContainingFile()).map(PsiElement.class::cast).orElse(root);
+            return new FileAnalysis(
+                    WorkflowSyntax.providerFor(root),
+                    ApplicationManager.getApplication().isUnitTestMode() && WorkflowPsi.getChild(file, "runs").isEmpty(),
+                    WorkflowPsi.getChild(file, FIELD_JOBS).map(PsiElement::getText).orElse(""),
+                    WorkflowPsi.getChild(file, FIELD_ON)
+                            .map(on -> getAllElements(on, FIELD_OUTPUTS))
+                            .map(list -> list.stream().flatMap(keyValue -> WorkflowPsi.getChildren(keyValue).stream().map(output -> getText(output, "value").orElse(""))).toList())
+                            .orElseGet(Collections::emptyList),
+                    scopes
+            );
         }
     }
 
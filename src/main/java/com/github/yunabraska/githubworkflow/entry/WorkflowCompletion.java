@@ -11,6 +11,7 @@ import com.github.yunabraska.githubworkflow.state.GitHubActionCache;
 import com.github.yunabraska.githubworkflow.i18n.GitHubWorkflowBundle;
 
 import com.intellij.codeInsight.AutoPopupController;
+import com.github.yunabraska.githubworkflow.syntax.WorkflowModel;
 import com.github.yunabraska.githubworkflow.syntax.WorkflowPsi;
 import com.github.yunabraska.githubworkflow.syntax.Steps;
 import com.github.yunabraska.githubworkflow.model.GitHubAction;
@@ -30,29 +31,37 @@ import com.intellij.openapi.actionSystem.DataContext;
 import com.intellij.lang.injection.InjectedLanguageManager;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.project.DumbService;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.patterns.PlatformPatterns;
 import com.intellij.psi.PsiDocumentManager;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiLanguageInjectionHost;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
 import com.intellij.util.ProcessingContext;
 import com.intellij.util.ThreeState;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.yaml.psi.YAMLKeyValue;
 import org.jetbrains.yaml.psi.YAMLSequenceItem;
 
-import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.nio.file.Path;
 import java.util.regex.Matcher;
@@ -217,25 +226,33 @@ public class WorkflowCompletion extends CompletionContributor {
             return false;
         }
         final Optional<RemoteUsesRef> remoteUsesRef = remoteUsesRef(trigger.parameters());
+        // Local and cached items are shown first; remote suggestions are appended when they arrive
         if (remoteUsesRef.isPresent()) {
             final RemoteUsesRef ref = remoteUsesRef.get();
-            addLookupElements(
-                    trigger.resultSet().withPrefixMatcher(ref.prefix()),
-                    knownRemoteRefs(trigger.position(), ref.usesBase()),
-                    NodeIcon.ICON_NODE,
-                    Character.MIN_VALUE
-            );
+            final CompletionResultSet resultSet = trigger.resultSet().withPrefixMatcher(ref.prefix());
+            final Map<String, String> known = knownRemoteRefs(trigger.position(), ref.usesBase());
+            addLookupElements(resultSet, known, NodeIcon.ICON_NODE, Character.MIN_VALUE);
+            addLookupElements(resultSet, withoutKeys(remoteRefs(ref.usesBase()), known), NodeIcon.ICON_NODE, Character.MIN_VALUE);
             return true;
         }
+        final CompletionResultSet resultSet = trigger.resultSet().withPrefixMatcher(getDefaultPrefix(trigger.parameters()));
+        final Map<String, String> known = callableUsesCompletions(trigger.position());
+        addLookupElements(resultSet, known, NodeIcon.ICON_NODE, Character.MIN_VALUE);
         addLookupElements(
-                trigger.resultSet().withPrefixMatcher(getDefaultPrefix(trigger.parameters())),
-                callableUsesCompletions(trigger.position(), remoteUsesTargetPrefix(trigger.parameters()).orElse("")),
+                resultSet,
+                withoutKeys(remoteUses(remoteUsesTargetPrefix(trigger.parameters()).orElse("")), known),
                 NodeIcon.ICON_NODE,
                 Character.MIN_VALUE
         );
         return true;
     }
 
+    private static Map<String, String> withoutKeys(final Map<String, String> items, final Map<String, String> shown) {
+        final Map<String, String> result = new LinkedHashMap<>(items);
+        result.keySet().removeAll(shown.keySet());
+        return result;
+    }
+
     private static boolean completeShell(final CompletionTrigger trigger) {
         if (!isCompletingShellField(trigger.parameters(), trigger.position())) {
             return false;
@@ -473,13 +490,21 @@ public class WorkflowCompletion extends CompletionContributor {
         return matcher.matches() ? Optional.of(matcher.group(1)) : Optional.empty();
     }
 
-    private static Map<String, String> callableUsesCompletions(final PsiElement position, final String usesPrefix) {
+    private static Map<String, String> callableUsesCompletions(final PsiElement position) {
         final Map<String, String> result = new LinkedHashMap<>(localUsesCompletions(position));
         knownRemoteUses(position).forEach((usesBase, description) -> result.putIfAbsent(usesBase, description));
-        RemoteActionProviders.searchUses(usesPrefix, 10).forEach(result::putIfAbsent);
         return result;
     }
 
+    private static Map<String, String> remoteUses(final String usesPrefix) {
+        return RemoteActionProviders.Suggestions.await(
+                "uses\n" + usesPrefix,
+                () -> RemoteActionProviders.searchUses(usesPrefix, 10),
+                items -> !items.isEmpty(),
+                Map.of()
+        );
+    }
+
     private static Map<String, String> localUsesCompletions(final PsiElement position) {
         final Project project = getProject(position);
         if (project == null) {
@@ -488,13 +513,12 @@ public class WorkflowCompletion extends CompletionContributor {
         final boolean reusableWorkflowUse = isReusableWorkflowUse(position);
         final VirtualFile currentFile = position.getContainingFile().getVirtualFile();
         final Map<String, String> result = new LinkedHashMap<>();
-        ProjectFileIndex.getInstance(project).iterateContent(file -> {
-            toLocalUsesValue(project, currentFile, file, reusableWorkflowUse)
-                    .ifPresent(value -> result.putIfAbsent(value, GitHubWorkflowBundle.message(reusableWorkflowUse
-                            ? "completion.uses.local.workflow"
-                            : "completion.uses.local.action")));
-            return true;
-        });
+        final LocalFiles localFiles = LocalFiles.of(project);
+        (reusableWorkflowUse ? localFiles.workflows() : localFiles.actions()).forEach(file ->
+                toLocalUsesValue(project, currentFile, file, reusableWorkflowUse)
+                        .ifPresent(value -> result.putIfAbsent(value, GitHubWorkflowBundle.message(reusableWorkflowUse
+                                ? "completion.uses.local.workflow"
+                                : "completion.uses.local.action"))));
         return result;
     }
 
@@ -504,66 +528,20 @@ public class WorkflowCompletion extends CompletionContributor {
             return Collections.emptyMap();
         }
         final Map<String, String> result = new LinkedHashMap<>();
-        ProjectFileIndex.getInstance(project).iterateContent(file -> {
-            if (!file.isDirectory() && !file.getPath().contains("/.git/")) {
-                final VirtualFile contentRoot = ProjectFileIndex.getInstance(project).getContentRootForFile(file);
-                if (contentRoot != null) {
-                    final String path = Path.of(contentRoot.getPath()).relativize(Path.of(file.getPath())).toString().replace('\\', '/');
-                    if (!path.isBlank()) {
-                        result.putIfAbsent(path, GitHubWorkflowBundle.message("completion.workflow.eventFilter.paths"));
-                    }
-                }
-            }
-            return result.size() < 200;
-        });
+        LocalFiles.of(project).paths().forEach(path ->
+                result.putIfAbsent(path, GitHubWorkflowBundle.message("completion.workflow.eventFilter.paths")));
         return result;
     }
 
     private static Map<String, String> localGitRefs(final PsiElement position, final String namespace, final String descriptionKey) {
         final Map<String, String> result = new LinkedHashMap<>();
         repositoryRoot(position)
-                .flatMap(WorkflowLocation.RepositoryResolver::gitDir)
-                .ifPresent(gitDir -> {
-                    readLooseRefs(gitDir.resolve("refs").resolve(namespace), result, descriptionKey);
-                    readPackedRefs(gitDir.resolve("packed-refs"), "refs/" + namespace + "/", result, descriptionKey);
-                });
+                .map(root -> new WorkflowLocation.RepositoryResolver().refs(root, namespace))
+                .orElseGet(List::of)
+                .forEach(ref -> result.putIfAbsent(ref, GitHubWorkflowBundle.message(descriptionKey)));
         return result;
     }
 
-    private static void readLooseRefs(final Path refRoot, final Map<String, String> result, final String descriptionKey) {
-        if (!Files.isDirectory(refRoot)) {
-            return;
-        }
-        try (Stream<Path> paths = Files.walk(refRoot)) {
-            paths.filter(Files::isRegularFile)
-                    .map(refRoot::relativize)
-                    .map(Path::toString)
-                    .map(value -> value.replace('\\', '/'))
-                    .filter(value -> !value.isBlank())
-                    .sorted()
-                    .forEach(ref -> result.putIfAbsent(ref, GitHubWorkflowBundle.message(descriptionKey)));
-        } catch (final IOException ignored) {
-            // Local ref completion is opportunistic.
-        }
-    }
-
-    private static void readPackedRefs(final Path packedRefs, final String prefix, final Map<String, String> result, final String descriptionKey) {
-        if (!Files.isRegularFile(packedRefs)) {
-            return;
-        }
-        try (Stream<String> lines = Files.lines(packedRefs)) {
-            lines.map(String::trim)
-                    .filter(line -> !line.isBlank() && !line.startsWith("#") && !line.startsWith("^"))
-                    .map(line -> line.split("\\s+", 2))
-                    .filter(parts -> parts.length == 2 && parts[1].startsWith(prefix))
-                    .map(parts -> parts[1].substring(prefix.length()))
-                    .filter(value -> !value.isBlank())
-                    .forEach(ref -> result.putIfAbsent(ref, GitHubWorkflowBundle.message(descriptionKey)));
-        } catch (final IOException ignored) {
-            // Local ref completion is opportunistic.
-        }
-    }
-
     private static Optional<Path> repositoryRoot(final PsiElement position) {
         Path current = ofNullable(position)
                 .map(PsiElement::getContainingFile)
@@ -586,8 +564,7 @@ public class WorkflowCompletion extends CompletionContributor {
 
     private static Map<String, String> knownRemoteRefs(final PsiElement position, final String usesBase) {
         final Map<String, String> result = new LinkedHashMap<>();
-        knownRemoteActions(position).stream()
-                .filter(action -> splitRemoteUses(action.usesValue()).map(uses -> usesBase.equals(uses.base())).orElse(false))
+        GitHubActionCache.getActionCache().remoteActions(usesBase).stream()
                 .flatMap(action -> action.remoteRefs().stream())
                 .forEach(ref -> result.putIfAbsent(ref, GitHubWorkflowBundle.message("completion.uses.ref.known")));
         knownRemoteUsesValues(position).stream()
@@ -595,8 +572,17 @@ public class WorkflowCompletion extends CompletionContributor {
                 .flatMap(Optional::stream)
                 .filter(uses -> usesBase.equals(uses.base()))
                 .forEach(uses -> result.putIfAbsent(uses.ref(), GitHubWorkflowBundle.message("completion.uses.ref.known")));
-        GitHubActionCache.getActionCache().remoteRefsFor(usesBase, 10)
-                .forEach(ref -> result.putIfAbsent(ref, GitHubWorkflowBundle.message("completion.uses.ref.remote")));
+        return result;
+    }
+
+    private static Map<String, String> remoteRefs(final String usesBase) {
+        final Map<String, String> result = new LinkedHashMap<>();
+        RemoteActionProviders.Suggestions.await(
+                "refs\n" + usesBase,
+                () -> GitHubActionCache.getActionCache().remoteRefsFor(usesBase, 10),
+                refs -> !refs.isEmpty(),
+                List.<String>of()
+        ).forEach(ref -> result.putIfAbsent(ref, GitHubWorkflowBundle.message("completion.uses.ref.remote")));
         return result;
     }
 
@@ -611,22 +597,17 @@ public class WorkflowCompletion extends CompletionContributor {
 
     private static List<String> knownRemoteUsesValues(final PsiElement position) {
         return Stream.concat(
-                        knownRemoteActions(position).stream().map(GitHubAction::usesValue),
-                        getAllElements(position.getContainingFile(), FIELD_USES).stream()
-                                .map(WorkflowPsi::getText)
-                                .flatMap(Optional::stream)
+                        knownRemoteActions().stream().map(GitHubAction::usesValue),
+                        WorkflowModel.of(position).usesValues().stream()
                 )
                 .filter(uses -> uses.contains("@") && !uses.startsWith("."))
                 .distinct()
                 .toList();
     }
 
-    private static List<GitHubAction> knownRemoteActions(final PsiElement position) {
-        return ofNullable(GitHubActionCache.getActionCache().getState())
-                .stream()
-                .flatMap(state -> state.actions.values().stream())
+    private static List<GitHubAction> knownRemoteActions() {
+        return GitHubActionCache.getActionCache().remoteActions().stream()
                 .filter(action -> action.usesValue().contains("@") && !action.usesValue().startsWith("."))
-                .distinct()
                 .toList();
     }
 
@@ -1053,4 +1034,89 @@ public class WorkflowCompletion extends CompletionContributor {
             String prefix
     ) {
     }
+
+    /**
+     * Local action metadata files, reusable workflow files, and the first project paths, cached per project until files
+     * are added, removed, moved, or renamed or the project roots change. Action files and {@code workflows} directories
+     * are looked up by name in the platform file name index, so neither lookup walks the project content. While indexing,
+     * only the well-known locations below the content roots are listed.
+     */
+    private record LocalFiles(List<VirtualFile> actions, List<VirtualFile> workflows, List<String> paths) {
+
+        private static final int MAX_PATHS = 200;
+        private static final List<String> ACTION_FILE_NAMES = List.of("action.yml", "action.yaml");
+        private static final List<String> CONFIG_DIRECTORIES = List.of(".github", ".gitea");
+
+        private static LocalFiles of(final Project project) {
+            if (DumbService.isDumb(project)) {
+                return CachedValuesManager.getManager(project).getCachedValue(project, () -> CachedValueProvider.Result.create(
+                        roots(project),
+                        VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS,
+                        ProjectRootManager.getInstance(project)
+                ));
+            }
+            return CachedValuesManager.getManager(project).getCachedValue(project, () -> CachedValueProvider.Result.create(
+                    index(project),
+                    VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS,
+                    ProjectRootManager.getInstance(project)
+            ));
+        }
+
+        private static LocalFiles index(final Project project) {
+            final GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+            final List<VirtualFile> actions = sorted(ACTION_FILE_NAMES.stream()
+                    .flatMap(name -> FilenameIndex.getVirtualFilesByName(name, false, scope).stream()));
+            final List<VirtualFile> workflows = sorted(FilenameIndex.getVirtualFilesByName("workflows", false, scope).stream()
+                    .filter(VirtualFile::isDirectory)
+                    .flatMap(directory -> workflowFiles(directory).stream()));
+            return new LocalFiles(actions, workflows, paths(project));
+        }
+
+        // dumb mode: content root action files, .github/actions/<name>/action.yml, and .github/workflows/*.yml
+        private static LocalFiles roots(final Project project) {
+            final List<VirtualFile> actions = new ArrayList<>();
+            final List<VirtualFile> workflows = new ArrayList<>();
+            for (final VirtualFile root : ProjectRootManager.getInstance(project).getContentRoots()) {
+                ACTION_FILE_NAMES.stream().map(root::findChild).filter(Objects::nonNull).forEach(actions::add);
+                for (final String config : CONFIG_DIRECTORIES) {
+                    ofNullable(root.findFileByRelativePath(config + "/actions")).map(VirtualFile::getChildren).stream()
+                            .flatMap(Stream::of)
+                            .filter(VirtualFile::isDirectory)
+                            .flatMap(directory -> ACTION_FILE_NAMES.stream().map(directory::findChild))
+                            .filter(Objects::nonNull)
+                            .forEach(actions::add);
+                    ofNullable(root.findFileByRelativePath(config + "/workflows")).map(LocalFiles::workflowFiles).ifPresent(workflows::addAll);
+                }
+            }
+            return new LocalFiles(sorted(actions.stream()), sorted(workflows.stream()), paths(project));
+        }
+
+        private static List<VirtualFile> workflowFiles(final VirtualFile directory) {
+            return Stream.of(directory.getChildren())
+                    .filter(file -> !file.isDirectory() && isWorkflowFile(Path.of(file.getPath())))
+                    .toList();
+        }
+
+        private static List<String> paths(final Project project) {
+            final ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+            final Map<String, Boolean> result = new LinkedHashMap<>();
+            fileIndex.iterateContent(file -> {
+                if (!file.isDirectory() && !file.getPath().contains("/.git/")) {
+                    final VirtualFile contentRoot = fileIndex.getContentRootForFile(file);
+                    if (contentRoot != null) {
+                        final String path = Path.of(contentRoot.getPath()).relativize(Path.of(file.getPath())).toString().replace('\\', '/');
+                        if (!path.isBlank()) {
+                            result.putIfAbsent(path, Boolean.TRUE);
+                        }
+                    }
+                }
+                return result.size() < MAX_PATHS;
+            });
+            return List.copyOf(result.keySet());
+        }
+
+        private static List<VirtualFile> sorted(final Stream<VirtualFile> files) {
+            return files.filter(file -> !file.isDirectory()).distinct().sorted(Comparator.comparing(VirtualFile::getPath)).toList();
+        }
+    }
 }
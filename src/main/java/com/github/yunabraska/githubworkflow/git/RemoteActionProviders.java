@@ -6,6 +6,7 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
 import com.intellij.credentialStore.CredentialAttributes;
 import com.intellij.credentialStore.Credentials;
 import com.intellij.ide.passwordSafe.PasswordSafe;
@@ -16,8 +17,11 @@ import com.intellij.openapi.components.PersistentStateComponent;
 import com.intellij.openapi.components.State;
 import com.intellij.openapi.components.Storage;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.project.ProjectManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.intellij.util.xmlb.XmlSerializerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -26,15 +30,23 @@ import org.jetbrains.plugins.github.authentication.accounts.GithubAccount;
 import org.jetbrains.plugins.github.util.GHCompatibilityUtil;
 
 import java.io.IOException;
+import java.net.ConnectException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -42,9 +54,23 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class RemoteActionProviders {
 
@@ -55,9 +81,133 @@ public class RemoteActionProviders {
             .build();
 
     public static Optional<Resolution> resolve(final String usesValue) {
-        return firstPresent(server -> resolve(server, usesValue));
+        return resolve(usesValue, Map.of());
     }
 
+    /**
+     * Resolves remote action metadata and revalidates previously fetched parts with HTTP cache validators. Parts the
+     * server answers with {@code 304 Not Modified} come back as {@code null}, so callers keep their cached values.
+     *
+     * @param usesValue remote {@code uses} value including its ref
+     * @param validators validators from a previous resolution, keyed by request part
+     * @return fresh or revalidated metadata, or empty when no enabled server knows the action
+     */
+    public static Optional<Resolution> resolve(final String usesValue, final Map<String, Validator> validators) {
+        if (usesValue == null || Failures.backoff(usesValue).isPresent()) {
+            return Optional.empty();
+        }
+        final Map<String, Validator> previous = Optional.ofNullable(validators).orElseGet(Map::of);
+        final List<Failure> failures = new CopyOnWriteArrayList<>();
+        final Optional<Resolution> result = firstPresent(server -> resolve(server, usesValue, previous, failures));
+        if (result.isPresent()) {
+            Failures.forget(usesValue);
+        } else if (!Thread.currentThread().isInterrupted()) {
+            // A cancelled lookup says nothing about the action, so it is not backed off.
+            Failures.recordUses(usesValue, failures);
+        }
+        return result;
+    }
+
+    /**
+     * Resolves many remote actions with one GraphQL request per GitHub server. Each query fetches the metadata blobs and
+     * the branches and tags of every referenced repository. Gitea servers, servers without GraphQL, and actions the batch
+     * could not find are left out of the result, so callers fall back to {@link #resolve(String, Map)} for them.
+     *
+     * @param usesValues remote {@code uses} values including their refs; callers keep batches to a few dozen entries
+     * @return resolutions keyed by {@code uses} value
+     */
+    public static Map<String, Resolution> resolveBatch(final Collection<String> usesValues) {
+        final Map<String, Resolution> result = new LinkedHashMap<>();
+        final List<String> pending = Optional.ofNullable(usesValues).orElseGet(List::of).stream()
+                .filter(Objects::nonNull)
+                .filter(usesValue -> Failures.backoff(usesValue).isEmpty())
+                .distinct()
+                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        for (final Server server : Settings.getInstance().enabledServers()) {
+            if (pending.isEmpty()) {
+                break;
+            }
+            if (server.isGitea()) {
+                continue;
+            }
+            final List<RemoteUses> uses = pending.stream()
+                    .map(usesValue -> RemoteUses.parse(server, usesValue))
+                    .flatMap(Optional::stream)
+                    .toList();
+            if (!uses.isEmpty()) {
+                GraphQl.resolve(server, uses).forEach(result::put);
+                pending.removeIf(result::containsKey);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the active backoff of a {@code uses} value that recently failed to resolve.
+     *
+     * @param usesValue remote {@code uses} value including its ref
+     * @return failure reason and retry time, or empty when a lookup may run now
+     */
+    public static Optional<Backoff> backoff(final String usesValue) {
+        return Failures.backoff(usesValue);
+    }
+
+    /**
+     * Drops the failure history of a {@code uses} value so the next lookup goes to the servers again.
+     *
+     * @param usesValue remote {@code uses} value including its ref
+     */
+    public static void forgetFailure(final String usesValue) {
+        Failures.forget(usesValue);
+    }
+
+    /**
+     * Drops every recorded {@code uses} and server failure.
+     */
+    public static void clearFailures() {
+        Failures.clear();
+    }
+
+    /**
+     * Why a remote lookup failed. Rate limits and timeouts also back off the whole server.
+     */
+    public enum FailureReason {
+        UNAUTHORIZED,
+        FORBIDDEN,
+        NOT_FOUND,
+        RATE_LIMITED,
+        TIMEOUT,
+        UNAVAILABLE;
+
+        static FailureReason of(final int statusCode) {
+            return switch (statusCode) {
+                case 401 -> UNAUTHORIZED;
+                case 403 -> FORBIDDEN;
+                case 404 -> NOT_FOUND;
+                case 429 -> RATE_LIMITED;
+                default -> UNAVAILABLE;
+            };
+        }
+    }
+
+    /**
+     * Negative cache entry of a failed lookup.
+     *
+     * @param reason why the last lookup failed
+     * @param failures consecutive failures, used for the exponential backoff
+     * @param retryAtMillis epoch millis before which no new lookup is sent
+     */
+    public record Backoff(FailureReason reason, int failures, long retryAtMillis) {
+
+        public boolean active() {
+            return System.currentTimeMillis() < retryAtMillis;
+        }
+    }
+
+    /**
+     * Remote action metadata. {@code downloadUrl} and {@code content} are {@code null} when the metadata file was not
+     * modified; {@code refs} is {@code null} when branches and tags were not modified.
+     */
     public record Resolution(
             String usesValue,
             String name,
@@ -65,8 +215,82 @@ public class RemoteActionProviders {
             String githubUrl,
             String content,
             boolean action,
-            List<String> refs
+            List<String> refs,
+            Map<String, Validator> validators
     ) {
+
+        public Resolution(
+                final String usesValue,
+                final String name,
+                final String downloadUrl,
+                final String githubUrl,
+                final String content,
+                final boolean action,
+                final List<String> refs
+        ) {
+            this(usesValue, name, downloadUrl, githubUrl, content, action, refs, Map.of());
+        }
+
+        /**
+         * Reports whether the server confirmed every cached part without sending a body.
+         *
+         * @return {@code true} when content, branches, and tags were all {@code 304 Not Modified}
+         */
+        public boolean notModified() {
+            return content == null && refs == null;
+        }
+    }
+
+    /**
+     * HTTP cache validators of one remote response, sent back as {@code If-None-Match} and {@code If-Modified-Since}.
+     *
+     * @param etag {@code ETag} response header, empty when absent
+     * @param lastModified {@code Last-Modified} response header, empty when absent
+     */
+    public record Validator(String etag, String lastModified) {
+
+        public static final Validator NONE = new Validator("", "");
+
+        public Validator {
+            etag = Optional.ofNullable(etag).map(String::trim).orElse("");
+            lastModified = Optional.ofNullable(lastModified).map(String::trim).orElse("");
+        }
+
+        public boolean isPresent() {
+            return hasText(etag) || hasText(lastModified);
+        }
+
+        /**
+         * Encodes this validator as one metadata value. Header values never contain tabs, so a tab is a safe separator.
+         *
+         * @return {@code etag<TAB>lastModified}
+         */
+        public String encoded() {
+            return etag + "\t" + lastModified;
+        }
+
+        public static Validator decode(final String value) {
+            final String[] parts = Optional.ofNullable(value).orElse("").split("\t", -1);
+            return new Validator(parts[0], parts.length > 1 ? parts[1] : "");
+        }
+
+        static Validator of(final HttpHeaders headers) {
+            return new Validator(headers.firstValue("ETag").orElse(""), headers.firstValue("Last-Modified").orElse(""));
+        }
+
+        Validator refreshedBy(final HttpHeaders headers) {
+            final Validator fresh = of(headers);
+            return new Validator(hasText(fresh.etag) ? fresh.etag : etag, hasText(fresh.lastModified) ? fresh.lastModified : lastModified);
+        }
+
+        void applyTo(final HttpRequest.Builder builder) {
+            if (hasText(etag)) {
+                builder.header("If-None-Match", etag);
+            }
+            if (hasText(lastModified)) {
+                builder.header("If-Modified-Since", lastModified);
+            }
+        }
     }
 
     public static List<String> latestRefs(final String usesBase, final int limit) {
@@ -96,10 +320,7 @@ public class RemoteActionProviders {
     }
 
     private static <T> Optional<T> firstPresent(final Function<Server, Optional<T>> resolver) {
-        return Settings.getInstance().enabledServers().stream()
-                .map(resolver)
-                .flatMap(Optional::stream)
-                .findFirst();
+        return firstUseful(resolver, Optional::isPresent, Optional.empty());
     }
 
     private static <T> T firstUseful(
@@ -107,30 +328,154 @@ public class RemoteActionProviders {
             final Predicate<T> useful,
             final T empty
     ) {
-        return Settings.getInstance().enabledServers().stream()
-                .map(resolver)
-                .filter(useful)
-                .findFirst()
-                .orElse(empty);
+        final Settings settings = Settings.getInstance();
+        final List<Server> servers = settings.enabledServers();
+        if (servers.size() < 2 || settings.serverFanOut() == ServerFanOut.SEQUENTIAL) {
+            return servers.stream()
+                    .map(resolver)
+                    .filter(useful)
+                    .findFirst()
+                    .orElse(empty);
+        }
+        return FanOut.first(servers, resolver, useful, empty, settings.serverFanOut() == ServerFanOut.HEDGED ? settings.hedgeDelayMillis() : 0);
+    }
+
+    /**
+     * How lookups spread over the enabled servers.
+     */
+    public enum ServerFanOut {
+        /** One server after another in configured order. */
+        SEQUENTIAL,
+        /** All servers at once. */
+        PARALLEL,
+        /** The next server starts when the previous ones failed or did not answer within the hedge delay. */
+        HEDGED
+    }
+
+    /**
+     * Multi-server lookup where the first useful answer wins and the remaining requests are cancelled, so a slow server
+     * never holds back a faster one. The configured server order only breaks ties between answers that completed
+     * together.
+     */
+    private static final class FanOut {
+
+        private static <T> T first(
+                final List<Server> servers,
+                final Function<Server, T> resolver,
+                final Predicate<T> useful,
+                final T empty,
+                final long hedgeDelayMillis
+        ) {
+            final int count = servers.size();
+            final List<T> results = new ArrayList<>(Collections.nCopies(count, empty));
+            final BlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+            final List<Future<?>> futures = new ArrayList<>(count);
+            int finished = 0;
+            try {
+                while (finished < count) {
+                    if (futures.size() < count && (hedgeDelayMillis <= 0 || finished == futures.size())) {
+                        futures.add(start(servers, futures.size(), resolver, results, completed));
+                        continue;
+                    }
+                    final Integer index = futures.size() < count
+                            ? completed.poll(hedgeDelayMillis, TimeUnit.MILLISECONDS)
+                            : completed.take();
+                    if (index == null) {
+                        futures.add(start(servers, futures.size(), resolver, results, completed));
+                        continue;
+                    }
+                    final List<Integer> batch = new ArrayList<>(List.of(index));
+                    completed.drainTo(batch);
+                    finished += batch.size();
+                    final Optional<T> winner = batch.stream()
+                            .sorted()
+                            .map(answer -> result(results, answer))
+                            .filter(useful)
+                            .findFirst();
+                    if (winner.isPresent()) {
+                        return winner.get();
+                    }
+                    // Nothing useful in this batch: a hedged fan-out starts the next server right away.
+                    if (hedgeDelayMillis > 0 && futures.size() < count) {
+                        futures.add(start(servers, futures.size(), resolver, results, completed));
+                    }
+                }
+                return empty;
+            } catch (final InterruptedException exception) {
+                // Callers see the interrupt flag and skip recording the lookup as failed.
+                Thread.currentThread().interrupt();
+                return empty;
+            } finally {
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+
+        private static <T> Future<?> start(
+                final List<Server> servers,
+                final int index,
+                final Function<Server, T> resolver,
+                final List<T> results,
+                final BlockingQueue<Integer> completed
+        ) {
+            return AppExecutorUtil.getAppExecutorService().submit(() -> {
+                try {
+                    final T result = resolver.apply(servers.get(index));
+                    synchronized (results) {
+                        results.set(index, result);
+                    }
+                } catch (final RuntimeException exception) {
+                    LOG.debug("Remote lookup failed [" + servers.get(index).apiUrl + "]", exception);
+                } finally {
+                    completed.add(index);
+                }
+            });
+        }
+
+        private static <T> T result(final List<T> results, final int index) {
+            synchronized (results) {
+                return results.get(index);
+            }
+        }
     }
 
-    private static Optional<Resolution> resolve(final Server server, final String usesValue) {
-        return RemoteUses.parse(server, usesValue).flatMap(remoteUses -> resolve(server, remoteUses));
+    private static Optional<Resolution> resolve(
+            final Server server,
+            final String usesValue,
+            final Map<String, Validator> validators,
+            final List<Failure> failures
+    ) {
+        return RemoteUses.parse(server, usesValue).flatMap(remoteUses -> resolve(server, remoteUses, validators, failures));
     }
 
-    private static Optional<Resolution> resolve(final Server server, final RemoteUses uses) {
+    private static Optional<Resolution> resolve(
+            final Server server,
+            final RemoteUses uses,
+            final Map<String, Validator> validators,
+            final List<Failure> failures
+    ) {
         for (final String metadataPath : metadataPaths(server, uses)) {
-            final Optional<ContentResponse> content = getContent(server, uses.owner(), uses.repo(), metadataPath, uses.ref());
-            if (content.isPresent()) {
-                final List<String> refs = listRefs(server, uses.owner(), uses.repo());
+            final String part = "contents/" + metadataPath;
+            final String url = server.apiUrl + "/repos/" + encode(uses.owner()) + "/" + encode(uses.repo()) + "/contents/" + encodePath(metadataPath) + "?ref=" + encode(uses.ref());
+            final JsonResponse exchange = exchange(server, url, validators.getOrDefault(part, Validator.NONE));
+            Optional.ofNullable(exchange.failure()).ifPresent(failures::add);
+            final Optional<JsonResponse> response = Optional.of(exchange).filter(JsonResponse::succeeded);
+            final Optional<ContentResponse> content = response
+                    .filter(value -> !value.notModified())
+                    .flatMap(value -> contentFromJson(value.json(), url));
+            if (content.isPresent() || response.filter(JsonResponse::notModified).isPresent()) {
+                final Map<String, Validator> freshValidators = new LinkedHashMap<>();
+                freshValidators.put(part, response.get().validator());
+                final RefList refs = listRefs(server, uses.owner(), uses.repo(), validators);
+                freshValidators.putAll(refs.validators());
                 return Optional.of(new Resolution(
                         uses.usesValue(),
                         uses.owner() + "/" + uses.repo(),
-                        content.get().downloadUrl(),
+                        content.map(ContentResponse::downloadUrl).orElse(null),
                         htmlUrl(server, uses, metadataPath),
-                        content.get().content(),
+                        content.map(ContentResponse::content).orElse(null),
                         !isWorkflowPath(metadataPath),
-                        refs
+                        refs.refs(),
+                        Map.copyOf(freshValidators)
                 ));
             }
         }
@@ -151,24 +496,36 @@ public class RemoteActionProviders {
                 && (normalized.endsWith(".yml") || normalized.endsWith(".yaml"));
     }
 
-    private static Optional<ContentResponse> getContent(
-            final Server server,
-            final String owner,
-            final String repo,
-            final String path,
-            final String ref
-    ) {
-        final String url = server.apiUrl + "/repos/" + encode(owner) + "/" + encode(repo) + "/contents/" + encodePath(path) + "?ref=" + encode(ref);
-        return getJson(server, url).flatMap(json -> contentFromJson(json, url));
-    }
-
-    private static List<String> listRefs(final Server server, final String owner, final String repo) {
-        final LinkedHashSet<String> result = new LinkedHashSet<>();
+    /**
+     * Lists branches and tags. When both answer {@code 304 Not Modified} the refs are unchanged; when only one of them
+     * changed, the other is fetched again without validators because cached refs are stored merged.
+     */
+    private static RefList listRefs(final Server server, final String owner, final String repo, final Map<String, Validator> validators) {
+        final Map<String, JsonResponse> responses = new LinkedHashMap<>();
         for (final String endpoint : List.of("branches", "tags")) {
-            final String url = server.apiUrl + "/repos/" + encode(owner) + "/" + encode(repo) + "/" + endpoint;
-            getJson(server, url).ifPresent(json -> namesFromJson(json).forEach(result::add));
+            getJson(server, refsUrl(server, owner, repo, endpoint), validators.getOrDefault(endpoint, Validator.NONE))
+                    .ifPresent(response -> responses.put(endpoint, response));
         }
-        return List.copyOf(result);
+        final Map<String, Validator> freshValidators = new LinkedHashMap<>();
+        responses.forEach((endpoint, response) -> freshValidators.put(endpoint, response.validator()));
+        if (responses.size() == 2 && responses.values().stream().allMatch(JsonResponse::notModified)) {
+            return new RefList(null, freshValidators);
+        }
+        final LinkedHashSet<String> result = new LinkedHashSet<>();
+        responses.forEach((endpoint, response) -> {
+            final Optional<JsonResponse> body = response.notModified()
+                    ? getJson(server, refsUrl(server, owner, repo, endpoint), Validator.NONE)
+                    : Optional.of(response);
+            body.ifPresent(value -> {
+                namesFromJson(value.json()).forEach(result::add);
+                freshValidators.put(endpoint, value.validator());
+            });
+        });
+        return new RefList(List.copyOf(result), freshValidators);
+    }
+
+    private static String refsUrl(final Server server, final String owner, final String repo, final String endpoint) {
+        return server.apiUrl + "/repos/" + encode(owner) + "/" + encode(repo) + "/" + endpoint;
     }
 
     private static List<String> latestRefs(final Server server, final RemoteUses uses, final int limit) {
@@ -198,7 +555,30 @@ public class RemoteActionProviders {
     }
 
     private static Optional<JsonElement> getJson(final Server server, final String url) {
-        for (final RemoteActionProviders.Authorizations.Authorization authorization : RemoteActionProviders.Authorizations.forServer(server, null)) {
+        return getJson(server, url, Validator.NONE).map(JsonResponse::json);
+    }
+
+    private static Optional<JsonResponse> getJson(final Server server, final String url, final Validator validator) {
+        return Optional.of(exchange(server, url, validator)).filter(JsonResponse::succeeded);
+    }
+
+    private static JsonResponse exchange(final Server server, final String url, final Validator validator) {
+        return InFlightRequests.join(server.name + "\n" + url + "\n" + validator.encoded(), () -> fetchJson(server, url, validator));
+    }
+
+    private static JsonResponse fetchJson(final Server server, final String url, final Validator validator) {
+        final Optional<Backoff> serverBackoff = Failures.serverBackoff(url);
+        if (serverBackoff.isPresent()) {
+            return JsonResponse.failed(serverBackoff.get().reason(), serverBackoff.get().retryAtMillis());
+        }
+        FailureReason reason = FailureReason.UNAVAILABLE;
+        final List<RemoteActionProviders.Authorizations.Authorization> authorizations = RemoteActionProviders.Authorizations.forServer(server, null);
+        final RateLimits rateLimits = new RateLimits(authorizations.size());
+        for (final RemoteActionProviders.Authorizations.Authorization authorization : authorizations) {
+            if (rateLimits.skip(url, authorization)) {
+                reason = FailureReason.RATE_LIMITED;
+                continue;
+            }
             try {
                 final HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
                         .timeout(Duration.ofSeconds(3))
@@ -207,25 +587,605 @@ public class RemoteActionProviders {
                 if (authorization.authenticated()) {
                     builder.header("Authorization", authorization.authorizationHeader());
                 }
-                final HttpResponse<String> response = CLIENT.send(builder.GET().build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+                validator.applyTo(builder);
+                final HttpResponse<String> response;
+                try (HostLimits.Permit ignored = HostLimits.acquire(url)) {
+                    response = CLIENT.send(builder.GET().build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+                }
+                if (response.statusCode() == 304 && validator.isPresent()) {
+                    Failures.serverRecovered(url);
+                    return new JsonResponse(null, validator.refreshedBy(response.headers()), true, null);
+                }
                 if (response.statusCode() / 100 == 2) {
-                    return Optional.of(JsonParser.parseString(response.body()));
+                    Failures.serverRecovered(url);
+                    return new JsonResponse(JsonParser.parseString(response.body()), Validator.of(response.headers()), false, null);
+                }
+                reason = FailureReason.of(response.statusCode());
+                if (Failures.isRateLimit(response)) {
+                    rateLimits.record(url, authorization, response.headers());
+                    reason = FailureReason.RATE_LIMITED;
+                    continue;
                 }
                 if (!shouldTryNextAuthorization(response.statusCode())) {
-                    return Optional.empty();
+                    return JsonResponse.failed(reason);
                 }
+            } catch (final HttpTimeoutException | ConnectException exception) {
+                LOG.debug("Remote request timed out [" + url + "]", exception);
+                return JsonResponse.failed(FailureReason.TIMEOUT, Failures.recordTimeout(url).map(Backoff::retryAtMillis).orElse(0L));
             } catch (final IOException exception) {
                 LOG.warn("Remote request failed [" + url + "]", exception);
-                return Optional.empty();
+                return JsonResponse.failed(FailureReason.UNAVAILABLE);
             } catch (final InterruptedException exception) {
                 Thread.currentThread().interrupt();
-                return Optional.empty();
+                return JsonResponse.failed(FailureReason.UNAVAILABLE);
             } catch (final RuntimeException exception) {
                 LOG.warn("Remote response failed [" + url + "]", exception);
+                return JsonResponse.failed(FailureReason.UNAVAILABLE);
+            }
+        }
+        return rateLimits.serverBackoff(url)
+                .map(backoff -> JsonResponse.failed(FailureReason.RATE_LIMITED, backoff.retryAtMillis()))
+                .orElse(JsonResponse.failed(reason));
+    }
+
+    /**
+     * Rate limits seen by one request across the authorizations it tries. A limited authorization is skipped until its
+     * backoff has passed; the whole host only backs off once every authorization is limited.
+     */
+    private static final class RateLimits {
+
+        private final int authorizations;
+        private int limited;
+        private long retryAtMillis = Long.MAX_VALUE;
+
+        private RateLimits(final int authorizations) {
+            this.authorizations = authorizations;
+        }
+
+        private boolean skip(final String url, final RemoteActionProviders.Authorizations.Authorization authorization) {
+            final Optional<Backoff> backoff = Failures.authorizationBackoff(url, authorization);
+            backoff.ifPresent(this::count);
+            return backoff.isPresent();
+        }
+
+        private void record(final String url, final RemoteActionProviders.Authorizations.Authorization authorization, final HttpHeaders headers) {
+            count(Failures.recordAuthorization(url, authorization, Failures.retryHint(headers)));
+        }
+
+        private void count(final Backoff backoff) {
+            limited++;
+            retryAtMillis = Math.min(retryAtMillis, backoff.retryAtMillis());
+        }
+
+        private boolean any() {
+            return limited > 0;
+        }
+
+        private Optional<Backoff> serverBackoff(final String url) {
+            return limited > 0 && limited == authorizations
+                    ? Optional.of(Failures.recordServer(url, FailureReason.RATE_LIMITED, OptionalLong.of(retryAtMillis)))
+                    : Optional.empty();
+        }
+    }
+
+    /**
+     * Negative cache for remote lookups. A {@code uses} value that no server could resolve is not looked up again until
+     * its exponential backoff has passed, so typos, private repositories, and missing refs do not hit the network on
+     * every highlighting pass. A rate limit backs off the authorization that hit it, and the whole host once every
+     * authorization is limited, honoring {@code Retry-After} and {@code X-RateLimit-Reset} when the server sends them.
+     * Timeouts back off the host after a few in a row.
+     */
+    private static final class Failures {
+
+        private static final long USES_BASE_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(2);
+        private static final long USES_MAX_BACKOFF_MILLIS = TimeUnit.HOURS.toMillis(6);
+        private static final long SERVER_BASE_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(10);
+        private static final long SERVER_MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(15);
+        private static final Map<String, Backoff> USES = new ConcurrentHashMap<>();
+        private static final Map<String, Backoff> SERVERS = new ConcurrentHashMap<>();
+        private static final Map<String, Backoff> AUTHORIZATIONS = new ConcurrentHashMap<>();
+        private static final Map<String, Integer> TIMEOUTS = new ConcurrentHashMap<>();
+        private static final int TIMEOUTS_BEFORE_SERVER_BACKOFF = 3;
+
+        private static Optional<Backoff> backoff(final String usesValue) {
+            return Optional.ofNullable(usesValue).map(USES::get).filter(Backoff::active);
+        }
+
+        private static Optional<Backoff> serverBackoff(final String url) {
+            return Optional.ofNullable(SERVERS.get(HostLimits.hostKey(url))).filter(Backoff::active);
+        }
+
+        private static void recordUses(final String usesValue, final List<Failure> failures) {
+            final FailureReason reason = failures.stream()
+                    .map(Failure::reason)
+                    .min(Comparator.comparingInt(Failures::priority))
+                    .orElse(FailureReason.NOT_FOUND);
+            final long serverRetryAt = failures.stream().mapToLong(Failure::retryAtMillis).max().orElse(0);
+            final Backoff backoff = USES.compute(usesValue, (key, previous) -> {
+                final Backoff next = next(previous, reason, USES_BASE_BACKOFF_MILLIS, USES_MAX_BACKOFF_MILLIS, OptionalLong.empty());
+                return new Backoff(reason, next.failures(), Math.max(next.retryAtMillis(), serverRetryAt));
+            });
+            LOG.debug("Remote lookup failed [" + usesValue + "] reason [" + backoff.reason() + "] retry at [" + backoff.retryAtMillis() + "]");
+        }
+
+        private static Backoff recordServer(final String url, final FailureReason reason, final OptionalLong retryAtMillis) {
+            return SERVERS.compute(HostLimits.hostKey(url), (key, previous) -> next(previous, reason, SERVER_BASE_BACKOFF_MILLIS, SERVER_MAX_BACKOFF_MILLIS, retryAtMillis));
+        }
+
+        private static Optional<Backoff> authorizationBackoff(final String url, final RemoteActionProviders.Authorizations.Authorization authorization) {
+            return AUTHORIZATIONS.isEmpty()
+                    ? Optional.empty()
+                    : Optional.ofNullable(AUTHORIZATIONS.get(authorizationKey(url, authorization))).filter(Backoff::active);
+        }
+
+        private static Backoff recordAuthorization(
+                final String url,
+                final RemoteActionProviders.Authorizations.Authorization authorization,
+                final OptionalLong retryAtMillis
+        ) {
+            return AUTHORIZATIONS.compute(authorizationKey(url, authorization), (key, previous) -> next(previous, FailureReason.RATE_LIMITED, SERVER_BASE_BACKOFF_MILLIS, SERVER_MAX_BACKOFF_MILLIS, retryAtMillis));
+        }
+
+        /**
+         * Counts a timeout and backs off the host once it timed out several times in a row.
+         */
+        private static Optional<Backoff> recordTimeout(final String url) {
+            final int timeouts = TIMEOUTS.merge(HostLimits.hostKey(url), 1, Integer::sum);
+            return timeouts < TIMEOUTS_BEFORE_SERVER_BACKOFF
+                    ? Optional.empty()
+                    : Optional.of(recordServer(url, FailureReason.TIMEOUT, OptionalLong.empty()));
+        }
+
+        private static void serverRecovered(final String url) {
+            if (!SERVERS.isEmpty() || !TIMEOUTS.isEmpty()) {
+                final String host = HostLimits.hostKey(url);
+                SERVERS.remove(host);
+                TIMEOUTS.remove(host);
+            }
+        }
+
+        private static String authorizationKey(final String url, final RemoteActionProviders.Authorizations.Authorization authorization) {
+            return HostLimits.hostKey(url) + "\n" + authorization.key();
+        }
+
+        private static void forget(final String usesValue) {
+            Optional.ofNullable(usesValue).ifPresent(USES::remove);
+        }
+
+        private static void clear() {
+            USES.clear();
+            SERVERS.clear();
+            AUTHORIZATIONS.clear();
+            TIMEOUTS.clear();
+        }
+
+        private static Backoff next(
+                final Backoff previous,
+                final FailureReason reason,
+                final long baseMillis,
+                final long maxMillis,
+                final OptionalLong retryAtMillis
+        ) {
+            final int failures = previous == null ? 1 : previous.failures() + 1;
+            final long delay = Math.min(maxMillis, baseMillis << Math.min(failures - 1, 20));
+            final long retryAt = retryAtMillis.orElse(System.currentTimeMillis() + delay);
+            return new Backoff(reason, failures, retryAt);
+        }
+
+        /**
+         * Rate limits are {@code 429}, or {@code 403} with an exhausted {@code X-RateLimit-Remaining} as GitHub sends them.
+         */
+        private static boolean isRateLimit(final HttpResponse<?> response) {
+            return response.statusCode() == 429 || (response.statusCode() == 403
+                    && (response.headers().firstValue("Retry-After").isPresent()
+                    || response.headers().firstValue("X-RateLimit-Remaining").filter("0"::equals).isPresent()));
+        }
+
+        private static OptionalLong retryHint(final HttpHeaders headers) {
+            final long now = System.currentTimeMillis();
+            final Optional<String> retryAfter = headers.firstValue("Retry-After").map(String::trim);
+            if (retryAfter.isPresent()) {
+                try {
+                    return OptionalLong.of(now + TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.get())));
+                } catch (final NumberFormatException ignored) {
+                    try {
+                        return OptionalLong.of(ZonedDateTime.parse(retryAfter.get(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli());
+                    } catch (final DateTimeParseException ignoredDate) {
+                        // fall through to the rate limit reset header
+                    }
+                }
+            }
+            try {
+                return headers.firstValue("X-RateLimit-Reset")
+                        .map(String::trim)
+                        .map(value -> OptionalLong.of(TimeUnit.SECONDS.toMillis(Long.parseLong(value))))
+                        .orElseGet(OptionalLong::empty);
+            } catch (final NumberFormatException ignored) {
+                return OptionalLong.empty();
+            }
+        }
+
+        /**
+         * Orders reasons from different servers; the most specific answer explains the failed lookup best.
+         */
+        private static int priority(final FailureReason reason) {
+            return switch (reason) {
+                case RATE_LIMITED -> 0;
+                case UNAUTHORIZED -> 1;
+                case FORBIDDEN -> 2;
+                case TIMEOUT -> 3;
+                case NOT_FOUND -> 4;
+                case UNAVAILABLE -> 5;
+            };
+        }
+    }
+
+    /**
+     * GraphQL batch lookup for GitHub servers. One query asks for every repository at once; each repository block
+     * carries the metadata blobs of all referenced refs and paths plus branches and tags, so a cold cache needs one round
+     * trip per batch instead of up to four REST calls per action. GraphQL has no cache validators, so batch results
+     * carry none and later refreshes revalidate through REST.
+     */
+    private static final class GraphQl {
+
+        private static final int REFS_PAGE_SIZE = 100;
+        private static final long UNSUPPORTED_RETRY_MILLIS = TimeUnit.HOURS.toMillis(1);
+        private static final Map<String, Long> UNSUPPORTED = new ConcurrentHashMap<>();
+
+        private static Map<String, Resolution> resolve(final Server server, final List<RemoteUses> uses) {
+            if (UNSUPPORTED.getOrDefault(server.key(), 0L) > System.currentTimeMillis()) {
+                return Map.of();
+            }
+            final Map<String, List<RemoteUses>> repositories = new LinkedHashMap<>();
+            uses.forEach(value -> repositories.computeIfAbsent(value.owner() + "/" + value.repo(), key -> new ArrayList<>()).add(value));
+            final List<String> repositoryAliases = new ArrayList<>(repositories.keySet());
+            final Map<String, String> objectAliases = new LinkedHashMap<>();
+            final StringBuilder query = new StringBuilder("query {\n");
+            for (int index = 0; index < repositoryAliases.size(); index++) {
+                final List<RemoteUses> targets = repositories.get(repositoryAliases.get(index));
+                query.append("  r").append(index).append(": repository(owner: ").append(literal(targets.get(0).owner()))
+                        .append(", name: ").append(literal(targets.get(0).repo())).append(") {\n")
+                        .append("    heads: refs(refPrefix: \"refs/heads/\", first: ").append(REFS_PAGE_SIZE).append(") { nodes { name } }\n")
+                        .append("    tags: refs(refPrefix: \"refs/tags/\", first: ").append(REFS_PAGE_SIZE)
+                        .append(", orderBy: {field: TAG_COMMIT_DATE, direction: DESC}) { nodes { name } }\n");
+                for (final RemoteUses target : targets) {
+                    for (final String metadataPath : metadataPaths(server, target)) {
+                        final String expression = target.ref() + ":" + metadataPath;
+                        if (!objectAliases.containsKey(index + "\n" + expression)) {
+                            final String alias = "f" + objectAliases.size();
+                            objectAliases.put(index + "\n" + expression, alias);
+                            query.append("    ").append(alias).append(": object(expression: ").append(literal(expression))
+                                    .append(") { ... on Blob { text } }\n");
+                        }
+                    }
+                }
+                query.append("  }\n");
+            }
+            query.append("}\n");
+            final JsonObject body = new JsonObject();
+            body.addProperty("query", query.toString());
+            final Optional<JsonObject> data = post(server, graphQlUrl(server), body.toString())
+                    .filter(JsonElement::isJsonObject)
+                    .map(JsonElement::getAsJsonObject)
+                    .map(json -> json.get("data"))
+                    .filter(JsonElement::isJsonObject)
+                    .map(JsonElement::getAsJsonObject);
+            if (data.isEmpty()) {
+                return Map.of();
+            }
+            final Map<String, Resolution> result = new LinkedHashMap<>();
+            for (int index = 0; index < repositoryAliases.size(); index++) {
+                final JsonElement repository = data.get().get("r" + index);
+                if (repository == null || !repository.isJsonObject()) {
+                    continue;
+                }
+                final JsonObject repositoryObject = repository.getAsJsonObject();
+                final LinkedHashSet<String> refs = new LinkedHashSet<>();
+                refs.addAll(refNames(repositoryObject, "heads"));
+                refs.addAll(refNames(repositoryObject, "tags"));
+                for (final RemoteUses target : repositories.get(repositoryAliases.get(index))) {
+                    for (final String metadataPath : metadataPaths(server, target)) {
+                        final String alias = objectAliases.get(index + "\n" + target.ref() + ":" + metadataPath);
+                        final Optional<String> text = Optional.ofNullable(repositoryObject.get(alias))
+                                .filter(JsonElement::isJsonObject)
+                                .flatMap(blob -> stringValue(blob.getAsJsonObject(), "text"));
+                        if (text.isPresent()) {
+                            result.put(target.usesValue(), new Resolution(
+                                    target.usesValue(),
+                                    target.owner() + "/" + target.repo(),
+                                    rawUrl(server, target, metadataPath),
+                                    htmlUrl(server, target, metadataPath),
+                                    text.get(),
+                                    !isWorkflowPath(metadataPath),
+                                    List.copyOf(refs),
+                                    Map.of()
+                            ));
+                            break;
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static Optional<JsonElement> post(final Server server, final String url, final String body) {
+            if (Failures.serverBackoff(url).isPresent()) {
                 return Optional.empty();
             }
+            final List<RemoteActionProviders.Authorizations.Authorization> authorizations = RemoteActionProviders.Authorizations.forServer(server, null);
+            final RateLimits rateLimits = new RateLimits(authorizations.size());
+            for (final RemoteActionProviders.Authorizations.Authorization authorization : authorizations) {
+                if (rateLimits.skip(url, authorization)) {
+                    continue;
+                }
+                try {
+                    final HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                            .timeout(Duration.ofSeconds(10))
+                            .header("Accept", "application/json")
+                            .header("Content-Type", "application/json")
+                            .header("User-Agent", "GitHub-Workflow-Plugin");
+                    if (authorization.authenticated()) {
+                        builder.header("Authorization", authorization.authorizationHeader());
+                    }
+                    final HttpResponse<String> response;
+                    try (HostLimits.Permit ignored = HostLimits.acquire(url)) {
+                        response = CLIENT.send(builder.POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8)).build(),
+                                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+                    }
+                    if (response.statusCode() / 100 == 2) {
+                        Failures.serverRecovered(url);
+                        return Optional.of(JsonParser.parseString(response.body()));
+                    }
+                    if (Failures.isRateLimit(response)) {
+                        rateLimits.record(url, authorization, response.headers());
+                        continue;
+                    }
+                    if (!shouldTryNextAuthorization(response.statusCode())) {
+                        return Optional.empty();
+                    }
+                } catch (final HttpTimeoutException | ConnectException exception) {
+                    LOG.debug("GraphQL request timed out [" + url + "]", exception);
+                    Failures.recordTimeout(url);
+                    return Optional.empty();
+                } catch (final IOException | RuntimeException exception) {
+                    LOG.warn("GraphQL request failed [" + url + "]", exception);
+                    return Optional.empty();
+                } catch (final InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    return Optional.empty();
+                }
+            }
+            if (rateLimits.any()) {
+                rateLimits.serverBackoff(url);
+                return Optional.empty();
+            }
+            // No authorization may use GraphQL here (anonymous access, missing endpoint); stick to REST for a while.
+            UNSUPPORTED.put(server.key(), System.currentTimeMillis() + UNSUPPORTED_RETRY_MILLIS);
+            return Optional.empty();
+        }
+
+        private static void reset() {
+            UNSUPPORTED.clear();
+        }
+
+        /**
+         * GitHub serves GraphQL at {@code /graphql} on api.github.com and at {@code /api/graphql} on Enterprise servers.
+         */
+        private static String graphQlUrl(final Server server) {
+            return server.apiUrl.endsWith("/api/v3")
+                    ? server.apiUrl.substring(0, server.apiUrl.length() - "/v3".length()) + "/graphql"
+                    : server.apiUrl + "/graphql";
+        }
+
+        private static String rawUrl(final Server server, final RemoteUses uses, final String metadataPath) {
+            final String path = uses.owner() + "/" + uses.repo() + "/" + uses.ref() + "/" + metadataPath;
+            return "https://github.com".equals(server.webUrl)
+                    ? "https://raw.githubusercontent.com/" + path
+                    : server.webUrl + "/" + uses.owner() + "/" + uses.repo() + "/raw/" + uses.ref() + "/" + metadataPath;
+        }
+
+        private static List<String> refNames(final JsonObject repository, final String alias) {
+            return Optional.ofNullable(repository.get(alias))
+                    .filter(JsonElement::isJsonObject)
+                    .map(refs -> refs.getAsJsonObject().get("nodes"))
+                    .map(RemoteActionProviders::namesFromJson)
+                    .orElseGet(List::of);
+        }
+
+        private static String literal(final String value) {
+            return new JsonPrimitive(value).toString();
+        }
+    }
+
+    /**
+     * Completion-time remote lookups, run off the completion thread and cached by what was typed. The completion
+     * contributor adds its local items first and then waits here with cancellation checks, so closing the lookup popup
+     * stops waiting and interrupts the lookup once no other popup waits for it. Useful answers are kept for a few minutes so the
+     * same prefix does not reach the network again while the user keeps typing or reopens the popup.
+     */
+    public static final class Suggestions {
+
+        private static final int MAX_ENTRIES = 128;
+        private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+        private static final ExecutorService EXECUTOR = AppExecutorUtil.createBoundedApplicationPoolExecutor("GitHub Workflow Completion Lookups", 4);
+        private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+        private Suggestions() {
+            // static helper class
+        }
+
+        /**
+         * Returns the cached or freshly looked-up answer for {@code key}, waiting with cancellation checks.
+         *
+         * @param key    lookup kind and typed prefix
+         * @param lookup remote lookup, run on a background pool
+         * @param useful whether an answer may be cached
+         * @param empty  answer when the lookup fails
+         * @return lookup answer, or {@code empty} when it failed
+         * @throws ProcessCanceledException when the caller's progress is cancelled, e.g. the lookup popup closed
+         */
+        @SuppressWarnings("unchecked")
+        public static <T> T await(final String key, final Supplier<T> lookup, final Predicate<T> useful, final T empty) {
+            final long now = System.currentTimeMillis();
+            final Entry entry = ENTRIES.compute(key, (ignored, existing) -> {
+                final Entry attached = existing != null && existing.expiresAtMillis() > now
+                        ? existing
+                        : new Entry(EXECUTOR.submit(lookup::get), now + TTL_MILLIS, new AtomicInteger());
+                attached.waiters().incrementAndGet();
+                return attached;
+            });
+            trim(now);
+            boolean abandoned = false;
+            try {
+                final T result = (T) ProgressIndicatorUtils.awaitWithCheckCanceled(entry.future());
+                if (result == null || !useful.test(result)) {
+                    ENTRIES.remove(key, entry);
+                    return empty;
+                }
+                return result;
+            } catch (final ProcessCanceledException exception) {
+                abandoned = true;
+                throw exception;
+            } catch (final CancellationException exception) {
+                // The last waiter of this lookup went away or the suggestions were cleared; not a failed lookup.
+                ENTRIES.remove(key, entry);
+                return empty;
+            } catch (final RuntimeException exception) {
+                LOG.debug("Completion lookup failed [" + key + "]", exception);
+                ENTRIES.remove(key, entry);
+                return empty;
+            } finally {
+                detach(key, entry, abandoned);
+            }
+        }
+
+        // Runs under the key's map lock, so no popup can attach to the lookup between the last detach and the cancel.
+        private static void detach(final String key, final Entry entry, final boolean abandoned) {
+            ENTRIES.compute(key, (ignored, current) -> {
+                if (entry.waiters().decrementAndGet() == 0 && abandoned && !entry.future().isDone()) {
+                    entry.future().cancel(true);
+                    return current == entry ? null : current;
+                }
+                return current;
+            });
+        }
+
+        static void clear() {
+            ENTRIES.values().forEach(entry -> entry.future().cancel(true));
+            ENTRIES.clear();
+        }
+
+        private static void trim(final long now) {
+            if (ENTRIES.size() <= MAX_ENTRIES) {
+                return;
+            }
+            ENTRIES.entrySet().removeIf(entry -> entry.getValue().expiresAtMillis() <= now);
+            ENTRIES.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().expiresAtMillis()))
+                    .limit(Math.max(0, ENTRIES.size() - MAX_ENTRIES))
+                    .toList()
+                    .forEach(entry -> ENTRIES.remove(entry.getKey(), entry.getValue()));
+        }
+
+        private record Entry(Future<?> future, long expiresAtMillis, AtomicInteger waiters) {
+        }
+    }
+
+    /**
+     * Single-flight gate for identical remote requests. Completion, annotation, and background resolution can ask for
+     * the same tags or contents at the same time; the first caller performs the HTTP exchange and concurrent callers with
+     * the same server, URL, and validator share its parsed result instead of sending their own request.
+     */
+    private static final class InFlightRequests {
+
+        private static final Map<String, CompletableFuture<JsonResponse>> REQUESTS = new ConcurrentHashMap<>();
+
+        private static JsonResponse join(final String key, final Supplier<JsonResponse> request) {
+            final CompletableFuture<JsonResponse> pending = new CompletableFuture<>();
+            CompletableFuture<JsonResponse> leader;
+            while ((leader = REQUESTS.putIfAbsent(key, pending)) != null) {
+                try {
+                    final JsonResponse shared = leader.get();
+                    if (shared != null) {
+                        return shared;
+                    }
+                    // The leader was cancelled by a server fan-out; take over instead of sharing its empty answer.
+                } catch (final InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    return JsonResponse.failed(FailureReason.UNAVAILABLE);
+                } catch (final ExecutionException exception) {
+                    return JsonResponse.failed(FailureReason.UNAVAILABLE);
+                }
+            }
+            try {
+                final JsonResponse response = request.get();
+                pending.complete(Thread.currentThread().isInterrupted() ? null : response);
+                return response;
+            } catch (final RuntimeException exception) {
+                pending.completeExceptionally(exception);
+                throw exception;
+            } finally {
+                REQUESTS.remove(key, pending);
+                pending.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Per-host request gate for remote metadata lookups. Each host gets at most
+     * {@link Settings#parallelRequestsPerServer()} concurrent requests, and request starts are spaced by
+     * {@link Settings#requestIntervalMillis()} so parallel cache resolution stays friendly to API rate limits.
+     */
+    private static final class HostLimits {
+
+        private static final Map<String, HostLimit> LIMITS = new ConcurrentHashMap<>();
+
+        @FunctionalInterface
+        private interface Permit extends AutoCloseable {
+            @Override
+            void close();
+        }
+
+        private static Permit acquire(final String url) throws InterruptedException {
+            final Settings settings = Settings.getInstance();
+            final int permits = settings.parallelRequestsPerServer();
+            final HostLimit limit = LIMITS.compute(hostKey(url), (key, current) -> current == null || current.permits() != permits
+                    ? new HostLimit(permits, new Semaphore(permits), new AtomicLong(Long.MIN_VALUE))
+                    : current);
+            limit.semaphore().acquire();
+            try {
+                limit.awaitSlot(settings.requestIntervalMillis());
+            } catch (final InterruptedException exception) {
+                limit.semaphore().release();
+                throw exception;
+            }
+            return limit.semaphore()::release;
+        }
+
+        private static String hostKey(final String url) {
+            try {
+                final URI uri = URI.create(url);
+                return Optional.ofNullable(uri.getHost()).map(String::toLowerCase).orElse(url) + ":" + uri.getPort();
+            } catch (final RuntimeException ignored) {
+                return url;
+            }
+        }
+
+        private record HostLimit(int permits, Semaphore semaphore, AtomicLong nextSlot) {
+
+            void awaitSlot(final long intervalMillis) throws InterruptedException {
+                if (intervalMillis <= 0) {
+                    return;
+                }
+                final long now = System.nanoTime();
+                final long interval = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+                final long slot = nextSlot.updateAndGet(previous -> Math.max(previous, now) + interval) - interval;
+                final long waitNanos = slot - now;
+                if (waitNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                }
+            }
         }
-        return Optional.empty();
     }
 
     private static boolean shouldTryNextAuthorization(final int statusCode) {
@@ -315,6 +1275,27 @@ public class RemoteActionProviders {
     private record ContentResponse(String content, String downloadUrl) {
     }
 
+    private record JsonResponse(JsonElement json, Validator validator, boolean notModified, Failure failure) {
+
+        static JsonResponse failed(final FailureReason reason) {
+            return failed(reason, 0);
+        }
+
+        static JsonResponse failed(final FailureReason reason, final long retryAtMillis) {
+            return new JsonResponse(null, Validator.NONE, false, new Failure(reason, retryAtMillis));
+        }
+
+        boolean succeeded() {
+            return failure == null;
+        }
+    }
+
+    private record Failure(FailureReason reason, long retryAtMillis) {
+    }
+
+    private record RefList(List<String> refs, Map<String, Validator> validators) {
+    }
+
     private record RemoteUses(String usesValue, String owner, String repo, String path, String ref) {
 
         static Optional<RemoteUses> parse(final Server server, final String value) {
@@ -387,9 +1368,16 @@ public class RemoteActionProviders {
 
         public static final String TYPE_GITHUB = "github";
         public static final String TYPE_GITEA = "gitea";
+        public static final int DEFAULT_PARALLEL_REQUESTS_PER_SERVER = 4;
+        public static final int DEFAULT_REQUEST_INTERVAL_MILLIS = 25;
+        public static final int DEFAULT_HEDGE_DELAY_MILLIS = 250;
 
         public static class StateData {
             public List<ServerState> servers = new ArrayList<>();
+            public int parallelRequestsPerServer = DEFAULT_PARALLEL_REQUESTS_PER_SERVER;
+            public int requestIntervalMillis = DEFAULT_REQUEST_INTERVAL_MILLIS;
+            public ServerFanOut serverFanOut = ServerFanOut.SEQUENTIAL;
+            public int hedgeDelayMillis = DEFAULT_HEDGE_DELAY_MILLIS;
         }
 
         public static class ServerState {
@@ -464,6 +1452,9 @@ public class RemoteActionProviders {
                     .filter(Server::isValid)
                     .map(ServerState::new)
                     .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+            Failures.clear();
+            GraphQl.reset();
+            Suggestions.clear();
             return this;
         }
 
@@ -525,7 +1516,88 @@ public class RemoteActionProviders {
                     .anyMatch(candidate -> candidate.key().equals(normalized.key()) && candidate.tokenStored);
         }
 
+        /**
+         * Returns how many remote metadata requests may run at the same time against one host.
+         *
+         * @return positive parallel request limit per server host
+         */
+        public int parallelRequestsPerServer() {
+            return Math.max(1, state.parallelRequestsPerServer);
+        }
+
+        /**
+         * Limits concurrent remote metadata requests per server host.
+         *
+         * @param parallelRequests parallel request limit; values below one fall back to one
+         * @return this settings service
+         */
+        public Settings setParallelRequestsPerServer(final int parallelRequests) {
+            state.parallelRequestsPerServer = Math.max(1, parallelRequests);
+            return this;
+        }
+
+        /**
+         * Returns the minimum delay between two remote request starts against the same host.
+         *
+         * @return request spacing in milliseconds, zero when disabled
+         */
+        public int requestIntervalMillis() {
+            return Math.max(0, state.requestIntervalMillis);
+        }
+
+        /**
+         * Sets the minimum delay between two remote request starts against the same host.
+         *
+         * @param intervalMillis request spacing in milliseconds; negative values disable spacing
+         * @return this settings service
+         */
+        public Settings setRequestIntervalMillis(final int intervalMillis) {
+            state.requestIntervalMillis = Math.max(0, intervalMillis);
+            return this;
+        }
+
+        /**
+         * Returns how lookups spread over the enabled servers.
+         *
+         * @return configured fan-out, sequential when unset
+         */
+        public ServerFanOut serverFanOut() {
+            return Optional.ofNullable(state.serverFanOut).orElse(ServerFanOut.SEQUENTIAL);
+        }
+
+        /**
+         * Sets how lookups spread over the enabled servers.
+         *
+         * @param fanOut sequential, parallel, or hedged lookups; {@code null} falls back to sequential
+         * @return this settings service
+         */
+        public Settings setServerFanOut(final ServerFanOut fanOut) {
+            state.serverFanOut = Optional.ofNullable(fanOut).orElse(ServerFanOut.SEQUENTIAL);
+            return this;
+        }
+
+        /**
+         * Returns how long a hedged lookup waits for a server before the next server is asked as well.
+         *
+         * @return hedge delay in milliseconds
+         */
+        public int hedgeDelayMillis() {
+            return Math.max(1, state.hedgeDelayMillis);
+        }
+
+        /**
+         * Sets how long a hedged lookup waits for a server before the next server is asked as well.
+         *
+         * @param delayMillis hedge delay in milliseconds; values below one fall back to one
+         * @return this settings service
+         */
+        public Settings setHedgeDelayMillis(final int delayMillis) {
+            state.hedgeDelayMillis = Math.max(1, delayMillis);
+            return this;
+        }
+
         private Settings markGiteaTokenStored(final Server server, final boolean stored) {
+            Failures.clear();
             state.servers.stream()
                     .filter(state -> state.server().key().equals(server.key()))
                     .forEach(state -> state.tokenStored = stored);
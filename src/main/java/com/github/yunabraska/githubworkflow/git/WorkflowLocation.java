@@ -1,20 +1,35 @@
 package com.github.yunabraska.githubworkflow.git;
 
 import com.github.yunabraska.githubworkflow.syntax.WorkflowYaml;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.project.ProjectUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
 import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.yaml.psi.YAMLKeyValue;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.util.Optional.ofNullable;
 
 public class WorkflowLocation {
 
@@ -212,9 +227,7 @@ public class WorkflowLocation {
         }
 
         public Optional<Repository> resolve(final Path projectDir) {
-            return readGitConfig(projectDir)
-                    .flatMap(RepositoryResolver::firstOriginUrl)
-                    .flatMap(RepositoryResolver::fromRemoteUrl);
+            return GitSnapshots.of(projectDir).repository();
         }
 
         public Optional<String> branch(final Project project) {
@@ -232,10 +245,18 @@ public class WorkflowLocation {
         }
 
         public Optional<String> branch(final Path projectDir) {
-            return gitDir(projectDir)
-                    .map(dir -> dir.resolve("HEAD"))
-                    .flatMap(RepositoryResolver::readString)
-                    .flatMap(RepositoryResolver::branchName);
+            return GitSnapshots.of(projectDir).branch();
+        }
+
+        /**
+         * Returns the local refs below {@code refs/<namespace>}, loose refs first and then packed refs.
+         *
+         * @param projectDir repository working directory
+         * @param namespace  ref namespace such as {@code heads} or {@code tags}
+         * @return short ref names without the namespace prefix
+         */
+        public List<String> refs(final Path projectDir, final String namespace) {
+            return GitSnapshots.of(projectDir).refs(namespace);
         }
 
         public static Optional<Repository> fromRemoteUrl(final String remoteUrl) {
@@ -300,11 +321,15 @@ public class WorkflowLocation {
         }
 
         private static Optional<Path> repositoryRoot(final VirtualFile file) {
-            Path current = Optional.ofNullable(file)
+            return Optional.ofNullable(file)
                     .map(VirtualFile::getPath)
                     .map(Path::of)
                     .map(Path::getParent)
-                    .orElse(null);
+                    .flatMap(GitSnapshots::repositoryRoot);
+        }
+
+        private static Optional<Path> findRepositoryRoot(final Path directory) {
+            Path current = directory;
             while (current != null) {
                 if (Files.isRegularFile(current.resolve(".git").resolve("config")) || Files.isRegularFile(current.resolve(".git"))) {
                     return Optional.of(current);
@@ -314,6 +339,34 @@ public class WorkflowLocation {
             return Optional.empty();
         }
 
+        private static List<String> readRefs(final Path gitDir, final String namespace) {
+            final Set<String> result = new LinkedHashSet<>();
+            final Path refRoot = gitDir.resolve("refs").resolve(namespace);
+            if (Files.isDirectory(refRoot)) {
+                try (Stream<Path> paths = Files.walk(refRoot)) {
+                    paths.filter(Files::isRegularFile)
+                            .map(refRoot::relativize)
+                            .map(Path::toString)
+                            .map(value -> value.replace('\\', '/'))
+                            .filter(value -> !value.isBlank())
+                            .sorted()
+                            .forEach(result::add);
+                } catch (final IOException ignored) {
+                    // Local refs are opportunistic.
+                }
+            }
+            final String prefix = "refs/" + namespace + "/";
+            readString(gitDir.resolve("packed-refs")).ifPresent(packedRefs -> packedRefs.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isBlank() && !line.startsWith("#") && !line.startsWith("^"))
+                    .map(line -> line.split("\\s+", 2))
+                    .filter(parts -> parts.length == 2 && parts[1].startsWith(prefix))
+                    .map(parts -> parts[1].substring(prefix.length()))
+                    .filter(value -> !value.isBlank())
+                    .forEach(result::add));
+            return List.copyOf(result);
+        }
+
         private static Optional<String> firstOriginUrl(final String config) {
             boolean inOrigin = false;
             for (final String line : config.split("\\R")) {
@@ -330,6 +383,131 @@ public class WorkflowLocation {
         }
     }
 
+    /**
+     * Git metadata of each repository directory: origin repository, current branch, and local refs. Values are read once
+     * and dropped when the VFS reports a change to {@code .git/config}, {@code HEAD}, {@code packed-refs}, or a loose ref,
+     * so the run gutter and ref completion do not re-read {@code .git} on every daemon pass or completion.
+     */
+    public static final class GitSnapshots implements BulkFileListener {
+
+        private static final int MAX_ROOTS = 1024;
+        private static final Map<Path, Snapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+        private static final Map<Path, Optional<Path>> ROOTS = new ConcurrentHashMap<>();
+
+        @Override
+        public void after(@NotNull final List<? extends VFileEvent> events) {
+            for (final VFileEvent event : events) {
+                if (event.getFileSystem() instanceof LocalFileSystem) {
+                    toPath(event.getPath()).ifPresent(path -> invalidate(path, !(event instanceof VFileContentChangeEvent)));
+                }
+            }
+        }
+
+        /**
+         * Drops every snapshot, for example after git files were written without a VFS refresh.
+         */
+        public static void clear() {
+            SNAPSHOTS.clear();
+            ROOTS.clear();
+        }
+
+        private static Snapshot of(final Path projectDir) {
+            // Not computeIfAbsent: creating a snapshot touches the VFS, which must not happen while holding a map bin.
+            final Path key = projectDir.toAbsolutePath().normalize();
+            final Snapshot existing = SNAPSHOTS.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            final Snapshot created = new Snapshot(key);
+            return ofNullable(SNAPSHOTS.putIfAbsent(key, created)).orElse(created);
+        }
+
+        private static Optional<Path> repositoryRoot(final Path directory) {
+            if (ROOTS.size() >= MAX_ROOTS) {
+                ROOTS.clear();
+            }
+            return ROOTS.computeIfAbsent(directory, RepositoryResolver::findRepositoryRoot);
+        }
+
+        private static void invalidate(final Path path, final boolean structural) {
+            if (structural && (path.endsWith(".git") || path.endsWith(Path.of(".git", "config")))) {
+                ROOTS.clear();
+            }
+            SNAPSHOTS.values().removeIf(snapshot -> snapshot.tracks(path));
+        }
+
+        private static Optional<Path> toPath(final String path) {
+            try {
+                return Optional.of(Path.of(path));
+            } catch (final InvalidPathException ignored) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private static final class Snapshot {
+
+        private static final List<String> TRACKED_FILES = List.of("config", "HEAD", "packed-refs");
+
+        private final Path projectDir;
+        private final Optional<Path> gitDir;
+        private final Map<String, List<String>> refs = new ConcurrentHashMap<>();
+        private volatile Optional<Repository> repository;
+        private volatile Optional<String> branch;
+
+        private Snapshot(final Path projectDir) {
+            this.projectDir = projectDir;
+            this.gitDir = RepositoryResolver.gitDir(projectDir);
+            gitDir.ifPresent(Snapshot::watch);
+        }
+
+        private Optional<Repository> repository() {
+            if (repository == null) {
+                repository = RepositoryResolver.readGitConfig(projectDir)
+                        .flatMap(RepositoryResolver::firstOriginUrl)
+                        .flatMap(RepositoryResolver::fromRemoteUrl);
+            }
+            return repository;
+        }
+
+        private Optional<String> branch() {
+            if (branch == null) {
+                branch = gitDir.map(dir -> dir.resolve("HEAD"))
+                        .flatMap(RepositoryResolver::readString)
+                        .flatMap(RepositoryResolver::branchName);
+            }
+            return branch;
+        }
+
+        private List<String> refs(final String namespace) {
+            return gitDir.map(dir -> refs.computeIfAbsent(namespace, ignored -> RepositoryResolver.readRefs(dir, namespace)))
+                    .orElseGet(List::of);
+        }
+
+        private boolean tracks(final Path path) {
+            if (path.equals(projectDir.resolve(".git")) || path.equals(projectDir.resolve(".git").resolve("config"))) {
+                return true;
+            }
+            return gitDir.filter(path::startsWith)
+                    .map(dir -> dir.relativize(path))
+                    .map(relative -> TRACKED_FILES.contains(relative.toString()) || relative.startsWith("refs"))
+                    .orElse(false);
+        }
+
+        /**
+         * Loads the tracked git files into the VFS, which only reports changes for files it has seen.
+         */
+        private static void watch(final Path gitDir) {
+            if (ApplicationManager.getApplication() == null || ApplicationManager.getApplication().isUnitTestMode()) {
+                return;
+            }
+            final LocalFileSystem fileSystem = LocalFileSystem.getInstance();
+            TRACKED_FILES.forEach(name -> fileSystem.findFileByNioFile(gitDir.resolve(name)));
+            ofNullable(fileSystem.findFileByNioFile(gitDir.resolve("refs")))
+                    .ifPresent(refs -> VfsUtilCore.processFilesRecursively(refs, ignored -> true));
+        }
+    }
+
     public record KeyContext(List<String> path, String currentLine) {
     }
 
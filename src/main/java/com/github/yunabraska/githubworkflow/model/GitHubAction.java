@@ -10,6 +10,8 @@ import com.intellij.openapi.project.ProjectManager;
 import com.intellij.openapi.project.ProjectUtil;
 import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiFileFactory;
@@ -21,9 +23,14 @@ import java.io.IOException;
 import java.io.Serial;
 import java.io.Serializable;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -31,7 +38,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -64,11 +71,18 @@ public class GitHubAction implements Serializable {
     // NON SERIALIZABLE
     private final Set<String> ignoredInputs = ConcurrentHashMap.newKeySet();
     private final Set<String> ignoredOutputs = ConcurrentHashMap.newKeySet();
+    // parsed view of metaData "remoteRefs", which stays the serialized form
+    private transient volatile List<String> remoteRefs;
+    // in-place change counter; a lost concurrent increment still moves it away from the value seen last
+    private transient volatile long revision;
+    // last local metadata applied, so cache hits of the same parse are not applied again
+    private transient volatile Metadata appliedMetadata;
 
     // STATICS
     @Serial
     private static final long serialVersionUID = 135457798745235490L;
     private static final Logger LOG = Logger.getInstance(GitHubAction.class);
+    private static final String VALIDATOR_PREFIX = "validator:";
 
     public static GitHubAction createSchemaAction(final String url, final String content) {
         return new GitHubAction()
@@ -176,6 +190,28 @@ public class GitHubAction implements Serializable {
         return this;
     }
 
+    /**
+     * Resolves a remote action from metadata that was already fetched together with other actions, e.g. by a GraphQL
+     * batch. Without prefetched metadata this behaves like {@link #resolve()}.
+     *
+     * @param prefetched remote metadata of this action, or {@code null} to look it up
+     * @return this action
+     */
+    public synchronized GitHubAction resolve(final RemoteActionProviders.Resolution prefetched) {
+        if (prefetched == null || isLocal()) {
+            return resolve();
+        }
+        if (!isSuppressed()) {
+            try {
+                applyResolution(prefetched);
+            } catch (final Exception e) {
+                LOG.warn("Failed to set parameters [" + this.name() + "]", e);
+                isResolved(false);
+            }
+        }
+        return this;
+    }
+
     public Map<String, String> freshInputs() {
         if (isLocal()) {
             extractLocalParameters();
@@ -206,7 +242,7 @@ public class GitHubAction implements Serializable {
     }
 
     public GitHubAction name(final String name) {
-        ofNullable(name).ifPresent(s -> metaData.put("name", s));
+        ofNullable(name).ifPresent(s -> putMetaData("name", s));
         return this;
     }
 
@@ -215,7 +251,7 @@ public class GitHubAction implements Serializable {
     }
 
     public GitHubAction displayName(final String displayName) {
-        ofNullable(displayName).filter(WorkflowPsi::hasText).ifPresent(s -> metaData.put("displayName", s));
+        ofNullable(displayName).filter(WorkflowPsi::hasText).ifPresent(s -> putMetaData("displayName", s));
         return this;
     }
 
@@ -224,7 +260,7 @@ public class GitHubAction implements Serializable {
     }
 
     public GitHubAction description(final String description) {
-        ofNullable(description).filter(WorkflowPsi::hasText).ifPresent(s -> metaData.put("description", s));
+        ofNullable(description).filter(WorkflowPsi::hasText).ifPresent(s -> putMetaData("description", s));
         return this;
     }
 
@@ -233,7 +269,7 @@ public class GitHubAction implements Serializable {
     }
 
     public GitHubAction downloadUrl(final String downloadUrl) {
-        ofNullable(downloadUrl).ifPresent(s -> metaData.put("downloadUrl", s));
+        ofNullable(downloadUrl).ifPresent(s -> putMetaData("downloadUrl", s));
         return this;
     }
 
@@ -242,7 +278,7 @@ public class GitHubAction implements Serializable {
     }
 
     public GitHubAction githubUrl(final String githubUrl) {
-        ofNullable(githubUrl).ifPresent(s -> metaData.put("githubUrl", s));
+        ofNullable(githubUrl).ifPresent(s -> putMetaData("githubUrl", s));
         return this;
     }
 
@@ -251,7 +287,7 @@ public class GitHubAction implements Serializable {
     }
 
     public GitHubAction usesValue(final String usesValue) {
-        ofNullable(usesValue).ifPresent(s -> metaData.put("usesValue", s));
+        ofNullable(usesValue).ifPresent(s -> putMetaData("usesValue", s));
         return this;
     }
 
@@ -260,7 +296,7 @@ public class GitHubAction implements Serializable {
     }
 
     public GitHubAction expiryTime(final long expiryTime) {
-        metaData.put("expiryTime", Long.toString(expiryTime));
+        putMetaData("expiryTime", Long.toString(expiryTime));
         return this;
     }
 
@@ -269,7 +305,7 @@ public class GitHubAction implements Serializable {
     }
 
     public GitHubAction isLocal(final boolean local) {
-        metaData.put("isLocal", Boolean.toString(local));
+        putMetaData("isLocal", Boolean.toString(local));
         return this;
     }
 
@@ -278,7 +314,7 @@ public class GitHubAction implements Serializable {
     }
 
     public GitHubAction setAction(final boolean action) {
-        metaData.put("isAction", Boolean.toString(action));
+        putMetaData("isAction", Boolean.toString(action));
         return this;
     }
 
@@ -287,7 +323,7 @@ public class GitHubAction implements Serializable {
     }
 
     public GitHubAction isResolved(final boolean isResolved) {
-        metaData.put("isResolved", Boolean.toString(isResolved));
+        putMetaData("isResolved", Boolean.toString(isResolved));
         return this;
     }
 
@@ -296,7 +332,7 @@ public class GitHubAction implements Serializable {
     }
 
     public GitHubAction isSuppressed(final boolean isSuppressed) {
-        metaData.put("isSuppressed", Boolean.toString(isSuppressed));
+        putMetaData("isSuppressed", Boolean.toString(isSuppressed));
         return this;
     }
 
@@ -306,7 +342,7 @@ public class GitHubAction implements Serializable {
         } else {
             ignoredInputs.remove(id);
         }
-        metaData.put("ignoredInputs", ignoredInputs.stream().filter(WorkflowPsi::hasText).collect(Collectors.joining(";")));
+        putMetaData("ignoredInputs", ignoredInputs.stream().filter(WorkflowPsi::hasText).collect(Collectors.joining(";")));
         return this;
     }
 
@@ -316,7 +352,7 @@ public class GitHubAction implements Serializable {
         } else {
             ignoredOutputs.remove(id);
         }
-        metaData.put("ignoredOutputs", ignoredOutputs.stream().filter(WorkflowPsi::hasText).collect(Collectors.joining(";")));
+        putMetaData("ignoredOutputs", ignoredOutputs.stream().filter(WorkflowPsi::hasText).collect(Collectors.joining(";")));
         return this;
     }
 
@@ -352,8 +388,8 @@ public class GitHubAction implements Serializable {
         isSuppressed(false);
         ignoredInputs.clear();
         ignoredOutputs.clear();
-        metaData.put("ignoredInputs", "");
-        metaData.put("ignoredOutputs", "");
+        putMetaData("ignoredInputs", "");
+        putMetaData("ignoredOutputs", "");
         return this;
     }
 
@@ -363,6 +399,7 @@ public class GitHubAction implements Serializable {
 
     public GitHubAction setInputs(final Map<String, String> inputs) {
         ofNullable(inputs).ifPresent(this.inputs::putAll);
+        revision++;
         return this;
     }
 
@@ -372,6 +409,7 @@ public class GitHubAction implements Serializable {
 
     public GitHubAction setOutputs(final Map<String, String> outputs) {
         ofNullable(outputs).ifPresent(this.outputs::putAll);
+        revision++;
         return this;
     }
 
@@ -381,6 +419,7 @@ public class GitHubAction implements Serializable {
 
     public GitHubAction setSecrets(final Map<String, String> secrets) {
         ofNullable(secrets).ifPresent(this.secrets::putAll);
+        revision++;
         return this;
     }
 
@@ -391,6 +430,10 @@ public class GitHubAction implements Serializable {
     public GitHubAction setMetaData(final Map<String, String> metaData) {
         ofNullable(metaData).ifPresent(values -> {
             this.metaData.putAll(values);
+            revision++;
+            if (values.containsKey("remoteRefs")) {
+                this.remoteRefs = null;
+            }
             this.ignoredInputs.addAll(Arrays.stream(values.getOrDefault("ignoredInputs", "").split(";")).filter(WorkflowPsi::hasText).toList());
             this.ignoredOutputs.addAll(Arrays.stream(values.getOrDefault("ignoredOutputs", "").split(";")).filter(WorkflowPsi::hasText).toList());
         });
@@ -436,15 +479,11 @@ public class GitHubAction implements Serializable {
 
     private void extractRemoteParameters() {
         final boolean wasResolved = isResolved();
-        RemoteActionProviders.resolve(usesValue())
-                .ifPresentOrElse(resolution -> {
-                    name(resolution.name());
-                    downloadUrl(resolution.downloadUrl());
-                    githubUrl(resolution.githubUrl());
-                    setAction(resolution.action());
-                    remoteRefs(resolution.refs());
-                    setParameters(resolution.content());
-                }, () -> {
+        RemoteActionProviders.resolve(usesValue(), wasResolved ? validators() : Map.of())
+                .ifPresentOrElse(this::applyResolution, () -> {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
                     if (wasResolved) {
                         expiryTime(System.currentTimeMillis() + CACHE_ONE_DAY);
                     } else {
@@ -453,24 +492,36 @@ public class GitHubAction implements Serializable {
                 });
     }
 
+    private void applyResolution(final RemoteActionProviders.Resolution resolution) {
+        if (resolution.notModified()) {
+            validators(resolution.validators());
+            expiryTime(System.currentTimeMillis() + (CACHE_ONE_DAY * 14));
+            return;
+        }
+        name(resolution.name());
+        downloadUrl(resolution.downloadUrl());
+        githubUrl(resolution.githubUrl());
+        setAction(resolution.action());
+        validators(resolution.validators());
+        ofNullable(resolution.refs()).ifPresent(this::remoteRefs);
+        ofNullable(resolution.content()).ifPresent(this::setParameters);
+    }
+
     private void extractLocalParameters() {
-        of(downloadUrl()).flatMap(WorkflowPsi::toPath).filter(Files::isRegularFile).map(file -> {
-            try {
-                return Files.readString(file);
-            } catch (final IOException ignored) {
-                return null;
-            }
-        }).or(this::readLocalVirtualFileContent).ifPresent(this::setParameters);
+        of(downloadUrl()).flatMap(WorkflowPsi::toPath)
+                .flatMap(file -> LocalMetadata.of(file, isAction()))
+                .or(this::readLocalVirtualFileMetadata)
+                .ifPresent(this::applyMetadata);
     }
 
-    private Optional<String> readLocalVirtualFileContent() {
+    private Optional<Metadata> readLocalVirtualFileMetadata() {
         return Arrays.stream(ProjectManager.getInstance().getOpenProjects())
                 .map(this::getLocalVirtualFile)
                 .flatMap(Optional::stream)
                 .filter(VirtualFile::isValid)
                 .filter(virtualFile -> !virtualFile.isDirectory())
                 .findFirst()
-                .flatMap(GitHubAction::readVirtualFileContent);
+                .flatMap(virtualFile -> LocalMetadata.of(virtualFile, isAction()));
     }
 
     private static Optional<String> readVirtualFileContent(final VirtualFile virtualFile) {
@@ -482,30 +533,93 @@ public class GitHubAction implements Serializable {
     }
 
     private void setParameters(final String content) {
-        isResolved(hasText(content));
-        readPsiElement(ProjectManager.getInstance().getDefaultProject(), downloadUrl(), content, psiFile -> {
-            displayName(WorkflowPsi.getText(psiFile.getContainingFile(), "name").orElse(name()));
-            description(WorkflowPsi.getText(psiFile.getContainingFile(), "description").orElse(""));
-            inputs.clear();
-            inputs.putAll(getActionParameters(psiFile, FIELD_INPUTS, isAction()));
-            outputs.clear();
-            outputs.putAll(getActionParameters(psiFile, FIELD_OUTPUTS, isAction()));
-            secrets.clear();
-            secrets.putAll(getActionParameters(psiFile, FIELD_SECRETS, isAction()));
-        });
+        applyMetadata(Metadata.parse(downloadUrl(), content, isAction(), null));
+    }
+
+    private void applyMetadata(final Metadata metadata) {
+        if (metadata == appliedMetadata) {
+            return;
+        }
+        isResolved(metadata.resolved());
+        if (metadata.parsed()) {
+            displayName(ofNullable(metadata.displayName()).orElse(name()));
+            description(metadata.description());
+            replace(inputs, metadata.inputs());
+            replace(outputs, metadata.outputs());
+            replace(secrets, metadata.secrets());
+        }
+        appliedMetadata = metadata;
+    }
+
+    // Updates in place without an empty intermediate state, and counts a revision only when the values differ.
+    private void replace(final Map<String, String> target, final Map<String, String> values) {
+        if (!target.equals(values)) {
+            target.keySet().retainAll(values.keySet());
+            target.putAll(values);
+            revision++;
+        }
+    }
+
+    /**
+     * Counts in-place changes, so the action cache can write back only the entries that changed.
+     *
+     * @return change counter of this instance
+     */
+    public long revision() {
+        return revision;
+    }
+
+    private void putMetaData(final String key, final String value) {
+        if (!value.equals(metaData.put(key, value))) {
+            revision++;
+        }
     }
 
     public List<String> remoteRefs() {
-        return Arrays.stream(metaData.getOrDefault("remoteRefs", "").split(";"))
-                .filter(WorkflowPsi::hasText)
-                .toList();
+        List<String> result = remoteRefs;
+        if (result == null) {
+            result = Arrays.stream(metaData.getOrDefault("remoteRefs", "").split(";"))
+                    .filter(WorkflowPsi::hasText)
+                    .toList();
+            remoteRefs = result;
+        }
+        return result;
     }
 
     public GitHubAction remoteRefs(final List<String> refs) {
-        metaData.put("remoteRefs", ofNullable(refs).orElseGet(List::of).stream()
+        final List<String> result = ofNullable(refs).orElseGet(List::of).stream()
                 .filter(WorkflowPsi::hasText)
                 .distinct()
-                .collect(Collectors.joining(";")));
+                .toList();
+        putMetaData("remoteRefs", String.join(";", result));
+        remoteRefs = result;
+        return this;
+    }
+
+    /**
+     * Returns the HTTP cache validators stored from the last remote resolution, keyed by request part.
+     *
+     * @return validators used for conditional revalidation requests
+     */
+    public Map<String, RemoteActionProviders.Validator> validators() {
+        final Map<String, RemoteActionProviders.Validator> result = new LinkedHashMap<>();
+        metaData.forEach((key, value) -> {
+            if (key.startsWith(VALIDATOR_PREFIX)) {
+                result.put(key.substring(VALIDATOR_PREFIX.length()), RemoteActionProviders.Validator.decode(value));
+            }
+        });
+        return result;
+    }
+
+    public GitHubAction validators(final Map<String, RemoteActionProviders.Validator> validators) {
+        if (metaData.keySet().removeIf(key -> key.startsWith(VALIDATOR_PREFIX))) {
+            revision++;
+        }
+        ofNullable(validators).orElseGet(Map::of).forEach((part, validator) -> {
+            if (validator != null && validator.isPresent()) {
+                putMetaData(VALIDATOR_PREFIX + part, validator.encoded());
+            }
+        });
         return this;
     }
 
@@ -521,19 +635,134 @@ public class GitHubAction implements Serializable {
                 .orElseGet(Collections::emptyMap);
     }
 
-    private static void readPsiElement(final Project project, final String fileName, final String fileContent, final Consumer<PsiFile> action) {
-        ReadAction.nonBlocking(() -> {
+    private static <K, V> Map<K, V> concatMap(final Map<K, V> map1, final Map<K, V> map2) {
+        return Stream.concat(map1.entrySet().stream(), map2.entrySet().stream()).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1));
+    }
+
+    /**
+     * Parsed metadata of an {@code action.yml} or reusable workflow file.
+     *
+     * @param stamp    file state the metadata was parsed from, {@code null} for remote content
+     * @param parsed   {@code false} when the content could not be parsed and the current parameters should be kept
+     */
+    private record Metadata(
+            Object stamp,
+            boolean resolved,
+            boolean parsed,
+            String displayName,
+            String description,
+            Map<String, String> inputs,
+            Map<String, String> outputs,
+            Map<String, String> secrets
+    ) {
+        static Metadata parse(final String fileName, final String content, final boolean action, final Object stamp) {
+            return ReadAction.nonBlocking(() -> {
+                try {
+                    final PsiFile psiFile = PsiFileFactory.getInstance(ProjectManager.getInstance().getDefaultProject())
+                            .createFileFromText(fileName, YAMLFileType.YML, content.replaceAll("\r?\\n|\\r", "\n"));
+                    return new Metadata(
+                            stamp,
+                            hasText(content),
+                            true,
+                            WorkflowPsi.getText(psiFile, "name").orElse(null),
+                            WorkflowPsi.getText(psiFile, "description").orElse(""),
+                            Map.copyOf(getActionParameters(psiFile, FIELD_INPUTS, action)),
+                            Map.copyOf(getActionParameters(psiFile, FIELD_OUTPUTS, action)),
+                            Map.copyOf(getActionParameters(psiFile, FIELD_SECRETS, action))
+                    );
+                } catch (final Exception ignored) {
+                    return new Metadata(stamp, hasText(content), false, null, "", Map.of(), Map.of(), Map.of());
+                }
+            }).executeSynchronously();
+        }
+    }
+
+    /**
+     * Parsed metadata of local actions and reusable workflows, shared by every {@link GitHubAction} that points at the
+     * same file. An entry is reused while the file's modification stamp, timestamp, and size are unchanged, and dropped
+     * when the VFS reports a change below its path. Files known to the VFS are stamped without touching the disk.
+     */
+    public static final class LocalMetadata implements BulkFileListener {
+
+        private static final Map<Key, Metadata> METADATA = new ConcurrentHashMap<>();
+
+        private record Key(Path file, boolean action) {
+        }
+
+        private record Stamp(long modificationStamp, FileTime modified, long length) {
+        }
+
+        @Override
+        public void after(@NotNull final List<? extends VFileEvent> events) {
+            for (final VFileEvent event : events) {
+                if (event.getFileSystem() instanceof LocalFileSystem) {
+                    toPath(event.getPath()).ifPresent(path -> METADATA.keySet().removeIf(key -> key.file().startsWith(path)));
+                }
+            }
+        }
+
+        /**
+         * Drops every parsed file, for example after action files were written without a VFS refresh.
+         */
+        public static void clear() {
+            METADATA.clear();
+        }
+
+        // Files known to the VFS are stamped from the VFS alone; only files outside it cost a disk lookup per access.
+        private static Optional<Metadata> of(final Path file, final boolean action) {
+            final Path normalized = file.toAbsolutePath().normalize();
+            final VirtualFile virtualFile = LocalFileSystem.getInstance().findFileByNioFile(normalized);
+            if (virtualFile != null && virtualFile.isValid()) {
+                return virtualFile.isDirectory() ? Optional.empty() : cached(new Key(normalized, action), stamp(virtualFile), () -> readFile(normalized).or(() -> readVirtualFileContent(virtualFile)), normalized.toString());
+            }
             try {
-                ofNullable(action).ifPresent(consumer -> consumer.accept(PsiFileFactory.getInstance(project).createFileFromText(fileName, YAMLFileType.YML, fileContent.replaceAll("\r?\\n|\\r", "\n"))));
-            } catch (final Exception ignored) {
-                // ignored
+                final BasicFileAttributes attributes = Files.readAttributes(normalized, BasicFileAttributes.class);
+                if (!attributes.isRegularFile()) {
+                    return Optional.empty();
+                }
+                final Stamp stamp = new Stamp(-1L, attributes.lastModifiedTime(), attributes.size());
+                return cached(new Key(normalized, action), stamp, () -> readFile(normalized), normalized.toString());
+            } catch (final IOException ignored) {
+                return Optional.empty();
             }
-            return null;
-        }).executeSynchronously();
-    }
+        }
 
-    private static <K, V> Map<K, V> concatMap(final Map<K, V> map1, final Map<K, V> map2) {
-        return Stream.concat(map1.entrySet().stream(), map2.entrySet().stream()).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1));
+        private static Optional<Metadata> of(final VirtualFile file, final boolean action) {
+            return toPath(file.getPath()).flatMap(path -> cached(new Key(path, action), stamp(file), () -> readVirtualFileContent(file), file.getPath()));
+        }
+
+        private static Stamp stamp(final VirtualFile file) {
+            return new Stamp(file.getModificationStamp(), FileTime.fromMillis(file.getTimeStamp()), file.getLength());
+        }
+
+        // Unreadable content is neither cached nor answered, so callers can fall back to another source.
+        private static Optional<Metadata> cached(final Key key, final Stamp stamp, final Supplier<Optional<String>> content, final String fileName) {
+            final Metadata existing = METADATA.get(key);
+            if (existing != null && stamp.equals(existing.stamp())) {
+                return Optional.of(existing);
+            }
+            return content.get().map(text -> {
+                final Metadata parsed = Metadata.parse(fileName, text, key.action(), stamp);
+                METADATA.put(key, parsed);
+                return parsed;
+            });
+        }
+
+        private static Optional<String> readFile(final Path file) {
+            try {
+                return Optional.of(Files.readString(file));
+            } catch (final IOException ignored) {
+                return Optional.empty();
+            }
+        }
+
+        private static Optional<Path> toPath(final String path) {
+            try {
+                return Optional.of(Path.of(path).toAbsolutePath().normalize());
+            } catch (final InvalidPathException ignored) {
+                return Optional.empty();
+            }
+        }
     }
 
     @Override
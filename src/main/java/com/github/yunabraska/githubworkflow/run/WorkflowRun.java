@@ -17,24 +17,36 @@ import com.intellij.execution.process.ProcessHandler;
 import com.intellij.icons.AllIcons;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.components.Service;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.impl.source.tree.LeafPsiElement;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.yaml.psi.YAMLKeyValue;
 
+import javax.net.ssl.SSLSession;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
@@ -44,11 +56,15 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.StringJoiner;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
@@ -58,10 +74,12 @@ public class WorkflowRun {
 
     private static final String API_VERSION = "2026-03-10";
     private static final Duration TIMEOUT = Duration.ofSeconds(20);
+    private static final int DOWNLOAD_ATTEMPTS = 3;
 
     private final HttpTransport transport;
     private final AuthorizationProvider authorizationProvider;
     private final ConcurrentMap<String, RemoteActionProviders.Authorizations.Authorization> successfulAuthorizations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RateLimit> rateLimits = new ConcurrentHashMap<>();
 
     public WorkflowRun() {
         this((Project) null);
@@ -255,23 +273,36 @@ public class WorkflowRun {
     }
 
     /**
-     * Downloads one workflow artifact archive as bytes.
+     * Streams one workflow artifact archive to a file without holding it in memory.
      *
      * @param request workflow repository and authorization context
      * @param artifactId GitHub Actions artifact id
-     * @return zip archive bytes
-     * @throws IOException when GitHub rejects the request or the network call fails
+     * @param target zip file to write
+     * @return {@code target} once the archive is complete
+     * @throws IOException when GitHub rejects the request or the transfer fails after all resume attempts
      * @throws InterruptedException when the IDE cancels the remote call
      */
-    public byte[] artifactZip(final Request request, final long artifactId) throws IOException, InterruptedException {
-        final HttpResponse<byte[]> response = sendBytes(
+    public Path downloadArtifact(final Request request, final long artifactId, final Path target) throws IOException, InterruptedException {
+        return download(
                 request,
-                "GET",
                 request.apiUrl() + "/repos/" + encode(request.owner()) + "/" + encode(request.repo()) + "/actions/artifacts/" + artifactId + "/zip",
-                "",
+                target,
                 "GitHub workflow artifact download"
         );
-        return response.body();
+    }
+
+    /**
+     * Streams the full log of one job to a file without holding it in memory.
+     *
+     * @param request workflow repository and authorization context
+     * @param jobId GitHub Actions job id
+     * @param target log file to write
+     * @return {@code target} once the log is complete
+     * @throws IOException when GitHub rejects the request or the transfer fails after all resume attempts
+     * @throws InterruptedException when the IDE cancels the remote call
+     */
+    public Path downloadJobLog(final Request request, final long jobId, final Path target) throws IOException, InterruptedException {
+        return download(request, jobLogsUrl(request, jobId), target, "GitHub workflow job logs");
     }
 
     public List<JobStatus> jobs(final Request request, final long runId) throws IOException, InterruptedException {
@@ -293,13 +324,66 @@ public class WorkflowRun {
         final HttpResponse<String> response = send(
                 request,
                 "GET",
-                request.apiUrl() + "/repos/" + encode(request.owner()) + "/" + encode(request.repo()) + "/actions/jobs/" + jobId + "/logs",
+                jobLogsUrl(request, jobId),
                 "",
                 "GitHub workflow job logs"
         );
         return response.body();
     }
 
+    /**
+     * Streams the bytes a job log gained after {@code offset}. The request asks for {@code Range: bytes=offset-}; when
+     * the server ignores the range and answers with the full log, the already known prefix is skipped on the stream
+     * instead of being loaded into memory.
+     *
+     * @param request workflow repository and authorization context
+     * @param jobId GitHub Actions job id
+     * @param offset number of log bytes the caller already has
+     * @return stream of the new log bytes, empty when nothing was appended; the caller closes it
+     * @throws IOException when GitHub rejects the request or the network call fails
+     * @throws InterruptedException when the IDE cancels the remote call
+     */
+    public InputStream jobLogs(final Request request, final long jobId, final long offset) throws IOException, InterruptedException {
+        final long start = Math.max(0, offset);
+        final HttpResponse<InputStream> response;
+        try {
+            response = sendWithAuthorizations(
+                    request,
+                    "GET",
+                    jobLogsUrl(request, jobId),
+                    "",
+                    "GitHub workflow job logs",
+                    httpRequest -> transport.sendStream(start > 0 ? withRange(httpRequest, start) : httpRequest),
+                    WorkflowRun::failureStream
+            );
+        } catch (final WorkflowRunHttpException exception) {
+            if (start > 0 && exception.statusCode() == 416) {
+                return InputStream.nullInputStream();
+            }
+            throw exception;
+        }
+        final InputStream body = Optional.ofNullable(response.body()).orElseGet(InputStream::nullInputStream);
+        if (start > 0 && response.statusCode() != 206) {
+            try {
+                body.skipNBytes(start);
+            } catch (final EOFException ignored) {
+                body.close();
+                return InputStream.nullInputStream();
+            }
+        }
+        return body;
+    }
+
+    private static HttpRequest withRange(final HttpRequest request, final long offset) {
+        return HttpRequest.newBuilder(request, (name, value) -> true)
+                .header("Range", "bytes=" + offset + "-")
+                .build();
+    }
+
+    private static String jobLogsUrl(final Request request, final long jobId) {
+        return request.apiUrl() + "/repos/" + encode(request.owner()) + "/" + encode(request.repo()) + "/actions/jobs/" + jobId + "/logs";
+    }
+
     private HttpResponse<String> send(
             final Request workflow,
             final String method,
@@ -307,26 +391,119 @@ public class WorkflowRun {
             final String body,
             final String operation
     ) throws IOException, InterruptedException {
-        return sendWithAuthorizations(workflow, method, url, body, operation, transport::send, WorkflowRun::failure, HttpResponse::body);
+        return sendWithAuthorizations(workflow, method, url, body, operation, transport::send, WorkflowRun::failure);
     }
 
-    private HttpResponse<byte[]> sendBytes(
+    /**
+     * Writes a download into {@code <target>.part} and moves it into place when complete. A transfer that breaks off
+     * is resumed with a {@code Range} request from the bytes already on disk; servers that ignore the range restart
+     * the file. Only retries of this call resume: a {@code .part} left by an earlier call may belong to another
+     * version of the file and is discarded first.
+     */
+    private Path download(
             final Request workflow,
-            final String method,
             final String url,
-            final String body,
+            final Path target,
             final String operation
     ) throws IOException, InterruptedException {
-        return sendWithAuthorizations(
-                workflow,
-                method,
-                url,
-                body,
-                operation,
-                transport::sendBytes,
-                WorkflowRun::failureBytes,
-                response -> new String(Optional.ofNullable(response.body()).orElseGet(() -> new byte[0]), StandardCharsets.UTF_8)
-        );
+        final Path partial = target.resolveSibling(target.getFileName() + ".part");
+        Files.deleteIfExists(partial);
+        IOException lastFailure = null;
+        for (int attempt = 0; attempt < DOWNLOAD_ATTEMPTS; attempt++) {
+            final long offset = Files.exists(partial) ? Files.size(partial) : 0;
+            try {
+                transfer(workflow, url, partial, offset, operation);
+                return Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final WorkflowRunHttpException exception) {
+                if (exception.statusCode() < 500) {
+                    throw exception;
+                }
+                lastFailure = exception;
+            } catch (final IOException exception) {
+                lastFailure = exception;
+            }
+        }
+        throw lastFailure;
+    }
+
+    private void transfer(
+            final Request workflow,
+            final String url,
+            final Path partial,
+            final long offset,
+            final String operation
+    ) throws IOException, InterruptedException {
+        final AtomicReference<HttpResponse<InputStream>> lastResponse = new AtomicReference<>();
+        final HttpResponse<InputStream> response;
+        try {
+            response = sendWithAuthorizations(
+                    workflow,
+                    "GET",
+                    url,
+                    "",
+                    operation,
+                    httpRequest -> {
+                        final HttpResponse<InputStream> sent = transport.sendStream(offset > 0 ? withRange(httpRequest, offset) : httpRequest);
+                        lastResponse.set(sent);
+                        return sent;
+                    },
+                    WorkflowRun::failureStream
+            );
+        } catch (final WorkflowRunHttpException exception) {
+            if (offset > 0 && exception.statusCode() == 416) {
+                // "bytes */<total>" confirms the partial file already holds the whole body
+                final long total = Optional.ofNullable(lastResponse.get()).map(HttpResponse::headers).map(WorkflowRun::contentRangeTotal).orElse(-1L);
+                if (total == offset) {
+                    return;
+                }
+                restart(partial, operation, "range not satisfiable for " + offset + " of " + total + " bytes");
+            }
+            throw exception;
+        }
+        final boolean resume = offset > 0 && response.statusCode() == 206;
+        try (InputStream body = Optional.ofNullable(response.body()).orElseGet(InputStream::nullInputStream)) {
+            if (resume && contentRangeStart(response.headers()) != offset) {
+                restart(partial, operation, "server answered a range other than " + offset + "-");
+            }
+            try (FileChannel file = FileChannel.open(
+                    partial,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    resume ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING
+            )) {
+                body.transferTo(Channels.newOutputStream(file));
+            }
+        }
+    }
+
+    // Drops the partial file so the next attempt downloads from the start.
+    private static void restart(final Path partial, final String operation, final String reason) throws IOException {
+        Files.deleteIfExists(partial);
+        throw new IOException(operation + " restarts: " + reason);
+    }
+
+    private static long contentRangeStart(final HttpHeaders headers) {
+        return headers.firstValue("Content-Range")
+                .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                .filter(value -> value.startsWith("bytes ") && value.indexOf('-') > 6)
+                .map(value -> parseLong(value.substring(6, value.indexOf('-')).trim()))
+                .orElse(-1L);
+    }
+
+    private static long contentRangeTotal(final HttpHeaders headers) {
+        return headers.firstValue("Content-Range")
+                .map(String::trim)
+                .filter(value -> value.lastIndexOf('/') > 0)
+                .map(value -> parseLong(value.substring(value.lastIndexOf('/') + 1).trim()))
+                .orElse(-1L);
+    }
+
+    private static long parseLong(final String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (final NumberFormatException ignored) {
+            return -1L;
+        }
     }
 
     private <T> HttpResponse<T> sendWithAuthorizations(
@@ -336,8 +513,7 @@ public class WorkflowRun {
             final String body,
             final String operation,
             final ResponseSender<T> sender,
-            final FailureFactory<T> failureFactory,
-            final Function<HttpResponse<T>, String> bodyText
+            final FailureFactory<T> failureFactory
     ) throws IOException, InterruptedException {
         WorkflowRunHttpException lastFailure = null;
         boolean authenticatedRateLimitFailure = false;
@@ -347,6 +523,7 @@ public class WorkflowRun {
                 break;
             }
             final HttpResponse<T> response = sender.send(request(workflow, method, url, body, authorization));
+            recordRateLimit(workflow, response);
             if (accepted(response)) {
                 if (authorization.authenticated()) {
                     successfulAuthorizations.put(authorizationCacheKey, authorization);
@@ -354,7 +531,7 @@ public class WorkflowRun {
                 return response;
             }
             lastFailure = failureFactory.failure(workflow, operation, response);
-            if (authorization.authenticated() && rateLimitExceeded(response.statusCode(), response.headers(), bodyText.apply(response))) {
+            if (authorization.authenticated() && rateLimitExceeded(response.statusCode(), response.headers(), lastFailure.body())) {
                 authenticatedRateLimitFailure = true;
             }
             if (!shouldTryNextAuthorization(response.statusCode())) {
@@ -366,6 +543,46 @@ public class WorkflowRun {
                 : lastFailure;
     }
 
+    /**
+     * Returns how long a poller should wait before its next round of {@code requests} API calls. The requested interval
+     * is kept while the rate-limit budget is healthy; when it runs low the remaining calls are spread until the reset,
+     * and an exhausted budget or {@code Retry-After} waits until the server accepts calls again.
+     *
+     * @param request workflow API whose last rate-limit headers are used
+     * @param intervalMillis interval the poller would use without rate limits
+     * @param requests API calls the next poll round is expected to make
+     * @return delay in milliseconds, never shorter than {@code intervalMillis}
+     */
+    long pollDelayMillis(final Request request, final long intervalMillis, final int requests) {
+        final long now = System.currentTimeMillis();
+        final long interval = Math.max(0, intervalMillis);
+        return Optional.ofNullable(rateLimits.get(rateLimitKey(request)))
+                .map(limit -> Math.max(interval, limit.delayMillis(now, Math.max(1, requests))))
+                .orElse(interval);
+    }
+
+    /**
+     * Returns how long the API asked callers to pause, or {@code 0} while calls are allowed.
+     *
+     * @param request workflow API whose last rate-limit headers are used
+     * @return wait time in milliseconds until the rate limit resets
+     */
+    long rateLimitWaitMillis(final Request request) {
+        final long now = System.currentTimeMillis();
+        return Optional.ofNullable(rateLimits.get(rateLimitKey(request)))
+                .map(limit -> limit.waitMillis(now))
+                .orElse(0L);
+    }
+
+    private void recordRateLimit(final Request workflow, final HttpResponse<?> response) {
+        RateLimit.from(response.headers(), System.currentTimeMillis())
+                .ifPresent(limit -> rateLimits.put(rateLimitKey(workflow), limit));
+    }
+
+    private static String rateLimitKey(final Request request) {
+        return Optional.ofNullable(request.apiUrl()).orElse("").toLowerCase(Locale.ROOT);
+    }
+
     private static boolean accepted(final HttpResponse<?> response) {
         return response.statusCode() / 100 == 2;
     }
@@ -425,8 +642,13 @@ public class WorkflowRun {
         return failure(request, operation, response.statusCode(), response.headers(), response.body());
     }
 
-    private static WorkflowRunHttpException failureBytes(final Request request, final String operation, final HttpResponse<byte[]> response) {
-        final String body = new String(Optional.ofNullable(response.body()).orElseGet(() -> new byte[0]), StandardCharsets.UTF_8);
+    private static WorkflowRunHttpException failureStream(final Request request, final String operation, final HttpResponse<InputStream> response) {
+        String body = "";
+        try (InputStream stream = Optional.ofNullable(response.body()).orElseGet(InputStream::nullInputStream)) {
+            body = new String(stream.readNBytes(64 * 1024), StandardCharsets.UTF_8);
+        } catch (final IOException ignored) {
+            // The status code alone still describes the failure.
+        }
         return failure(request, operation, response.statusCode(), response.headers(), body);
     }
 
@@ -725,8 +947,54 @@ public class WorkflowRun {
     interface HttpTransport {
         HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException;
 
-        default HttpResponse<byte[]> sendBytes(final HttpRequest request) throws IOException, InterruptedException {
-            throw new IOException("Binary transport is not available.");
+        default HttpResponse<InputStream> sendStream(final HttpRequest request) throws IOException, InterruptedException {
+            return new StreamResponse(send(request));
+        }
+    }
+
+    /**
+     * Exposes a text response as a stream for transports that only implement {@link HttpTransport#send(HttpRequest)}.
+     */
+    private record StreamResponse(HttpResponse<String> response) implements HttpResponse<InputStream> {
+
+        @Override
+        public int statusCode() {
+            return response.statusCode();
+        }
+
+        @Override
+        public HttpRequest request() {
+            return response.request();
+        }
+
+        @Override
+        public Optional<HttpResponse<InputStream>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return response.headers();
+        }
+
+        @Override
+        public InputStream body() {
+            return new ByteArrayInputStream(Optional.ofNullable(response.body()).orElse("").getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return response.sslSession();
+        }
+
+        @Override
+        public URI uri() {
+            return response.uri();
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return response.version();
         }
     }
 
@@ -749,8 +1017,8 @@ public class WorkflowRun {
         }
 
         @Override
-        public HttpResponse<byte[]> sendBytes(final HttpRequest request) throws IOException, InterruptedException {
-            return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        public HttpResponse<InputStream> sendStream(final HttpRequest request) throws IOException, InterruptedException {
+            return client.send(request, HttpResponse.BodyHandlers.ofInputStream());
         }
     }
 
@@ -1003,6 +1271,104 @@ public class WorkflowRun {
         }
     }
 
+    /**
+     * Last rate-limit headers seen for one workflow API.
+     *
+     * @param remaining calls left in the current window, or {@code -1} when unknown
+     * @param limit calls allowed per window, or {@code -1} when unknown
+     * @param resetAtMillis epoch millis when the window resets, or {@code 0} when unknown
+     * @param retryAtMillis epoch millis from {@code Retry-After}, or {@code 0} when absent
+     */
+    record RateLimit(long remaining, long limit, long resetAtMillis, long retryAtMillis) {
+
+        private static final long LOW_BUDGET_FALLBACK = 100;
+
+        static Optional<RateLimit> from(final HttpHeaders headers, final long now) {
+            final long remaining = longHeader(headers, "x-ratelimit-remaining");
+            final long limit = longHeader(headers, "x-ratelimit-limit");
+            final long reset = longHeader(headers, "x-ratelimit-reset");
+            final long retryAfter = longHeader(headers, "retry-after");
+            if (remaining < 0 && reset < 0 && retryAfter < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new RateLimit(
+                    remaining,
+                    limit,
+                    reset < 0 ? 0 : reset * 1000,
+                    retryAfter < 0 ? 0 : now + retryAfter * 1000
+            ));
+        }
+
+        long waitMillis(final long now) {
+            final long retry = retryAtMillis > now ? retryAtMillis - now : 0;
+            final long reset = remaining == 0 && resetAtMillis > now ? resetAtMillis - now : 0;
+            return Math.max(retry, reset);
+        }
+
+        long delayMillis(final long now, final int requests) {
+            final long wait = waitMillis(now);
+            if (wait > 0 || remaining <= 0 || resetAtMillis <= now) {
+                return wait;
+            }
+            final long lowBudget = limit > 0 ? limit / 5 : LOW_BUDGET_FALLBACK;
+            return remaining >= lowBudget ? 0 : (resetAtMillis - now) * requests / remaining;
+        }
+
+        private static long longHeader(final HttpHeaders headers, final String name) {
+            return headers.firstValue(name)
+                    .map(String::trim)
+                    .filter(value -> value.matches("\\d{1,18}"))
+                    .map(Long::parseLong)
+                    .orElse(-1L);
+        }
+    }
+
+    /**
+     * Shared scheduler that multiplexes the polling of every active workflow run in a project, so a waiting run holds a
+     * scheduled task instead of a sleeping thread. The scheduler only keeps time: each due poll round runs its blocking
+     * HTTP calls on the application pool, so a slow server or a large log delta of one run never delays the others.
+     */
+    @Service(Service.Level.PROJECT)
+    public static final class Poller implements Disposable {
+
+        private final ScheduledExecutorService scheduler =
+                AppExecutorUtil.createBoundedScheduledExecutorService("GitHub Workflow Run Poller", 1);
+        private final Set<Future<?>> active = ConcurrentHashMap.newKeySet();
+
+        public static Poller getInstance(final Project project) {
+            return project.getService(Poller.class);
+        }
+
+        /**
+         * Schedules one poll step of a run.
+         *
+         * @param step work of a single poll round; it schedules its successor itself
+         * @param delayMillis delay before the step runs
+         * @return handle that cancels the step, before or while it runs
+         */
+        public Future<?> schedule(final Runnable step, final long delayMillis) {
+            final FutureTask<Void> work = new FutureTask<>(step, null) {
+                @Override
+                protected void done() {
+                    active.remove(this);
+                }
+            };
+            active.add(work);
+            scheduler.schedule(() -> {
+                if (!work.isDone()) {
+                    AppExecutorUtil.getAppExecutorService().execute(work);
+                }
+            }, Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+            return work;
+        }
+
+        @Override
+        public void dispose() {
+            scheduler.shutdownNow();
+            active.forEach(work -> work.cancel(true));
+        }
+    }
+
     /**
      * Tracks workflow runs started from one project so editor gutter actions can switch between run and stop.
      */
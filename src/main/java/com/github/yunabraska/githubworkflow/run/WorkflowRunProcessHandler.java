@@ -15,21 +15,28 @@ import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.options.ShowSettingsUtil;
 import com.intellij.openapi.application.PathManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -44,10 +51,15 @@ import java.util.concurrent.ThreadLocalRandom;
  */
 public class WorkflowRunProcessHandler extends ProcessHandler {
 
+    private static final int RUN_DISCOVERY_ATTEMPTS = 12;
+    private static final int MAX_PARALLEL_ARTIFACT_DOWNLOADS = 3;
+    private static final int LOG_CHUNK_BYTES = 64 * 1024;
+
     private final WorkflowRun.Request request;
     private final WorkflowRun client;
     private final Project project;
     private final PollSettings pollSettings;
+    private final Path consoleSpillDirectory;
     private JobConsole jobConsole = JobConsole.none();
     private final AtomicBoolean stopping = new AtomicBoolean(false);
     private final AtomicBoolean terminated = new AtomicBoolean(false);
@@ -82,6 +94,13 @@ public class WorkflowRunProcessHandler extends ProcessHandler {
         this.request = request;
         this.client = client;
         this.pollSettings = pollSettings;
+        this.consoleSpillDirectory = Path.of(
+                PathManager.getSystemPath(),
+                "github-workflow-plugin",
+                "console",
+                safeName(request.repositorySlug()),
+                "view-" + UUID.randomUUID()
+        );
     }
 
     WorkflowRunProcessHandler(
@@ -99,7 +118,7 @@ public class WorkflowRunProcessHandler extends ProcessHandler {
     public void startNotify() {
         super.startNotify();
         WorkflowRun.Tracker.getInstance(project).register(request.workflowPath(), this);
-        task.set(ApplicationManager.getApplication().executeOnPooledThread(this::runWorkflow));
+        schedule(this::dispatchFromTrigger, 0);
     }
 
     @Override
@@ -136,6 +155,7 @@ public class WorkflowRunProcessHandler extends ProcessHandler {
     @Override
     protected void detachProcessImpl() {
         stopping.set(true);
+        Optional.ofNullable(task.get()).ifPresent(future -> future.cancel(true));
         if (terminated.compareAndSet(false, true)) {
             WorkflowRun.Tracker.getInstance(project).unregister(request.workflowPath(), this);
             jobConsole.close();
@@ -153,9 +173,19 @@ public class WorkflowRunProcessHandler extends ProcessHandler {
         return null;
     }
 
-    private void runWorkflow() {
+    private void schedule(final RemoteWork step, final long delayMillis) {
+        if (stopping.get() || terminated.get()) {
+            return;
+        }
+        task.set(WorkflowRun.Poller.getInstance(project).schedule(() -> runStep(step), delayMillis));
+        if (stopping.get()) {
+            Optional.ofNullable(task.get()).ifPresent(future -> future.cancel(true));
+        }
+    }
+
+    private void runStep(final RemoteWork step) {
         try {
-            terminate(runFromTrigger());
+            step.run();
         } catch (final IOException | RuntimeException exception) {
             if (exception instanceof WorkflowRun.WorkflowRunHttpException httpException && httpException.accountActionRecommended()) {
                 notifyAuthenticationHelp(httpException.settingsId());
@@ -171,69 +201,89 @@ public class WorkflowRunProcessHandler extends ProcessHandler {
         }
     }
 
-    private RunOutcome runFromTrigger() throws IOException, InterruptedException {
-        final long id = dispatchFromTrigger();
-        if (id > 0) {
-            runId.set(id);
-        }
-        return RunOutcome.from(poll(id), stopping.get());
-    }
-
-    private long dispatchFromTrigger() throws IOException, InterruptedException {
+    private void dispatchFromTrigger() throws IOException, InterruptedException {
         stdout(dispatchMessage() + "\n");
         final Instant dispatchTime = Instant.now();
-        return resolveRunId(client.dispatch(request), dispatchTime);
-    }
-
-    private long resolveRunId(final WorkflowRun.DispatchResult dispatch, final Instant dispatchTime) throws IOException, InterruptedException {
+        final WorkflowRun.DispatchResult dispatch = client.dispatch(request);
         if (hasText(dispatch.htmlUrl())) {
             stdout(GitHubWorkflowBundle.message("workflow.run.link", dispatch.htmlUrl()) + "\n");
         }
         if (dispatch.runId() > 0) {
-            return dispatch.runId();
+            startPolling(dispatch.runId());
+            return;
         }
         stdout(GitHubWorkflowBundle.message("workflow.run.discovery") + "\n");
-        for (int attempt = 0; attempt < 12 && !stopping.get(); attempt++) {
-            final var latest = client.latestRun(request, dispatchTime);
-            if (latest.isPresent()) {
-                final WorkflowRun.RunStatus run = latest.get();
-                if (hasText(run.htmlUrl())) {
-                    stdout(GitHubWorkflowBundle.message("workflow.run.link", run.htmlUrl()) + "\n");
-                }
-                return run.runId();
+        discoverRunId(dispatchTime, 0);
+    }
+
+    private void discoverRunId(final Instant dispatchTime, final int attempt) throws IOException, InterruptedException {
+        final var latest = client.latestRun(request, dispatchTime);
+        if (latest.isPresent()) {
+            final WorkflowRun.RunStatus run = latest.get();
+            if (hasText(run.htmlUrl())) {
+                stdout(GitHubWorkflowBundle.message("workflow.run.link", run.htmlUrl()) + "\n");
             }
-            TimeUnit.MILLISECONDS.sleep(pollSettings.runDiscoveryMillis());
+            startPolling(run.runId());
+            return;
+        }
+        if (attempt + 1 >= RUN_DISCOVERY_ATTEMPTS) {
+            stdout(GitHubWorkflowBundle.message("workflow.run.discovery.none") + "\n");
+            terminate(RunOutcome.from("", stopping.get()));
+            return;
         }
-        stdout(GitHubWorkflowBundle.message("workflow.run.discovery.none") + "\n");
-        return -1;
+        schedule(() -> discoverRunId(dispatchTime, attempt + 1), client.pollDelayMillis(request, pollSettings.runDiscoveryMillis(), 1));
     }
 
-    private String poll(final long id) throws IOException, InterruptedException {
+    private void startPolling(final long id) {
         if (id <= 0) {
-            return "";
+            terminate(RunOutcome.from("", stopping.get()));
+            return;
         }
-        WorkflowRun.RunStatus previous = new WorkflowRun.RunStatus(id, "", "", "");
-        final Map<Long, JobLogState> jobLogs = new LinkedHashMap<>();
-        while (!stopping.get()) {
-            final WorkflowRun.RunStatus status = client.status(request, id);
-            if (!status.status().equals(previous.status()) || !status.conclusion().equals(previous.conclusion())) {
+        runId.set(id);
+        final RunPoll run = new RunPoll(id, pollSettings.statusPollMillis());
+        schedule(() -> poll(run), 0);
+    }
+
+    /**
+     * Runs one poll round and schedules the next one. Rounds that see a status change or new log lines keep the fast
+     * status interval; idle rounds double it up to {@link PollSettings#idlePollMillis()}. Rate-limit headers can only
+     * stretch the delay, and a rate-limited round is retried once the API accepts calls again.
+     */
+    private void poll(final RunPoll run) throws IOException, InterruptedException {
+        final boolean active;
+        try {
+            run.requested();
+            final WorkflowRun.RunStatus status = client.status(request, run.id());
+            boolean statusChanged = false;
+            if (!status.status().equals(run.previous().status()) || !status.conclusion().equals(run.previous().conclusion())) {
                 stdout(GitHubWorkflowBundle.message("workflow.run.status", status.status(), suffix(status.conclusion())) + "\n");
-                previous = status;
+                run.previous(status);
+                statusChanged = true;
             }
             if (status.completed()) {
-                streamJobLogs(id, jobLogs, true);
-                return hasText(status.conclusion()) ? status.conclusion() : "success";
+                streamJobLogs(run, true);
+                terminate(RunOutcome.from(hasText(status.conclusion()) ? status.conclusion() : "success", stopping.get()));
+                return;
+            }
+            active = streamJobLogs(run, false) || statusChanged;
+        } catch (final WorkflowRun.WorkflowRunHttpException exception) {
+            final long wait = client.rateLimitWaitMillis(request);
+            if (wait <= 0) {
+                throw exception;
             }
-            streamJobLogs(id, jobLogs, false);
-            TimeUnit.MILLISECONDS.sleep(pollSettings.statusPollMillis());
+            schedule(() -> poll(run), wait);
+            return;
         }
-        return "cancelled";
+        schedule(() -> poll(run), client.pollDelayMillis(request, run.nextIntervalMillis(active, pollSettings), run.requests()));
     }
 
-    private void streamJobLogs(final long id, final Map<Long, JobLogState> jobLogs, final boolean finalPass) throws IOException, InterruptedException {
+    private boolean streamJobLogs(final RunPoll run, final boolean finalPass) throws IOException, InterruptedException {
         final long now = System.currentTimeMillis();
+        final Map<Long, JobLogState> jobLogs = run.jobLogs();
         boolean changed = false;
-        for (final WorkflowRun.JobStatus job : client.jobs(request, id)) {
+        boolean printed = false;
+        run.requested();
+        for (final WorkflowRun.JobStatus job : client.jobs(request, run.id())) {
             final JobLogState state = jobLogs.computeIfAbsent(job.id(), ignored -> new JobLogState());
             if (state.changed(job)) {
                 printJobHeader(job, state);
@@ -258,12 +308,14 @@ public class WorkflowRunProcessHandler extends ProcessHandler {
                 changed = true;
             }
             if (shouldFetchLog(job, state, now, finalPass)) {
-                fetchJobLog(job, state, now, finalPass);
+                run.requested();
+                printed |= fetchJobLog(job, state, now, finalPass);
             }
         }
         if (changed) {
             stdout(overview(jobLogs.values(), now));
         }
+        return changed || printed;
     }
 
     private boolean shouldFetchLog(
@@ -275,19 +327,26 @@ public class WorkflowRunProcessHandler extends ProcessHandler {
         return state.shouldFetchLog(job, now, finalPass, pollSettings.logPollMillis());
     }
 
-    private void fetchJobLog(
+    private boolean fetchJobLog(
             final WorkflowRun.JobStatus job,
             final JobLogState state,
             final long now,
             final boolean finalPass
     ) throws InterruptedException {
         state.lastLogFetchMillis(now);
+        boolean printed = false;
         try {
-            final String logs = client.jobLogs(request, job.id());
-            if (hasText(logs)) {
-                printLogDelta(job, state, logs);
+            final boolean complete = finalPass || "completed".equals(job.status());
+            state.startLogFetch();
+            try (InputStream logs = client.jobLogs(request, job.id(), state.logOffset())) {
+                final byte[] chunk = new byte[LOG_CHUNK_BYTES];
+                int read;
+                while ((read = logs.readNBytes(chunk, 0, chunk.length)) > 0) {
+                    printed |= printLogDelta(job, state, chunk, read, false);
+                }
+                printed |= printLogDelta(job, state, chunk, 0, complete);
             }
-            if (finalPass || "completed".equals(job.status())) {
+            if (complete) {
                 state.finalLogFetched(true);
             }
         } catch (final IOException exception) {
@@ -300,7 +359,7 @@ public class WorkflowRunProcessHandler extends ProcessHandler {
                     state.liveLogNoticeShown(true);
                 }
                 state.nextLiveLogFetchMillis(now + pollSettings.liveLogFailureRetryMillis());
-                return;
+                return false;
             }
             if (finalPass || !state.logErrorShown()) {
                 final String message = GitHubWorkflowBundle.message("workflow.run.log.failed", exception.getMessage()) + "\n";
@@ -310,17 +369,20 @@ public class WorkflowRunProcessHandler extends ProcessHandler {
                 state.logErrorShown(true);
             }
         }
+        return printed;
     }
 
-    private void printLogDelta(final WorkflowRun.JobStatus job, final JobLogState state, final String logs) {
-        final String delta = state.delta(logs);
-        if (hasText(delta)) {
-            if (!jobConsole.jobLog(job, delta + "\n")) {
-                final String rendered = state.plain(delta + "\n");
-                final String fallbackText = "\n== " + job.name() + " ==\n" + rendered;
-                stdout(fallbackText);
-            }
+    private boolean printLogDelta(final WorkflowRun.JobStatus job, final JobLogState state, final byte[] chunk, final int length, final boolean complete) {
+        final String delta = state.delta(chunk, length, complete);
+        if (!hasText(delta)) {
+            return false;
+        }
+        if (!jobConsole.jobLog(job, delta + "\n")) {
+            final String rendered = state.plain(delta + "\n");
+            final String fallbackText = "\n== " + job.name() + " ==\n" + rendered;
+            stdout(fallbackText);
         }
+        return true;
     }
 
     private void printJobHeader(final WorkflowRun.JobStatus job, final JobLogState state) {
@@ -448,8 +510,7 @@ public class WorkflowRunProcessHandler extends ProcessHandler {
         }
         workflowStatus(GitHubWorkflowBundle.message("workflow.run.download.log.requested", jobName) + "\n", false);
         inBackground("workflow.run.download.failed", () -> {
-            final String log = client.jobLogs(request, jobId);
-            final Path file = writeJobLog(id, jobId, jobName, log);
+            final Path file = client.downloadJobLog(request, jobId, jobLogFile(id, jobId, jobName));
             workflowStatus(GitHubWorkflowBundle.message("workflow.run.download.log.done", file) + "\n", false);
             reveal(file);
         });
@@ -469,30 +530,68 @@ public class WorkflowRunProcessHandler extends ProcessHandler {
                 workflowStatus(GitHubWorkflowBundle.message("workflow.run.download.artifacts.empty") + "\n", false);
                 return;
             }
-            Path lastFile = null;
-            int downloaded = 0;
-            for (final WorkflowRun.ArtifactStatus artifact : artifacts) {
-                if (artifact.expired()) {
-                    workflowStatus(GitHubWorkflowBundle.message("workflow.run.download.artifact.expired", artifact.name()) + "\n", false);
-                    continue;
-                }
-                final byte[] zip = client.artifactZip(request, artifact.id());
-                lastFile = writeArtifact(id, artifact, zip);
-                downloaded++;
-                workflowStatus(GitHubWorkflowBundle.message("workflow.run.download.artifact.done", artifact.name(), lastFile) + "\n", false);
-            }
-            if (downloaded == 0) {
+            final List<Path> files = downloadArtifacts(id, artifacts);
+            if (files.isEmpty()) {
                 artifactAvailability.set(0);
                 workflowStatus(GitHubWorkflowBundle.message("workflow.run.download.artifacts.empty") + "\n", false);
                 return;
             }
             artifactAvailability.set(1);
-            if (lastFile != null) {
-                reveal(lastFile.getParent());
-            }
+            reveal(files.getLast().getParent());
         });
     }
 
+    /**
+     * Streams the archives to the run directory with at most {@link #MAX_PARALLEL_ARTIFACT_DOWNLOADS} transfers at a
+     * time. Every transfer is awaited before the first failure is rethrown, so finished archives stay on disk.
+     */
+    private List<Path> downloadArtifacts(final long id, final List<WorkflowRun.ArtifactStatus> artifacts) throws IOException, InterruptedException {
+        final ExecutorService transfers = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+                "GitHub Workflow Artifact Downloads",
+                MAX_PARALLEL_ARTIFACT_DOWNLOADS
+        );
+        final List<Future<Path>> downloads = new ArrayList<>();
+        for (final WorkflowRun.ArtifactStatus artifact : artifacts) {
+            if (artifact.expired()) {
+                workflowStatus(GitHubWorkflowBundle.message("workflow.run.download.artifact.expired", artifact.name()) + "\n", false);
+                continue;
+            }
+            downloads.add(transfers.submit(() -> {
+                final Path file = client.downloadArtifact(request, artifact.id(), artifactFile(id, artifact));
+                workflowStatus(GitHubWorkflowBundle.message("workflow.run.download.artifact.done", artifact.name(), file) + "\n", false);
+                return file;
+            }));
+        }
+        final List<Path> files = new ArrayList<>();
+        IOException failure = null;
+        try {
+            for (final Future<Path> download : downloads) {
+                try {
+                    files.add(download.get());
+                } catch (final ExecutionException exception) {
+                    if (exception.getCause() instanceof InterruptedException interrupted) {
+                        throw interrupted;
+                    }
+                    if (exception.getCause() instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    if (failure == null) {
+                        failure = exception.getCause() instanceof IOException ioException
+                                ? ioException
+                                : new IOException(exception.getCause());
+                    }
+                }
+            }
+        } catch (final InterruptedException exception) {
+            downloads.forEach(download -> download.cancel(true));
+            throw exception;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return files;
+    }
+
     private void inBackground(final String failureKey, final RemoteWork work) {
         inBackground(failureKey, ignored -> {
         }, work);
@@ -558,25 +657,20 @@ public class WorkflowRunProcessHandler extends ProcessHandler {
         notifyTextAvailable(text, ProcessOutputTypes.STDERR);
     }
 
-    private Path writeJobLog(
-            final long id,
-            final long jobId,
-            final String jobName,
-            final String log
-    ) throws IOException {
-        final Path file = runDirectory(id).resolve(safeName(jobName) + "-" + jobId + ".log");
-        Files.writeString(file, Optional.ofNullable(log).orElse(""), StandardCharsets.UTF_8);
-        return file;
+    private Path jobLogFile(final long id, final long jobId, final String jobName) throws IOException {
+        return runDirectory(id).resolve(safeName(jobName) + "-" + jobId + ".log");
     }
 
-    private Path writeArtifact(
-            final long id,
-            final WorkflowRun.ArtifactStatus artifact,
-            final byte[] zip
-    ) throws IOException {
-        final Path file = runDirectory(id).resolve(safeName(artifact.name()) + "-" + artifact.id() + ".zip");
-        Files.write(file, Optional.ofNullable(zip).orElseGet(() -> new byte[0]));
-        return file;
+    private Path artifactFile(final long id, final WorkflowRun.ArtifactStatus artifact) throws IOException {
+        return runDirectory(id).resolve(safeName(artifact.name()) + "-" + artifact.id() + ".zip");
+    }
+
+    /**
+     * Returns the directory for console history that {@link WorkflowRunView} spills to disk for this handler. It is
+     * chosen once per handler, so runs still waiting for their id never share it and it stays put once the id arrives.
+     */
+    Path consoleSpillDirectory() {
+        return consoleSpillDirectory;
     }
 
     private Path runDirectory(final long id) throws IOException {
@@ -677,10 +771,11 @@ public class WorkflowRunProcessHandler extends ProcessHandler {
         private long firstSeenMillis = 0;
         private long startedMillis = 0;
         private long completedMillis = 0;
-        private int printedLength = 0;
+        private long logOffset = 0;
         private long lastLogFetchMillis = 0;
         private long nextLiveLogFetchMillis = 0;
         private final WorkflowRunView.LogRenderer fallbackRenderer = new WorkflowRunView.LogRenderer();
+        private final ByteArrayOutputStream carry = new ByteArrayOutputStream();
         private boolean finalLogFetched = false;
         private boolean logErrorShown = false;
         private boolean headerPrinted = false;
@@ -728,14 +823,35 @@ public class WorkflowRunProcessHandler extends ProcessHandler {
             return now - lastLogFetchMillis >= logPollMillis;
         }
 
-        private String delta(final String logs) {
-            final String text = logs.stripTrailing();
-            if (text.length() <= printedLength) {
+        private long logOffset() {
+            return logOffset;
+        }
+
+        private void startLogFetch() {
+            carry.reset();
+        }
+
+        /**
+         * Consumes one chunk of the bytes appended since {@link #logOffset()}. Only complete lines are taken and the
+         * partial last line is carried into the next chunk. While the job is running a line GitHub is still writing (or
+         * a split UTF-8 sequence) is left for the next poll; {@code complete} takes the carried rest as well.
+         */
+        private String delta(final byte[] chunk, final int length, final boolean complete) {
+            carry.write(chunk, 0, length);
+            final byte[] appended = carry.toByteArray();
+            int end = appended.length;
+            if (!complete) {
+                while (end > 0 && appended[end - 1] != '\n') {
+                    end--;
+                }
+            }
+            carry.reset();
+            carry.write(appended, end, appended.length - end);
+            if (end == 0) {
                 return "";
             }
-            final String result = text.substring(printedLength).stripLeading();
-            printedLength = text.length();
-            return result;
+            logOffset += end;
+            return new String(appended, 0, end, StandardCharsets.UTF_8).stripTrailing().replaceFirst("^[\r\n]+", "");
         }
 
         private String plain(final String text) {
@@ -814,14 +930,75 @@ public class WorkflowRunProcessHandler extends ProcessHandler {
         }
     }
 
-    record PollSettings(long statusPollMillis, long logPollMillis, long runDiscoveryMillis, long liveLogFailureRetryMillis) {
+    /**
+     * Poll state of one run, carried from one scheduled round to the next.
+     */
+    private static class RunPoll {
+        private final long id;
+        private final Map<Long, JobLogState> jobLogs = new LinkedHashMap<>();
+        private WorkflowRun.RunStatus previous;
+        private long intervalMillis;
+        private int requests = 0;
+
+        private RunPoll(final long id, final long intervalMillis) {
+            this.id = id;
+            this.previous = new WorkflowRun.RunStatus(id, "", "", "");
+            this.intervalMillis = intervalMillis;
+        }
+
+        private long nextIntervalMillis(final boolean active, final PollSettings settings) {
+            intervalMillis = active
+                    ? settings.statusPollMillis()
+                    : Math.min(Math.max(settings.statusPollMillis(), intervalMillis * 2), settings.idlePollMillis());
+            return intervalMillis;
+        }
+
+        private void requested() {
+            requests++;
+        }
+
+        private int requests() {
+            final int result = requests;
+            requests = 0;
+            return result;
+        }
+
+        private long id() {
+            return id;
+        }
+
+        private Map<Long, JobLogState> jobLogs() {
+            return jobLogs;
+        }
+
+        private WorkflowRun.RunStatus previous() {
+            return previous;
+        }
+
+        private RunPoll previous(final WorkflowRun.RunStatus value) {
+            previous = value;
+            return this;
+        }
+    }
+
+    record PollSettings(
+            long statusPollMillis,
+            long logPollMillis,
+            long runDiscoveryMillis,
+            long liveLogFailureRetryMillis,
+            long idlePollMillis
+    ) {
 
         PollSettings(final long statusPollMillis, final long logPollMillis, final long runDiscoveryMillis) {
             this(statusPollMillis, logPollMillis, runDiscoveryMillis, Math.max(logPollMillis, 60_000));
         }
 
+        PollSettings(final long statusPollMillis, final long logPollMillis, final long runDiscoveryMillis, final long liveLogFailureRetryMillis) {
+            this(statusPollMillis, logPollMillis, runDiscoveryMillis, liveLogFailureRetryMillis, Math.max(statusPollMillis, logPollMillis));
+        }
+
         private static PollSettings defaults() {
-            return new PollSettings(10_000, 30_000, 2_000, 60_000);
+            return new PollSettings(10_000, 30_000, 2_000, 60_000, 60_000);
         }
     }
 
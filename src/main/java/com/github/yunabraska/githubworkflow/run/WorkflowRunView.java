@@ -20,7 +20,9 @@ import com.intellij.openapi.project.DumbAwareAction;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
 import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.ui.AnimatedIcon;
 import com.intellij.ui.ColoredTreeCellRenderer;
 import com.intellij.ui.OnePixelSplitter;
@@ -46,10 +48,20 @@ import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -58,8 +70,10 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import javax.swing.UIManager;
 
 /**
@@ -70,6 +84,7 @@ class WorkflowRunView implements WorkflowRunProcessHandler.JobConsole {
     private static final int MAX_ATTACH_ATTEMPTS = 20;
     private static final String CONTENT_ID = "github.workflow.jobs";
     private static final String DEFAULT_CONSOLE_TITLE = "Console";
+    private static final int REPLAY_BATCH = 256;
 
     private final Project project;
     private final @Nullable Executor executor;
@@ -90,6 +105,9 @@ class WorkflowRunView implements WorkflowRunProcessHandler.JobConsole {
     };
     private volatile TreeEntry selectedEntry = workflow;
     private @Nullable ConsoleView detailConsole;
+    // EDT only: the newest replay, and live output held back until that replay has printed its history
+    private long replayGeneration;
+    private @Nullable List<PrintedText> deferredLive;
     private @Nullable Content content;
     private @Nullable DefaultTreeModel treeModel;
     private @Nullable DefaultMutableTreeNode rootNode;
@@ -264,6 +282,7 @@ class WorkflowRunView implements WorkflowRunProcessHandler.JobConsole {
         if (createdConsole instanceof Disposable disposable) {
             createdContent.setDisposer(disposable);
         }
+        Disposer.register(createdContent, this::releaseOutput);
         layout.addContent(createdContent);
         keepOnlyWorkflowContent(layout, createdContent);
         synchronized (attachLock) {
@@ -375,7 +394,35 @@ class WorkflowRunView implements WorkflowRunProcessHandler.JobConsole {
             return;
         }
         console.clear();
-        entry.snapshot().forEach(text -> console.print(text.text(), text.contentType()));
+        final long generation = ++replayGeneration;
+        // Captures the buffered output here; spilled segments are read and decoded on a pooled thread.
+        final Stream<PrintedText> snapshot = entry.snapshot();
+        deferredLive = new ArrayList<>();
+        AppExecutorUtil.getAppExecutorService().execute(() -> printReplay(generation, snapshot.toList(), 0));
+    }
+
+    private void printReplay(final long generation, final List<PrintedText> texts, final int from) {
+        ApplicationManager.getApplication().invokeLater(() -> {
+            if (generation != replayGeneration) {
+                return;
+            }
+            final ConsoleView console = detailConsole;
+            if (console == null || project.isDisposed()) {
+                deferredLive = null;
+                return;
+            }
+            final int to = Math.min(texts.size(), from + REPLAY_BATCH);
+            texts.subList(from, to).forEach(text -> console.print(text.text(), text.contentType()));
+            if (to < texts.size()) {
+                printReplay(generation, texts, to);
+                return;
+            }
+            final List<PrintedText> live = deferredLive;
+            deferredLive = null;
+            if (live != null) {
+                live.forEach(text -> console.print(text.text(), text.contentType()));
+            }
+        });
     }
 
     private void retry() {
@@ -814,6 +861,173 @@ class WorkflowRunView implements WorkflowRunProcessHandler.JobConsole {
     record JobDisplayName(String group, String name) {
     }
 
+    /**
+     * Append-only console history. The newest output stays on the heap up to a byte budget; older output is spilled in
+     * coalesced segments to a temp file and read back lazily, one memory-mapped segment at a time, when a console is
+     * replayed.
+     *
+     * @param <T> content type kept next to each printed text
+     */
+    static final class OutputBuffer<T> {
+
+        static final long DEFAULT_MEMORY_LIMIT = 512 * 1024;
+        private static final int MAX_SEGMENT_CHARS = 64 * 1024;
+        private static final int CHUNK_OVERHEAD = 48;
+
+        private final Object lock = new Object();
+        private final long memoryLimit;
+        private final Supplier<Path> spillDirectory;
+        private final ArrayDeque<Chunk<T>> memory = new ArrayDeque<>();
+        private final List<Segment<T>> spilled = new ArrayList<>();
+        private long memoryBytes = 0;
+        private long spilledBytes = 0;
+        private @Nullable Path file;
+        private @Nullable FileChannel channel;
+        private boolean spillFailed = false;
+
+        OutputBuffer(final long memoryLimit, final Supplier<Path> spillDirectory) {
+            this.memoryLimit = Math.max(1, memoryLimit);
+            this.spillDirectory = spillDirectory;
+        }
+
+        void append(final String text, final T type) {
+            if (text == null || text.isEmpty()) {
+                return;
+            }
+            synchronized (lock) {
+                memory.addLast(new Chunk<>(text, type));
+                memoryBytes += size(text);
+                if (memoryBytes > memoryLimit && !spillFailed) {
+                    spill();
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            synchronized (lock) {
+                return memory.isEmpty() && spilled.isEmpty();
+            }
+        }
+
+        long memoryBytes() {
+            synchronized (lock) {
+                return memoryBytes;
+            }
+        }
+
+        /**
+         * Returns the history in print order. Spilled segments are decoded only while the stream is consumed.
+         *
+         * @return lazy stream of printed chunks
+         */
+        Stream<Chunk<T>> snapshot() {
+            final List<Segment<T>> segments;
+            final List<Chunk<T>> recent;
+            final FileChannel source;
+            synchronized (lock) {
+                segments = List.copyOf(spilled);
+                recent = List.copyOf(memory);
+                source = spilledBytes > 0 ? channel : null;
+            }
+            if (source == null) {
+                return recent.stream();
+            }
+            return Stream.concat(
+                    segments.stream()
+                            .map(segment -> decode(source, segment).map(text -> new Chunk<>(text, segment.type())))
+                            .flatMap(Optional::stream),
+                    recent.stream()
+            );
+        }
+
+        void clear() {
+            synchronized (lock) {
+                memory.clear();
+                spilled.clear();
+                memoryBytes = 0;
+                spilledBytes = 0;
+                closeFile();
+            }
+        }
+
+        private void spill() {
+            try {
+                final FileChannel target = channel();
+                final long keep = memoryLimit / 2;
+                while (memoryBytes > keep && !memory.isEmpty()) {
+                    final T type = memory.peekFirst().type();
+                    final StringBuilder text = new StringBuilder();
+                    while (memoryBytes > keep
+                            && !memory.isEmpty()
+                            && Objects.equals(memory.peekFirst().type(), type)
+                            && text.length() < MAX_SEGMENT_CHARS) {
+                        final Chunk<T> chunk = memory.pollFirst();
+                        text.append(chunk.text());
+                        memoryBytes -= size(chunk.text());
+                    }
+                    final ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(text));
+                    final int length = bytes.remaining();
+                    while (bytes.hasRemaining()) {
+                        target.write(bytes, spilledBytes + length - bytes.remaining());
+                    }
+                    spilled.add(new Segment<>(spilledBytes, length, type));
+                    spilledBytes += length;
+                }
+            } catch (final IOException exception) {
+                // Keeping the output on the heap is the pre-spill behavior; never lose console text over a disk error.
+                spillFailed = true;
+            }
+        }
+
+        private FileChannel channel() throws IOException {
+            if (channel == null) {
+                final Path directory = spillDirectory.get();
+                Files.createDirectories(directory);
+                file = Files.createTempFile(directory, "console-", ".spill");
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            return channel;
+        }
+
+        private void closeFile() {
+            final FileChannel current = channel;
+            final Path currentFile = file;
+            channel = null;
+            file = null;
+            spillFailed = false;
+            try {
+                if (current != null) {
+                    current.close();
+                }
+                if (currentFile != null) {
+                    Files.deleteIfExists(currentFile);
+                }
+            } catch (final IOException ignored) {
+                // A file still mapped by a running replay goes with the run's spill directory when the view is disposed.
+            }
+        }
+
+        // Maps only the segment's window, so spill files beyond 2 GiB replay as well.
+        private static Optional<String> decode(final FileChannel source, final Segment<?> segment) {
+            try {
+                return Optional.of(StandardCharsets.UTF_8.decode(source.map(FileChannel.MapMode.READ_ONLY, segment.offset(), segment.length())).toString());
+            } catch (final IOException exception) {
+                // The buffer was cleared while the replay was still reading.
+                return Optional.empty();
+            }
+        }
+
+        private static long size(final String text) {
+            return (long) text.length() * 2 + CHUNK_OVERHEAD;
+        }
+
+        record Chunk<T>(String text, T type) {
+        }
+
+        private record Segment<T>(long offset, int length, T type) {
+        }
+    }
+
     private record JobState(
             long jobId,
             String groupName,
@@ -988,19 +1202,16 @@ class WorkflowRunView implements WorkflowRunProcessHandler.JobConsole {
 
         Icon icon();
 
-        List<PrintedText> snapshot();
+        Stream<PrintedText> snapshot();
     }
 
     private class WorkflowNode implements TreeEntry {
-        private final Object lock = new Object();
-        private final List<PrintedText> output = new ArrayList<>();
+        private final OutputBuffer<ConsoleViewContentType> output = outputBuffer();
         private final long startedMillis = System.currentTimeMillis();
 
         private void print(final String text, final ConsoleViewContentType contentType) {
             final PrintedText printedText = new PrintedText(text, contentType);
-            synchronized (lock) {
-                output.add(printedText);
-            }
+            output.append(text, contentType);
             printIfSelected(this, printedText);
             refreshTree();
         }
@@ -1041,15 +1252,17 @@ class WorkflowRunView implements WorkflowRunProcessHandler.JobConsole {
         }
 
         @Override
-        public List<PrintedText> snapshot() {
-            synchronized (lock) {
-                return List.copyOf(output);
-            }
+        public Stream<PrintedText> snapshot() {
+            return printed(output);
         }
 
         private boolean completed() {
             return terminal() || (!jobs.isEmpty() && jobs.values().stream().allMatch(JobNode::completed));
         }
+
+        private void release() {
+            output.clear();
+        }
     }
 
     private class GroupNode implements TreeEntry {
@@ -1093,13 +1306,14 @@ class WorkflowRunView implements WorkflowRunProcessHandler.JobConsole {
         }
 
         @Override
-        public List<PrintedText> snapshot() {
-            final List<PrintedText> result = new ArrayList<>();
-            children().forEach(job -> {
-                result.add(new PrintedText("\n== " + job.title() + " ==\n", ConsoleViewContentType.SYSTEM_OUTPUT));
-                result.addAll(job.snapshot());
-            });
-            return result;
+        public Stream<PrintedText> snapshot() {
+            final List<Stream<PrintedText>> parts = children().stream()
+                    .map(job -> Stream.concat(
+                            Stream.of(new PrintedText("\n== " + job.title() + " ==\n", ConsoleViewContentType.SYSTEM_OUTPUT)),
+                            job.snapshot()
+                    ))
+                    .toList();
+            return parts.stream().flatMap(part -> part);
         }
 
         private List<JobNode> children() {
@@ -1111,8 +1325,7 @@ class WorkflowRunView implements WorkflowRunProcessHandler.JobConsole {
     }
 
     private class JobNode implements TreeEntry {
-        private final Object lock = new Object();
-        private final List<PrintedText> output = new ArrayList<>();
+        private final OutputBuffer<ConsoleViewContentType> output = outputBuffer();
         private final LogRenderer logRenderer = new LogRenderer();
         private final AtomicReference<JobState> state;
         private @Nullable DefaultMutableTreeNode treeNode;
@@ -1142,9 +1355,7 @@ class WorkflowRunView implements WorkflowRunProcessHandler.JobConsole {
             final boolean warning = text.contentType() == ConsoleViewContentType.LOG_WARNING_OUTPUT;
             final boolean error = text.contentType() == ConsoleViewContentType.LOG_ERROR_OUTPUT
                     || text.contentType() == ConsoleViewContentType.ERROR_OUTPUT;
-            synchronized (lock) {
-                output.add(text);
-            }
+            output.append(text.text(), text.contentType());
             if (warning || error) {
                 state.updateAndGet(current -> current.withDiagnostic(warning, error));
             }
@@ -1194,10 +1405,8 @@ class WorkflowRunView implements WorkflowRunProcessHandler.JobConsole {
         }
 
         @Override
-        public List<PrintedText> snapshot() {
-            synchronized (lock) {
-                return List.copyOf(output);
-            }
+        public Stream<PrintedText> snapshot() {
+            return printed(output);
         }
 
         private int warnings() {
@@ -1225,9 +1434,7 @@ class WorkflowRunView implements WorkflowRunProcessHandler.JobConsole {
         }
 
         private boolean downloadableLog() {
-            synchronized (lock) {
-                return completed() || !output.isEmpty();
-            }
+            return completed() || !output.isEmpty();
         }
 
         private boolean cancelled() {
@@ -1239,19 +1446,35 @@ class WorkflowRunView implements WorkflowRunProcessHandler.JobConsole {
         }
 
         private void clear() {
-            synchronized (lock) {
-                output.clear();
-            }
+            output.clear();
         }
     }
 
+    private OutputBuffer<ConsoleViewContentType> outputBuffer() {
+        return new OutputBuffer<>(OutputBuffer.DEFAULT_MEMORY_LIMIT, () -> processHandler.consoleSpillDirectory());
+    }
+
+    private static Stream<PrintedText> printed(final OutputBuffer<ConsoleViewContentType> output) {
+        return output.snapshot().map(chunk -> new PrintedText(chunk.text(), chunk.type()));
+    }
+
+    private void releaseOutput() {
+        workflow.release();
+        jobs.values().forEach(JobNode::clear);
+        final Path spillDirectory = processHandler.consoleSpillDirectory();
+        AppExecutorUtil.getAppExecutorService().execute(() -> FileUtil.delete(spillDirectory));
+    }
+
     private void printIfSelected(final TreeEntry entry, final PrintedText text) {
         if (selectedEntry != entry || project.isDisposed()) {
             return;
         }
         ApplicationManager.getApplication().invokeLater(() -> {
             final ConsoleView console = detailConsole;
-            if (console != null && selectedEntry == entry) {
+            final List<PrintedText> deferred = deferredLive;
+            if (console != null && selectedEntry == entry && deferred != null) {
+                deferred.add(text);
+            } else if (console != null && selectedEntry == entry) {
                 console.print(text.text(), text.contentType());
             }
         });
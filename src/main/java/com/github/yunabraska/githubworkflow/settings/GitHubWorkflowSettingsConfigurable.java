@@ -1,5 +1,6 @@
 package com.github.yunabraska.githubworkflow.settings;
 
+import com.github.yunabraska.githubworkflow.git.RemoteActionProviders;
 import com.github.yunabraska.githubworkflow.state.GitHubActionCache;
 
 import com.github.yunabraska.githubworkflow.i18n.GitHubWorkflowBundle;
@@ -20,6 +21,8 @@ import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
 import javax.swing.JTable;
 import javax.swing.border.TitledBorder;
 import javax.swing.table.DefaultTableModel;
@@ -40,7 +43,7 @@ import java.util.Objects;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Settings UI for locale override and GitHub Action cache maintenance.
+ * Settings UI for locale override, remote lookup tuning, and GitHub Action cache maintenance.
  */
 public class GitHubWorkflowSettingsConfigurable implements SearchableConfigurable {
 
@@ -70,23 +73,37 @@ public class GitHubWorkflowSettingsConfigurable implements SearchableConfigurabl
             new LocaleOption("zh-CN", "简体中文")
     );
 
+    private static final List<FanOutOption> FAN_OUTS = List.of(
+            new FanOutOption(RemoteActionProviders.ServerFanOut.SEQUENTIAL, "settings.remote.fanOut.sequential"),
+            new FanOutOption(RemoteActionProviders.ServerFanOut.PARALLEL, "settings.remote.fanOut.parallel"),
+            new FanOutOption(RemoteActionProviders.ServerFanOut.HEDGED, "settings.remote.fanOut.hedged")
+    );
+
     private final GitHubWorkflowBundle.Settings settings = GitHubWorkflowBundle.Settings.getInstance();
+    private final RemoteActionProviders.Settings remoteSettings = RemoteActionProviders.Settings.getInstance();
     private final GitHubActionCache cache = GitHubActionCache.getActionCache();
     private final JComboBox<LocaleOption> language = new JComboBox<>(LOCALES.toArray(LocaleOption[]::new));
     private final DefaultTableModel tableModel = new DefaultTableModel();
     private final JTable table = new JBTable(tableModel);
     private final JLabel languageLabel = new JLabel();
+    private final JComboBox<FanOutOption> fanOut = new JComboBox<>(FAN_OUTS.toArray(FanOutOption[]::new));
+    private final JSpinner hedgeDelay = new JSpinner(new SpinnerNumberModel(RemoteActionProviders.Settings.DEFAULT_HEDGE_DELAY_MILLIS, 1, 60_000, 50));
+    private final JSpinner parallelRequests = new JSpinner(new SpinnerNumberModel(RemoteActionProviders.Settings.DEFAULT_PARALLEL_REQUESTS_PER_SERVER, 1, 64, 1));
+    private final JSpinner requestInterval = new JSpinner(new SpinnerNumberModel(RemoteActionProviders.Settings.DEFAULT_REQUEST_INTERVAL_MILLIS, 0, 10_000, 25));
+    private final List<LocalizedLabel> remoteLabels = new ArrayList<>();
     private final JButton support = new JButton();
     private final JLabel summary = new JLabel();
     private final List<LocalizedButton> buttons = new ArrayList<>();
     private @Nullable JPanel panel;
     private @Nullable TitledBorder cacheBorder;
+    private @Nullable TitledBorder remoteBorder;
 
     /**
      * Creates the settings page and wires the support button action.
      */
     public GitHubWorkflowSettingsConfigurable() {
         support.addActionListener(event -> BrowserUtil.browse(SUPPORT_URL));
+        fanOut.addActionListener(event -> hedgeDelay.setEnabled(selectedFanOut() == RemoteActionProviders.ServerFanOut.HEDGED));
     }
 
     @Override
@@ -102,9 +119,13 @@ public class GitHubWorkflowSettingsConfigurable implements SearchableConfigurabl
     @Override
     public @Nullable JComponent createComponent() {
         buttons.clear();
+        remoteLabels.clear();
         panel = new JPanel(new BorderLayout(8, 8));
         panel.setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
-        panel.add(topPanel(), BorderLayout.NORTH);
+        final JPanel north = new JPanel(new BorderLayout(8, 8));
+        north.add(topPanel(), BorderLayout.NORTH);
+        north.add(remotePanel(), BorderLayout.CENTER);
+        panel.add(north, BorderLayout.NORTH);
         panel.add(cachePanel(), BorderLayout.CENTER);
         reset();
         return panel;
@@ -113,13 +134,22 @@ public class GitHubWorkflowSettingsConfigurable implements SearchableConfigurabl
     @Override
     public boolean isModified() {
         final LocaleOption option = (LocaleOption) language.getSelectedItem();
-        return option != null && !Objects.equals(option.tag(), settings.languageTag());
+        return (option != null && !Objects.equals(option.tag(), settings.languageTag()))
+                || selectedFanOut() != remoteSettings.serverFanOut()
+                || spinnerValue(hedgeDelay) != remoteSettings.hedgeDelayMillis()
+                || spinnerValue(parallelRequests) != remoteSettings.parallelRequestsPerServer()
+                || spinnerValue(requestInterval) != remoteSettings.requestIntervalMillis();
     }
 
     @Override
     public void apply() {
         final LocaleOption option = (LocaleOption) language.getSelectedItem();
         settings.languageTag(option == null ? GitHubWorkflowBundle.Settings.SYSTEM_LANGUAGE : option.tag());
+        remoteSettings
+                .setServerFanOut(selectedFanOut())
+                .setHedgeDelayMillis(spinnerValue(hedgeDelay))
+                .setParallelRequestsPerServer(spinnerValue(parallelRequests))
+                .setRequestIntervalMillis(spinnerValue(requestInterval));
         refreshTexts();
         reloadTable();
         GitHubActionCache.triggerSyntaxHighlightingForActiveFiles();
@@ -128,6 +158,14 @@ public class GitHubWorkflowSettingsConfigurable implements SearchableConfigurabl
     @Override
     public void reset() {
         selectLanguage(settings.languageTag());
+        FAN_OUTS.stream()
+                .filter(option -> option.mode() == remoteSettings.serverFanOut())
+                .findFirst()
+                .ifPresent(fanOut::setSelectedItem);
+        hedgeDelay.setValue(remoteSettings.hedgeDelayMillis());
+        hedgeDelay.setEnabled(remoteSettings.serverFanOut() == RemoteActionProviders.ServerFanOut.HEDGED);
+        parallelRequests.setValue(remoteSettings.parallelRequestsPerServer());
+        requestInterval.setValue(remoteSettings.requestIntervalMillis());
         refreshTexts();
         reloadTable();
     }
@@ -161,6 +199,45 @@ public class GitHubWorkflowSettingsConfigurable implements SearchableConfigurabl
         return result;
     }
 
+    private JPanel remotePanel() {
+        final JPanel result = new JPanel(new GridBagLayout());
+        remoteBorder = BorderFactory.createTitledBorder(GitHubWorkflowBundle.message("settings.remote.title"));
+        result.setBorder(remoteBorder);
+        addRemoteRow(result, 0, "settings.remote.fanOut", fanOut);
+        addRemoteRow(result, 1, "settings.remote.hedgeDelay", hedgeDelay);
+        addRemoteRow(result, 2, "settings.remote.parallelRequests", parallelRequests);
+        addRemoteRow(result, 3, "settings.remote.requestInterval", requestInterval);
+        return result;
+    }
+
+    private void addRemoteRow(final JPanel panel, final int row, final String key, final JComponent component) {
+        final JLabel label = new JLabel(GitHubWorkflowBundle.message(key));
+        remoteLabels.add(new LocalizedLabel(label, key));
+        final GridBagConstraints labelConstraints = new GridBagConstraints();
+        labelConstraints.gridx = 0;
+        labelConstraints.gridy = row;
+        labelConstraints.anchor = GridBagConstraints.WEST;
+        labelConstraints.insets = new Insets(2, 0, 2, 8);
+        panel.add(label, labelConstraints);
+
+        final GridBagConstraints componentConstraints = new GridBagConstraints();
+        componentConstraints.gridx = 1;
+        componentConstraints.gridy = row;
+        componentConstraints.weightx = 1;
+        componentConstraints.anchor = GridBagConstraints.WEST;
+        componentConstraints.insets = new Insets(2, 0, 2, 0);
+        panel.add(component, componentConstraints);
+    }
+
+    private RemoteActionProviders.ServerFanOut selectedFanOut() {
+        final FanOutOption option = (FanOutOption) fanOut.getSelectedItem();
+        return option == null ? RemoteActionProviders.ServerFanOut.SEQUENTIAL : option.mode();
+    }
+
+    private static int spinnerValue(final JSpinner spinner) {
+        return ((Number) spinner.getValue()).intValue();
+    }
+
     private JPanel cachePanel() {
         setCacheColumnHeaders();
         table.setSelectionMode(javax.swing.ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
@@ -229,6 +306,11 @@ public class GitHubWorkflowSettingsConfigurable implements SearchableConfigurabl
         support.setText(randomSupportLine());
         support.setToolTipText(GitHubWorkflowBundle.message("settings.support.tooltip"));
         buttons.forEach(button -> button.component().setText(GitHubWorkflowBundle.message(button.key())));
+        remoteLabels.forEach(label -> label.component().setText(GitHubWorkflowBundle.message(label.key())));
+        fanOut.repaint();
+        if (remoteBorder != null) {
+            remoteBorder.setTitle(GitHubWorkflowBundle.message("settings.remote.title"));
+        }
         setCacheColumnHeaders();
         if (cacheBorder != null) {
             cacheBorder.setTitle(GitHubWorkflowBundle.message("settings.cache.title"));
@@ -330,6 +412,17 @@ public class GitHubWorkflowSettingsConfigurable implements SearchableConfigurabl
         }
     }
 
+    private record FanOutOption(RemoteActionProviders.ServerFanOut mode, String key) {
+
+        @Override
+        public String toString() {
+            return GitHubWorkflowBundle.message(key);
+        }
+    }
+
     private record LocalizedButton(JButton component, String key) {
     }
+
+    private record LocalizedLabel(JLabel component, String key) {
+    }
 }
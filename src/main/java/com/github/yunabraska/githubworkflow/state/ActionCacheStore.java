@@ -0,0 +1,598 @@
+package com.github.yunabraska.githubworkflow.state;
+
+import com.github.yunabraska.githubworkflow.model.GitHubAction;
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Action cache map backed by a versioned append-only binary log.
+ * <p>
+ * Opening the store only scans record keys, offsets and a small {@link EntryInfo} header per record; action payloads
+ * are decoded on first {@link #get(Object)}. Summaries, clean-up and filtered views read the headers instead of decoding
+ * every entry. {@link #flush()} appends only entries that were put, removed or changed in place since the last flush,
+ * and the log is compacted once dead records outnumber live ones.
+ * Without a file the store is a plain in-memory map, which keeps throwaway caches in tests isolated.
+ * <p>
+ * Remote entries are additionally indexed by their {@code owner/repo} base so ref lookups and completion never scan the
+ * whole cache.
+ */
+final class ActionCacheStore extends AbstractMap<String, GitHubAction> {
+
+    private static final Logger LOG = Logger.getInstance(ActionCacheStore.class);
+    private static final int MAGIC = 0x47574143;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final int MIN_COMPACTION_GARBAGE = 64;
+    private static final byte FLAG_RESOLVED = 1;
+    private static final byte FLAG_LOCAL = 2;
+    private static final byte FLAG_SUPPRESSED = 4;
+
+    private final Map<String, GitHubAction> loaded = new ConcurrentHashMap<>();
+    private final Set<String> unloaded = ConcurrentHashMap.newKeySet();
+    private final Map<String, EntryInfo> written = new ConcurrentHashMap<>();
+    private final Map<String, Long> writtenRevisions = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> offsets = new HashMap<>();
+    private final Set<String> remoteKeys = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<String>> keysByRemoteBase = new ConcurrentHashMap<>();
+    private final Map<String, String> remoteBaseByKey = new ConcurrentHashMap<>();
+    private Path file;
+    private volatile boolean indexed = true;
+    private int garbage;
+
+    /**
+     * Record header stored next to each payload.
+     *
+     * @param downloadUrl action identity, see {@link GitHubAction#equals(Object)}
+     * @param usesValue   uses value the action was created for
+     * @param expiryTime  expiry time in epoch milliseconds
+     * @param resolved    whether the action metadata was resolved
+     * @param local       whether the action is a local one
+     * @param suppressed  whether the action has suppressed warnings
+     * @param size        payload size in bytes, {@code 0} for entries that were never written
+     */
+    record EntryInfo(String downloadUrl, String usesValue, long expiryTime, boolean resolved, boolean local, boolean suppressed, long size) {
+
+        static EntryInfo of(final GitHubAction action, final long size) {
+            return new EntryInfo(action.downloadUrl(), action.usesValue(), action.expiryTime(), action.isResolved(), action.isLocal(), action.hasSuppressedWarnings(), size);
+        }
+
+        private byte flags() {
+            return (byte) ((resolved ? FLAG_RESOLVED : 0) | (local ? FLAG_LOCAL : 0) | (suppressed ? FLAG_SUPPRESSED : 0));
+        }
+
+        private static EntryInfo read(final DataInputStream input) throws IOException {
+            final String downloadUrl = readString(input);
+            final String usesValue = readString(input);
+            final long expiryTime = input.readLong();
+            final byte flags = input.readByte();
+            return new EntryInfo(downloadUrl, usesValue, expiryTime, (flags & FLAG_RESOLVED) != 0, (flags & FLAG_LOCAL) != 0, (flags & FLAG_SUPPRESSED) != 0, 0);
+        }
+
+        private void write(final DataOutputStream output) throws IOException {
+            writeString(output, downloadUrl);
+            writeString(output, usesValue);
+            output.writeLong(expiryTime);
+            output.writeByte(flags());
+        }
+    }
+
+    /**
+     * Binds this store to its log file. The file is indexed lazily on the first access.
+     *
+     * @param file binary log location, created on the first flush
+     */
+    synchronized void open(final Path file) {
+        this.file = file;
+        this.indexed = false;
+    }
+
+    @Override
+    public GitHubAction get(final Object key) {
+        final GitHubAction action = loaded.get(key);
+        if (action != null || !(key instanceof final String name)) {
+            return action;
+        }
+        ensureIndexed();
+        // a concurrent load may have decoded the entry since the first lookup
+        return unloaded.contains(name) ? load(name) : loaded.get(name);
+    }
+
+    // The dirty mark is set after the change, so a flush that clears it first always reads the new state.
+    @Override
+    public GitHubAction put(final String key, final GitHubAction value) {
+        ensureIndexed();
+        unloaded.remove(key);
+        indexRemote(key, !value.isLocal(), value.usesValue());
+        final GitHubAction previous = loaded.put(key, value);
+        dirty.add(key);
+        return previous;
+    }
+
+    @Override
+    public GitHubAction remove(final Object key) {
+        ensureIndexed();
+        unloaded.remove(key);
+        final GitHubAction previous = loaded.remove(key);
+        if (key instanceof final String name) {
+            unindexRemote(name);
+            dirty.add(name);
+        }
+        return previous;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        ensureIndexed();
+        return loaded.containsKey(key) || unloaded.contains(key);
+    }
+
+    @Override
+    public int size() {
+        ensureIndexed();
+        return loaded.size() + unloaded.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public synchronized void clear() {
+        ensureIndexed();
+        dirty.addAll(offsets.keySet());
+        unloaded.clear();
+        loaded.clear();
+        remoteKeys.clear();
+        keysByRemoteBase.clear();
+        remoteBaseByKey.clear();
+    }
+
+    // Read-only views: changes must go through put and remove to be written back.
+    @Override
+    public Set<Entry<String, GitHubAction>> entrySet() {
+        loadAll();
+        return Collections.unmodifiableMap(loaded).entrySet();
+    }
+
+    @Override
+    public Collection<GitHubAction> values() {
+        loadAll();
+        return Collections.unmodifiableCollection(loaded.values());
+    }
+
+    /**
+     * Returns a snapshot of all keys without decoding any entry.
+     *
+     * @return cached keys
+     */
+    List<String> keys() {
+        ensureIndexed();
+        return Stream.concat(loaded.keySet().stream(), unloaded.stream()).distinct().toList();
+    }
+
+    /**
+     * Returns the header of an entry; decoded entries are described from their current state.
+     *
+     * @param key cache key
+     * @return entry header or empty when the key is unknown
+     */
+    Optional<EntryInfo> info(final String key) {
+        final GitHubAction action = loaded.get(key);
+        return action != null
+                ? Optional.of(EntryInfo.of(action, ofNullable(written.get(key)).map(EntryInfo::size).orElse(0L)))
+                : ofNullable(written.get(key)).filter(info -> unloaded.contains(key));
+    }
+
+    /**
+     * Returns the decoded action of a key without reading the log.
+     *
+     * @param key cache key
+     * @return decoded action or empty when the entry was not read yet
+     */
+    Optional<GitHubAction> peek(final String key) {
+        return ofNullable(loaded.get(key));
+    }
+
+    /**
+     * Decodes only the entries whose header matches the filter.
+     *
+     * @param filter header filter
+     * @return distinct matching actions
+     */
+    List<GitHubAction> actions(final Predicate<EntryInfo> filter) {
+        return keys().stream()
+                .filter(key -> info(key).filter(filter).isPresent())
+                .map(this::get)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Returns remote actions without decoding local entries.
+     *
+     * @return distinct remote actions
+     */
+    List<GitHubAction> remoteActions() {
+        ensureIndexed();
+        return actions(remoteKeys, action -> !action.isLocal());
+    }
+
+    /**
+     * Returns remote actions whose uses value points to the given {@code owner/repo} base.
+     *
+     * @param usesBase uses value without its {@code @ref}
+     * @return distinct remote actions of that base
+     */
+    List<GitHubAction> remoteActions(final String usesBase) {
+        ensureIndexed();
+        return ofNullable(usesBase).map(keysByRemoteBase::get).map(keys -> actions(keys, action -> !action.isLocal()
+                && remoteBase(action.usesValue()).filter(usesBase::equals).isPresent())).orElseGet(List::of);
+    }
+
+    // The index may briefly lag behind in-place changes of an action, so the action itself is checked again.
+    private List<GitHubAction> actions(final Collection<String> keys, final Predicate<GitHubAction> filter) {
+        return keys.stream()
+                .map(this::get)
+                .filter(Objects::nonNull)
+                .filter(filter)
+                .distinct()
+                .toList();
+    }
+
+    private void indexRemote(final String key, final boolean remote, final String usesValue) {
+        unindexRemote(key);
+        if (!remote) {
+            return;
+        }
+        remoteKeys.add(key);
+        remoteBase(usesValue).ifPresent(base -> {
+            remoteBaseByKey.put(key, base);
+            keysByRemoteBase.computeIfAbsent(base, ignored -> ConcurrentHashMap.newKeySet()).add(key);
+        });
+    }
+
+    private void unindexRemote(final String key) {
+        remoteKeys.remove(key);
+        ofNullable(remoteBaseByKey.remove(key)).ifPresent(base -> keysByRemoteBase.computeIfPresent(base, (ignored, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        }));
+    }
+
+    private static Optional<String> remoteBase(final String usesValue) {
+        final int refSeparator = ofNullable(usesValue).orElse("").lastIndexOf('@');
+        return refSeparator > 0 ? Optional.of(usesValue.substring(0, refSeparator)) : Optional.empty();
+    }
+
+    /**
+     * Appends entries that were put, removed or changed in place since the last flush, and compacts the log when most
+     * records are dead.
+     */
+    synchronized void flush() {
+        if (file == null) {
+            return;
+        }
+        ensureIndexed();
+        final Set<String> changed = new HashSet<>(dirty);
+        loaded.forEach((key, action) -> {
+            if (!Objects.equals(writtenRevisions.get(key), action.revision())) {
+                changed.add(key);
+            }
+        });
+        if (changed.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                long position = channel.size();
+                if (position < HEADER_SIZE) {
+                    channel.truncate(0);
+                    position = write(channel, 0, header());
+                }
+                final ByteArrayOutputStream records = new ByteArrayOutputStream();
+                final DataOutputStream output = new DataOutputStream(records);
+                final Map<String, Long> newOffsets = new HashMap<>();
+                final Map<String, EntryInfo> newInfos = new HashMap<>();
+                final Map<String, Long> newRevisions = new HashMap<>();
+                final Set<String> removed = new HashSet<>();
+                int newGarbage = 0;
+                for (final String key : changed) {
+                    // cleared before reading, so a put or remove from now on marks the key again for the next flush
+                    dirty.remove(key);
+                    final GitHubAction action = loaded.get(key);
+                    if (action == null) {
+                        if (!unloaded.contains(key) && offsets.containsKey(key)) {
+                            output.writeByte(OP_REMOVE);
+                            writeString(output, key);
+                            removed.add(key);
+                            newGarbage += 2;
+                        }
+                        continue;
+                    }
+                    // read before encoding, so a change during encoding is written again on the next flush
+                    final long revision = action.revision();
+                    final byte[] payload = encode(action);
+                    final EntryInfo info = EntryInfo.of(action, payload.length);
+                    writeRecordHeader(output, key, info, payload.length);
+                    output.flush();
+                    newOffsets.put(key, position + records.size());
+                    output.write(payload);
+                    newInfos.put(key, info);
+                    newRevisions.put(key, revision);
+                    newGarbage += offsets.containsKey(key) ? 1 : 0;
+                }
+                output.flush();
+                write(channel, position, records.toByteArray());
+                removed.forEach(key -> {
+                    offsets.remove(key);
+                    written.remove(key);
+                    writtenRevisions.remove(key);
+                });
+                offsets.putAll(newOffsets);
+                written.putAll(newInfos);
+                writtenRevisions.putAll(newRevisions);
+                garbage += newGarbage;
+            }
+            if (garbage > MIN_COMPACTION_GARBAGE && garbage > offsets.size()) {
+                compact();
+            }
+        } catch (final IOException exception) {
+            dirty.addAll(changed);
+            LOG.warn("Failed to write action cache [" + file + "]", exception);
+        }
+    }
+
+    private void compact() throws IOException {
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        final Map<String, Long> newOffsets = new HashMap<>();
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = write(target, 0, header());
+            for (final Map.Entry<String, Long> entry : offsets.entrySet()) {
+                final ByteArrayOutputStream record = new ByteArrayOutputStream();
+                final DataOutputStream output = new DataOutputStream(record);
+                final byte[] payload = readPayload(source, entry.getValue());
+                writeRecordHeader(output, entry.getKey(), written.get(entry.getKey()), payload.length);
+                output.flush();
+                newOffsets.put(entry.getKey(), position + record.size());
+                output.write(payload);
+                output.flush();
+                position = write(target, position, record.toByteArray());
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        offsets.clear();
+        offsets.putAll(newOffsets);
+        garbage = 0;
+    }
+
+    private static void writeRecordHeader(final DataOutputStream output, final String key, final EntryInfo info, final int length) throws IOException {
+        output.writeByte(OP_PUT);
+        writeString(output, key);
+        info.write(output);
+        output.writeInt(length);
+    }
+
+    // Takes the lock while the flag is unset, so no caller sees a half-indexed store.
+    private void ensureIndexed() {
+        if (!indexed) {
+            index();
+        }
+    }
+
+    private synchronized void index() {
+        if (indexed) {
+            return;
+        }
+        try {
+            if (file != null && Files.isRegularFile(file)) {
+                readIndex();
+            }
+        } finally {
+            indexed = true;
+        }
+    }
+
+    private void readIndex() {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            if (channel.size() < HEADER_SIZE || input.readInt() != MAGIC || input.readInt() != VERSION) {
+                channel.truncate(0);
+                return;
+            }
+            long position = HEADER_SIZE;
+            final Map<String, Long> positions = new LinkedHashMap<>();
+            final Map<String, EntryInfo> infos = new HashMap<>();
+            try {
+                while (position < channel.size()) {
+                    final byte operation = input.readByte();
+                    final byte[] key = new byte[input.readInt()];
+                    input.readFully(key);
+                    long next = position + 1 + Integer.BYTES + key.length;
+                    final String name = new String(key, StandardCharsets.UTF_8);
+                    if (operation == OP_PUT) {
+                        final EntryInfo info = EntryInfo.read(input);
+                        final int length = input.readInt();
+                        input.skipNBytes(length);
+                        next += infoSize(info) + Integer.BYTES;
+                        garbage += positions.containsKey(name) ? 1 : 0;
+                        positions.put(name, next);
+                        infos.put(name, new EntryInfo(info.downloadUrl(), info.usesValue(), info.expiryTime(), info.resolved(), info.local(), info.suppressed(), length));
+                        next += length;
+                    } else if (operation == OP_REMOVE) {
+                        garbage += positions.remove(name) == null ? 1 : 2;
+                        infos.remove(name);
+                    } else {
+                        break;
+                    }
+                    position = next;
+                }
+            } catch (final EOFException brokenTail) {
+                // A crash during append leaves a partial record; the next flush overwrites it.
+            }
+            channel.truncate(position);
+            offsets.putAll(positions);
+            written.putAll(infos);
+            positions.keySet().stream().filter(key -> !loaded.containsKey(key)).forEach(key -> {
+                final EntryInfo info = infos.get(key);
+                indexRemote(key, !info.local(), info.usesValue());
+                unloaded.add(key);
+            });
+        } catch (final IOException exception) {
+            LOG.warn("Failed to index action cache [" + file + "]", exception);
+        }
+    }
+
+    private static long infoSize(final EntryInfo info) {
+        return Integer.BYTES + utf8Length(info.downloadUrl()) + Integer.BYTES + utf8Length(info.usesValue()) + Long.BYTES + 1;
+    }
+
+    private static int utf8Length(final String value) {
+        return (value == null ? "" : value).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private synchronized GitHubAction load(final String key) {
+        final GitHubAction current = loaded.get(key);
+        if (current != null || !unloaded.contains(key)) {
+            return current;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final GitHubAction action = decode(readPayload(channel, offsets.get(key)));
+            writtenRevisions.put(key, action.revision());
+            final GitHubAction concurrent = loaded.putIfAbsent(key, action);
+            return concurrent == null ? action : concurrent;
+        } catch (final IOException | RuntimeException exception) {
+            LOG.warn("Failed to read action cache entry [" + key + "]", exception);
+            return null;
+        } finally {
+            unloaded.remove(key);
+        }
+    }
+
+    private void loadAll() {
+        ensureIndexed();
+        for (final String key : unloaded.toArray(String[]::new)) {
+            load(key);
+        }
+    }
+
+    private static byte[] readPayload(final FileChannel channel, final long offset) throws IOException {
+        final ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        readFully(channel, length, offset - Integer.BYTES);
+        final ByteBuffer payload = ByteBuffer.allocate(length.flip().getInt());
+        readFully(channel, payload, offset);
+        return payload.array();
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long offset) throws IOException {
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Action cache entry ends early at [" + position + "]");
+            }
+            position += read;
+        }
+    }
+
+    private static long write(final FileChannel channel, final long offset, final byte[] bytes) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return position;
+    }
+
+    private static byte[] header() {
+        return ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).array();
+    }
+
+    static byte[] encode(final GitHubAction action) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        writeMap(output, action.getMetaData());
+        writeMap(output, action.getInputs());
+        writeMap(output, action.getOutputs());
+        writeMap(output, action.getSecrets());
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    static GitHubAction decode(final byte[] payload) throws IOException {
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+        return new GitHubAction()
+                .setMetaData(readMap(input))
+                .setInputs(readMap(input))
+                .setOutputs(readMap(input))
+                .setSecrets(readMap(input));
+    }
+
+    private static void writeMap(final DataOutputStream output, final Map<String, String> values) throws IOException {
+        final Map<String, String> sorted = new TreeMap<>(values);
+        output.writeInt(sorted.size());
+        for (final Map.Entry<String, String> entry : sorted.entrySet()) {
+            writeString(output, entry.getKey());
+            writeString(output, entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readMap(final DataInputStream input) throws IOException {
+        final int size = input.readInt();
+        final Map<String, String> result = new LinkedHashMap<>();
+        for (int index = 0; index < size; index++) {
+            result.put(readString(input), readString(input));
+        }
+        return result;
+    }
+
+    private static void writeString(final DataOutputStream output, final String value) throws IOException {
+        final byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(final DataInputStream input) throws IOException {
+        final byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -5,6 +5,7 @@ import com.github.yunabraska.githubworkflow.git.RemoteActionProviders;
 import com.github.yunabraska.githubworkflow.i18n.GitHubWorkflowBundle;
 
 import com.github.yunabraska.githubworkflow.syntax.WorkflowYaml;
+import com.github.yunabraska.githubworkflow.syntax.WorkflowModel;
 import com.github.yunabraska.githubworkflow.syntax.WorkflowPsi;
 import com.github.yunabraska.githubworkflow.model.GitHubAction;
 import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
@@ -15,11 +16,14 @@ import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.Presentation;
 import com.intellij.openapi.application.Application;
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
 import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.components.PersistentStateComponent;
 import com.intellij.openapi.components.State;
 import com.intellij.openapi.components.Storage;
 import com.intellij.openapi.Disposable;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.RangeMarker;
 import com.intellij.openapi.fileEditor.FileEditorManager;
 import com.intellij.openapi.fileEditor.FileEditorManagerListener;
 import com.intellij.openapi.progress.ProgressIndicator;
@@ -31,7 +35,15 @@ import com.intellij.openapi.project.ProjectManager;
 import com.intellij.openapi.project.ProjectUtil;
 import com.intellij.openapi.startup.ProjectActivity;
 import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
@@ -39,11 +51,13 @@ import com.intellij.psi.PsiTreeChangeAdapter;
 import com.intellij.psi.PsiTreeChangeEvent;
 import com.intellij.util.concurrency.AppExecutorUtil;
 import com.intellij.util.messages.MessageBusConnection;
-import com.intellij.util.xmlb.XmlSerializerUtil;
+import com.intellij.util.xmlb.annotations.OptionTag;
+import com.intellij.util.xmlb.annotations.Transient;
 import kotlin.Unit;
 import kotlin.coroutines.Continuation;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.yaml.psi.YAMLFile;
 import org.jetbrains.yaml.psi.YAMLKeyValue;
 
 import java.io.BufferedReader;
@@ -57,19 +71,26 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.CACHE_ONE_DAY;
@@ -82,18 +103,41 @@ import static java.util.Optional.ofNullable;
 
 @SuppressWarnings("UnusedReturnValue")
 @State(name = "GitHubActionCache", storages = {@Storage("githubActionCache.xml")})
-public class GitHubActionCache implements PersistentStateComponent<GitHubActionCache.State> {
+public class GitHubActionCache implements PersistentStateComponent<GitHubActionCache.State>, Disposable {
 
     private static final String DEFAULT_REMOTE_REF = "main";
     private static final String EXPORT_HEADER = "github-workflow-cache-v1";
+    private static final int RESOLVER_THREADS = 8;
+    private static final int BATCH_SIZE = 25;
+    private static final ActionResolver DEFAULT_RESOLVER = GitHubAction::resolve;
+    private static final long RESTART_DELAY_MS = 150;
 
+    /**
+     * Cache state. Actions live in a binary {@link ActionCacheStore}; only {@link #legacyActions} is still bound to the
+     * old XML storage so caches written by previous versions are migrated once and then dropped from the XML file.
+     */
     public static class State {
-        public final Map<String, GitHubAction> actions = new ConcurrentHashMap<>();
+        @Transient
+        public final Map<String, GitHubAction> actions;
+        @OptionTag("actions")
+        public Map<String, GitHubAction> legacyActions = new HashMap<>();
+
+        public State() {
+            this(new ActionCacheStore());
+        }
+
+        State(final Map<String, GitHubAction> actions) {
+            this.actions = actions;
+        }
     }
 
-    private final State state = new State();
-    private final java.util.Set<String> inFlightResolutions = ConcurrentHashMap.newKeySet();
-    private final AtomicReference<ActionResolver> actionResolver = new AtomicReference<>(GitHubAction::resolve);
+    private final ActionCacheStore store = new ActionCacheStore();
+    private final State state = new State(store);
+    private final Set<String> inFlightResolutions = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<ActionResolver> actionResolver = new AtomicReference<>(DEFAULT_RESOLVER);
+    private final ExecutorService resolverExecutor = AppExecutorUtil.createBoundedApplicationPoolExecutor("GitHub Workflow Action Resolver", RESOLVER_THREADS);
+    private final Set<String> pendingRestarts = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean restartScheduled = new AtomicBoolean();
 
     /**
      * Strategy used by cache refresh operations to resolve action metadata.
@@ -116,39 +160,52 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
     @Nullable
     @Override
     public State getState() {
+        store.flush();
         return this.state;
     }
 
     @Override
     public void loadState(@NotNull final State state) {
-        XmlSerializerUtil.copyBean(state, this.state);
+        if (state == this.state) {
+            return;
+        }
+        ofNullable(state.legacyActions).ifPresent(this.state.actions::putAll);
+        this.state.actions.putAll(state.actions);
+        this.state.legacyActions = new HashMap<>();
+    }
+
+    @Override
+    public void initializeComponent() {
+        store.open(Path.of(PathManager.getSystemPath(), "github-workflow-plugin", "action-cache.bin"));
+    }
+
+    @Override
+    public void dispose() {
+        store.flush();
     }
 
     public void cleanUp() {
         final long currentTime = System.currentTimeMillis();
-        new HashMap<>(state.actions).forEach((key, action) -> {
-            if (currentTime > action.expiryTime()) {
-                if (action.isSuppressed() || !action.ignoredInputs().isEmpty() || !action.ignoredOutputs().isEmpty()) {
-                    saveNewAction(ProjectManager.getInstance().getDefaultProject(), action);
-                } else {
-                    state.actions.remove(key);
-                }
+        // Reads the record headers only; just the expired entries with suppressions are decoded to be kept.
+        store.keys().forEach(key -> store.info(key).filter(info -> currentTime > info.expiryTime()).ifPresent(info -> {
+            if (info.suppressed()) {
+                ofNullable(state.actions.get(key)).ifPresent(action -> saveNewAction(ProjectManager.getInstance().getDefaultProject(), action));
+            } else {
+                state.actions.remove(key);
             }
-        });
+        }));
     }
 
     public GitHubAction get(final Project project, final String usesValue) {
-        final String usesCleaned = usesValue.replace("IntellijIdeaRulezzz", "");
-        final boolean isLocal = isLocalUses(usesCleaned);
-        final String normalizedUses = normalizeUsesValue(usesCleaned, isLocal);
-        final String path = getAbsolutePath(isLocal, normalizedUses, project);
+        final UsesKey key = UsesKeys.of(project, usesValue);
+        final String path = key.path();
         return ofNullable(path)
                 .map(absolutePath -> ofNullable(state.actions.get(absolutePath))
-                        .or(() -> ofNullable(state.actions.get(normalizedUses)))
-                        .or(() -> ofNullable(state.actions.get(usesCleaned)))
+                        .or(() -> ofNullable(state.actions.get(key.normalized())))
+                        .or(() -> ofNullable(state.actions.get(key.cleaned())))
                         .orElse(null))
-                .map(action -> cachedOrRefresh(normalizedUses, path, isLocal, action))
-                .orElseGet(() -> createdOrQueuedRemote(normalizedUses, path, isLocal, null));
+                .map(action -> cachedOrRefresh(key.normalized(), path, key.local(), action))
+                .orElseGet(() -> createdOrQueuedRemote(key.normalized(), path, key.local(), null));
     }
 
     private GitHubAction cachedOrRefresh(final String usesValue, final String path, final boolean isLocal, final GitHubAction action) {
@@ -166,7 +223,7 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
     }
 
     private GitHubAction queueRefresh(final GitHubAction action) {
-        if (action != null) {
+        if (action != null && RemoteActionProviders.backoff(action.usesValue()).isEmpty()) {
             resolveInBackground(List.of(action));
         }
         return action;
@@ -178,11 +235,14 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
     }
 
     public CacheSummary summary() {
-        final List<GitHubAction> actions = state.actions.values().stream().distinct().toList();
-        final long resolved = actions.stream().filter(GitHubAction::isResolved).count();
-        final long remote = actions.stream().filter(action -> !action.isLocal()).count();
-        final long expired = actions.stream().filter(action -> System.currentTimeMillis() >= action.expiryTime()).count();
-        final long suppressed = actions.stream().filter(GitHubAction::hasSuppressedWarnings).count();
+        // distinct by download url, like GitHubAction.equals, without decoding the entries
+        final Map<String, ActionCacheStore.EntryInfo> actions = new LinkedHashMap<>();
+        store.keys().forEach(key -> store.info(key).ifPresent(info -> actions.putIfAbsent(info.downloadUrl(), info)));
+        final long now = System.currentTimeMillis();
+        final long resolved = actions.values().stream().filter(ActionCacheStore.EntryInfo::resolved).count();
+        final long remote = actions.values().stream().filter(info -> !info.local()).count();
+        final long expired = actions.values().stream().filter(info -> now >= info.expiryTime()).count();
+        final long suppressed = actions.values().stream().filter(ActionCacheStore.EntryInfo::suppressed).count();
         return new CacheSummary(actions.size(), resolved, remote, expired, suppressed);
     }
 
@@ -204,8 +264,9 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
     }
 
     public long estimatedSizeBytes() {
-        return state.actions.entrySet().stream()
-                .mapToLong(entry -> estimate(entry.getKey()) + estimate(entry.getValue()))
+        return store.keys().stream()
+                .mapToLong(key -> estimate(key) + store.peek(key).map(GitHubActionCache::estimate)
+                        .orElseGet(() -> store.info(key).map(ActionCacheStore.EntryInfo::size).orElse(0L)))
                 .sum();
     }
 
@@ -274,13 +335,13 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
     public CacheSummary clear() {
         state.actions.clear();
         inFlightResolutions.clear();
+        RemoteActionProviders.clearFailures();
         triggerSyntaxHighlightingForActiveFiles();
         return summary();
     }
 
     public CacheSummary refreshResolvedRemoteActions() {
-        final List<GitHubAction> actions = state.actions.values().stream()
-                .distinct()
+        final List<GitHubAction> actions = store.actions(info -> info.resolved() && !info.local()).stream()
                 .filter(GitHubAction::isResolved)
                 .filter(action -> !action.isLocal())
                 .peek(action -> action.expiryTime(0))
@@ -290,14 +351,11 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
     }
 
     public long restoreWarnings() {
-        final List<GitHubAction> suppressedActions = state.actions.values().stream()
-                .distinct()
+        final List<GitHubAction> suppressedActions = store.actions(ActionCacheStore.EntryInfo::suppressed).stream()
                 .filter(GitHubAction::hasSuppressedWarnings)
                 .toList();
         suppressedActions.forEach(GitHubAction::restoreWarnings);
-        if (!suppressedActions.isEmpty()) {
-            triggerSyntaxHighlightingForActiveFiles();
-        }
+        triggerSyntaxHighlightingFor(suppressedActions);
         return suppressedActions.size();
     }
 
@@ -320,19 +378,30 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
     }
 
     private List<String> cachedRemoteRefsFor(final String usesBase, final int limit) {
-        return state.actions.values().stream()
-                .distinct()
-                .filter(action -> !action.isLocal())
-                .filter(action -> remoteBase(action.usesValue()).filter(usesBase::equals).isPresent())
+        return remoteActions(usesBase).stream()
                 .flatMap(action -> action.remoteRefs().stream())
                 .distinct()
                 .limit(limit)
                 .toList();
     }
 
-    private static Optional<String> remoteBase(final String usesValue) {
-        final int refSeparator = ofNullable(usesValue).orElse("").lastIndexOf('@');
-        return refSeparator > 0 ? Optional.of(usesValue.substring(0, refSeparator)) : Optional.empty();
+    /**
+     * Returns cached remote actions from the store's kind index, without decoding local entries.
+     *
+     * @return distinct remote actions
+     */
+    public List<GitHubAction> remoteActions() {
+        return store.remoteActions();
+    }
+
+    /**
+     * Returns cached remote actions of one repository, e.g. every known version of {@code actions/checkout}.
+     *
+     * @param usesBase uses value without its {@code @ref}
+     * @return distinct remote actions of that base
+     */
+    public List<GitHubAction> remoteActions(final String usesBase) {
+        return store.remoteActions(usesBase);
     }
 
     public GitHubAction reloadAsync(final Project project, final String usesValue) {
@@ -340,9 +409,10 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
                 .map(state.actions::get)
                 .map(oldAction -> saveNewAction(project, oldAction))
                 .map(action -> {
+                    RemoteActionProviders.forgetFailure(action.usesValue());
                     smartExecute(project, () -> {
                         actionResolver.get().resolve(action);
-                        triggerSyntaxHighlightingForActiveFiles();
+                        triggerSyntaxHighlightingFor(List.of(action));
                     });
                     return action;
                 })
@@ -358,31 +428,21 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
         new Task.Backgroundable(null, GitHubWorkflowBundle.message("workflow.cache.progress.title"), false) {
             @Override
             public void run(@NotNull final ProgressIndicator indicator) {
+                final AtomicInteger index = new AtomicInteger(0);
+                final double totalActions = queuedActions.size();
+                indicator.setIndeterminate(false);
                 try {
-                    final AtomicInteger index = new AtomicInteger(0);
-                    final double totalActions = queuedActions.size();
-                    indicator.setIndeterminate(false);
-                    queuedActions.forEach(action -> {
-                        final int i = index.incrementAndGet();
-                        try {
-                            indicator.setText(GitHubWorkflowBundle.message(
+                    resolveConcurrently(
+                            queuedActions,
+                            action -> indicator.setText(GitHubWorkflowBundle.message(
                                     "workflow.cache.progress.text",
                                     GitHubWorkflowBundle.message(action.isAction() ? "workflow.cache.kind.action" : "workflow.cache.kind.workflow"),
                                     action.name()
-                            ));
-                            resolveQueuedAction(action);
-                        } catch (final Exception ignored) {
-                            // Keep the cache stable when a remote action fails to answer.
-                        } finally {
-                            inFlightResolutions.remove(action.usesValue());
-                            indicator.setFraction(i / totalActions);
-                        }
-                    });
-                    triggerSyntaxHighlightingForActiveFiles();
-                } catch (final Exception e) {
-                    queuedActions.forEach(action -> inFlightResolutions.remove(action.usesValue()));
-                    triggerSyntaxHighlightingForActiveFiles();
-                    throw e;
+                            )),
+                            action -> indicator.setFraction(index.incrementAndGet() / totalActions)
+                    ).join();
+                } finally {
+                    triggerSyntaxHighlightingFor(queuedActions);
                 }
             }
         }.queue();
@@ -393,18 +453,57 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
         if (queuedActions.isEmpty()) {
             return;
         }
-        ApplicationManager.getApplication().executeOnPooledThread(() -> {
-            queuedActions.forEach(action -> {
-                try {
-                    resolveQueuedAction(action);
-                } catch (final Exception ignored) {
-                    // Automatic refresh must never block editing because a network target misbehaved.
-                } finally {
-                    inFlightResolutions.remove(action.usesValue());
-                }
-            });
-            triggerSyntaxHighlightingForActiveFiles();
-        });
+        resolveConcurrently(queuedActions, action -> {
+        }, action -> {
+        }).whenComplete((ignored, error) -> triggerSyntaxHighlightingFor(queuedActions));
+    }
+
+    /**
+     * Resolves queued actions on the bounded resolver pool. Remote servers are protected by the per-host limits in
+     * {@link RemoteActionProviders}, so the pool only caps how many threads the cache may occupy. Unresolved remote
+     * actions are first fetched in GraphQL batches; whatever a batch cannot answer falls back to one lookup per action.
+     */
+    private CompletableFuture<Void> resolveConcurrently(
+            final List<GitHubAction> queuedActions,
+            final Consumer<GitHubAction> onStart,
+            final Consumer<GitHubAction> onDone
+    ) {
+        final Map<GitHubAction, CompletableFuture<Map<String, RemoteActionProviders.Resolution>>> batches = prefetchBatches(queuedActions);
+        return CompletableFuture.allOf(queuedActions.stream()
+                .map(action -> batches.getOrDefault(action, CompletableFuture.completedFuture(Map.of()))
+                        .exceptionally(error -> Map.of())
+                        .thenAcceptAsync(prefetched -> {
+                            try {
+                                onStart.accept(action);
+                                resolveQueuedAction(action, prefetched.get(action.usesValue()));
+                            } catch (final Exception ignored) {
+                                // Automatic refresh must never block editing because a network target misbehaved.
+                            } finally {
+                                inFlightResolutions.remove(action.usesValue());
+                                onDone.accept(action);
+                            }
+                        }, resolverExecutor))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    private Map<GitHubAction, CompletableFuture<Map<String, RemoteActionProviders.Resolution>>> prefetchBatches(final List<GitHubAction> queuedActions) {
+        if (actionResolver.get() != DEFAULT_RESOLVER) {
+            return Map.of();
+        }
+        final List<GitHubAction> batchable = queuedActions.stream()
+                .filter(action -> !action.isLocal())
+                .filter(action -> !action.isResolved())
+                .filter(action -> !action.isSuppressed())
+                .toList();
+        final Map<GitHubAction, CompletableFuture<Map<String, RemoteActionProviders.Resolution>>> result = new HashMap<>();
+        for (int start = 0; start < batchable.size(); start += BATCH_SIZE) {
+            final List<GitHubAction> batch = batchable.subList(start, Math.min(batchable.size(), start + BATCH_SIZE));
+            final List<String> usesValues = batch.stream().map(GitHubAction::usesValue).toList();
+            final CompletableFuture<Map<String, RemoteActionProviders.Resolution>> future = CompletableFuture.supplyAsync(
+                    () -> RemoteActionProviders.resolveBatch(usesValues), resolverExecutor);
+            batch.forEach(action -> result.put(action, future));
+        }
+        return result;
     }
 
     private List<GitHubAction> queuedActions(final Collection<GitHubAction> actions) {
@@ -415,51 +514,94 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
                 .toList();
     }
 
-    private void resolveQueuedAction(final GitHubAction action) {
-        jitterBeforeRemoteRequest(action);
-        actionResolver.get().resolve(action);
+    private void resolveQueuedAction(final GitHubAction action, final RemoteActionProviders.Resolution prefetched) {
+        if (prefetched != null) {
+            action.resolve(prefetched);
+        } else {
+            actionResolver.get().resolve(action);
+        }
         if (action.isResolved()) {
             action.expiryTime(System.currentTimeMillis() + (CACHE_ONE_DAY * 14));
         }
     }
 
     public ActionResolver useActionResolverForTests(final ActionResolver resolver) {
-        return actionResolver.getAndSet(ofNullable(resolver).orElse(GitHubAction::resolve));
+        return actionResolver.getAndSet(ofNullable(resolver).orElse(DEFAULT_RESOLVER));
     }
 
-    private static void jitterBeforeRemoteRequest(final GitHubAction action) {
-        if (action == null || action.isLocal()) {
+    /**
+     * Restarts highlighting of every open workflow file, e.g. after the cache was cleared or the settings changed.
+     */
+    public static void triggerSyntaxHighlightingForActiveFiles() {
+        final Application application = ApplicationManager.getApplication();
+        if (application.isUnitTestMode()) {
             return;
         }
-        try {
-            Thread.sleep(ThreadLocalRandom.current().nextLong(75, 251));
-        } catch (final InterruptedException interrupted) {
-            Thread.currentThread().interrupt();
-        }
+        application.invokeLater(() -> Stream.of(ProjectManager.getInstance().getOpenProjects())
+                .forEach(project -> restartHighlighting(project, file -> true))
+        );
     }
 
-    public static void triggerSyntaxHighlightingForActiveFiles() {
+    /**
+     * Restarts highlighting of the open workflow files that use one of the given actions. Requests arriving within
+     * {@link #RESTART_DELAY_MS} are merged, so a resolved batch restarts each file once.
+     *
+     * @param actions actions whose metadata changed
+     */
+    public static void triggerSyntaxHighlightingFor(final Collection<GitHubAction> actions) {
+        getActionCache().scheduleRestart(ofNullable(actions).stream()
+                .flatMap(Collection::stream)
+                .filter(Objects::nonNull)
+                .map(GitHubAction::usesValue)
+                .filter(WorkflowPsi::hasText)
+                .toList());
+    }
+
+    /**
+     * Checks the file's current {@code uses:} values, read from its cached {@link WorkflowModel}, so a file that no
+     * longer uses an action is not restarted for it.
+     */
+    static boolean usesAnyOf(final PsiFile file, final Collection<String> usesValues) {
+        return WorkflowModel.of(file).usesValues().stream()
+                .map(usesValue -> UsesKeys.of(file.getProject(), usesValue))
+                .anyMatch(key -> usesValues.contains(key.normalized()) || usesValues.contains(key.cleaned()));
+    }
+
+    private void scheduleRestart(final Collection<String> usesValues) {
         final Application application = ApplicationManager.getApplication();
-        if (application.isUnitTestMode()) {
+        if (application.isUnitTestMode() || usesValues.isEmpty()) {
             return;
         }
-        application.invokeLater(() ->
-                Stream.of(ProjectManager.getInstance().getOpenProjects()).forEach(GitHubActionCache::triggerSyntaxHighlightingForActiveFiles)
-        );
+        pendingRestarts.addAll(usesValues);
+        if (restartScheduled.compareAndSet(false, true)) {
+            AppExecutorUtil.getAppScheduledExecutorService().schedule(
+                    () -> application.invokeLater(this::restartPending), RESTART_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void restartPending() {
+        restartScheduled.set(false);
+        final Set<String> usesValues = new HashSet<>(pendingRestarts);
+        pendingRestarts.removeAll(usesValues);
+        if (!usesValues.isEmpty()) {
+            Stream.of(ProjectManager.getInstance().getOpenProjects()).forEach(project -> restartHighlighting(project, file -> usesAnyOf(file, usesValues)));
+        }
     }
 
-    private static void triggerSyntaxHighlightingForActiveFiles(final Project project) {
+    private static void restartHighlighting(final Project project, final Predicate<PsiFile> filter) {
+        if (project.isDisposed()) {
+            return;
+        }
         final DaemonCodeAnalyzer daemonCodeAnalyzer = DaemonCodeAnalyzer.getInstance(project);
-        final boolean hasActiveWorkflowFile = Stream.of(FileEditorManager.getInstance(project).getSelectedFiles())
+        final PsiManager psiManager = PsiManager.getInstance(project);
+        Stream.of(FileEditorManager.getInstance(project).getOpenFiles())
                 .filter(VirtualFile::isValid)
                 .filter(virtualFile -> toPath(virtualFile).map(WorkflowYaml::isWorkflowPath).orElse(false))
-                .map(virtualFile -> PsiManager.getInstance(project).findFile(virtualFile))
+                .map(psiManager::findFile)
                 .filter(Objects::nonNull)
-                .filter(PsiFile::isValid)
-                .anyMatch(daemonCodeAnalyzer::isHighlightingAvailable);
-        if (hasActiveWorkflowFile) {
-            daemonCodeAnalyzer.settingsChanged();
-        }
+                .filter(filter)
+                .filter(daemonCodeAnalyzer::isHighlightingAvailable)
+                .forEach(daemonCodeAnalyzer::restart);
     }
 
     public static void resolveActionsAsync(final Collection<GitHubAction> actions) {
@@ -471,7 +613,9 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
     }
 
     public static GitHubAction getAction(final PsiElement psiElement) {
-        return getUsesString(psiElement).map(usesValue -> getActionCache().get(getProject(psiElement), usesValue)).orElse(null);
+        return getUsesString(psiElement)
+                .map(usesValue -> getActionCache().get(getProject(psiElement), usesValue))
+                .orElse(null);
     }
 
     @SuppressWarnings("unused")
@@ -535,7 +679,7 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
         }).orElse(null);
     }
 
-    private String getAbsolutePath(final boolean isLocal, final String subPath, final Project project) {
+    private static String getAbsolutePath(final boolean isLocal, final String subPath, final Project project) {
         return !isLocal ? subPath : ofNullable(project)
                 .map(ProjectUtil::guessProjectDir)
                 .map(projectDir -> findActionYaml(subPath, projectDir))
@@ -616,7 +760,7 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
             final Disposable listenerDisposable = Disposer.newDisposable();
             Disposer.register(project, listenerDisposable);
 
-            PsiManager.getInstance(project).addPsiTreeChangeListener(new ActionMetadataChangeListener(), listenerDisposable);
+            PsiManager.getInstance(project).addPsiTreeChangeListener(new ActionMetadataChangeListener(project, listenerDisposable), listenerDisposable);
 
             final FileEditorManager fileEditorManager = FileEditorManager.getInstance(project);
             for (final VirtualFile openedFile : fileEditorManager.getOpenFiles()) {
@@ -638,30 +782,92 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
         }
     }
 
+    /**
+     * Collects the changed ranges of YAML files while typing and, once edits pause for {@link #DEBOUNCE_MS}, resolves
+     * the unresolved remote {@code uses} inside those ranges from a non-blocking read action. The PSI events themselves
+     * only record ranges, since they arrive inside the write action; range markers keep them in step with later edits.
+     */
     private static class ActionMetadataChangeListener extends PsiTreeChangeAdapter {
+
+        private static final long DEBOUNCE_MS = 500;
+
+        private final Project project;
+        private final Disposable disposable;
+        private final Map<VirtualFile, RangeMarker> changedRanges = new ConcurrentHashMap<>();
+        private final AtomicReference<ScheduledFuture<?>> scheduled = new AtomicReference<>();
+
+        private ActionMetadataChangeListener(final Project project, final Disposable disposable) {
+            this.project = project;
+            this.disposable = disposable;
+            Disposer.register(disposable, () -> {
+                ofNullable(scheduled.getAndSet(null)).ifPresent(future -> future.cancel(false));
+                changedRanges.keySet().forEach(file -> ofNullable(changedRanges.remove(file)).ifPresent(RangeMarker::dispose));
+            });
+        }
+
+        @Override
+        public void childAdded(@NotNull final PsiTreeChangeEvent event) {
+            changed(event.getFile(), event.getChild());
+        }
+
         @Override
         public void childReplaced(@NotNull final PsiTreeChangeEvent event) {
-            ofNullable(event.getNewChild())
-                    .filter(psiElement -> WorkflowYaml.getWorkflowFile(psiElement).isPresent())
-                    .flatMap(psiElement -> WorkflowPsi.getParent(psiElement, FIELD_USES))
-                    .map(GitHubActionCache::getAction)
-                    .filter(action -> !action.isResolved())
-                    .map(List::of)
-                    .ifPresent(GitHubActionCache::resolveActionsAsync);
+            changed(event.getFile(), event.getNewChild());
         }
 
         @Override
         public void childrenChanged(@NotNull final PsiTreeChangeEvent event) {
-            ofNullable(event.getParent())
-                    .filter(psiElement -> WorkflowYaml.getWorkflowFile(psiElement).isPresent())
-                    .map(psiElement -> WorkflowPsi.getAllElements(psiElement, FIELD_USES))
-                    .map(usesList -> usesList.stream()
-                            .map(GitHubActionCache::getAction)
-                            .filter(Objects::nonNull)
+            changed(event.getFile(), event.getParent());
+        }
+
+        private void changed(final PsiFile psiFile, final PsiElement element) {
+            if (!(psiFile instanceof YAMLFile) || element == null) {
+                return;
+            }
+            final VirtualFile virtualFile = psiFile.getOriginalFile().getVirtualFile();
+            final Document document = PsiDocumentManager.getInstance(project).getDocument(psiFile);
+            if (virtualFile == null || document == null) {
+                return;
+            }
+            final TextRange range = element.getTextRange().intersection(new TextRange(0, document.getTextLength()));
+            if (range == null) {
+                return;
+            }
+            changedRanges.compute(virtualFile, (file, previous) -> {
+                final TextRange union = previous != null && previous.isValid() ? range.union(previous.getTextRange()) : range;
+                ofNullable(previous).ifPresent(RangeMarker::dispose);
+                final RangeMarker marker = document.createRangeMarker(union);
+                marker.setGreedyToLeft(true);
+                marker.setGreedyToRight(true);
+                return marker;
+            });
+            final ScheduledFuture<?> next = AppExecutorUtil.getAppScheduledExecutorService().schedule(this::flush, DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+            ofNullable(scheduled.getAndSet(next)).ifPresent(previous -> previous.cancel(false));
+        }
+
+        private void flush() {
+            final Map<VirtualFile, RangeMarker> markers = new HashMap<>();
+            changedRanges.keySet().forEach(file -> ofNullable(changedRanges.remove(file)).ifPresent(marker -> markers.put(file, marker)));
+            if (markers.isEmpty()) {
+                return;
+            }
+            if (project.isDisposed()) {
+                markers.values().forEach(RangeMarker::dispose);
+                return;
+            }
+            ReadAction.nonBlocking(() -> markers.entrySet().stream()
+                            .filter(entry -> entry.getKey().isValid() && entry.getValue().isValid())
+                            .filter(entry -> toPath(entry.getKey()).map(WorkflowYaml::isWorkflowPath).orElse(false))
+                            .flatMap(entry -> unresolvedActions(project, entry.getKey(), entry.getValue().getTextRange()).stream())
                             .filter(action -> !action.isLocal())
-                            .filter(action -> !action.isResolved())
+                            .distinct()
                             .toList())
-                    .ifPresent(GitHubActionCache::resolveActionsAsync);
+                    .withDocumentsCommitted(project)
+                    .inSmartMode(project)
+                    .expireWith(disposable)
+                    .submit(AppExecutorUtil.getAppExecutorService())
+                    .onProcessed(ignored -> markers.values().forEach(RangeMarker::dispose))
+                    .onSuccess(GitHubActionCache::resolveActionsAsync);
         }
     }
 
@@ -669,7 +875,7 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
         final Runnable task = () -> {
             if (virtualFile != null && virtualFile.isValid()
                     && toPath(virtualFile).map(WorkflowYaml::isWorkflowPath).orElse(false)) {
-                ReadAction.nonBlocking(() -> unresolvedActions(project, virtualFile))
+                ReadAction.nonBlocking(() -> unresolvedActions(project, virtualFile, null))
                         .inSmartMode(project)
                         .submit(AppExecutorUtil.getAppExecutorService())
                         .onSuccess(GitHubActionCache::resolveActionsAsync);
@@ -678,12 +884,13 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
         smartExecute(project, task);
     }
 
-    private static List<GitHubAction> unresolvedActions(final Project project, final VirtualFile virtualFile) {
+    static List<GitHubAction> unresolvedActions(final Project project, final VirtualFile virtualFile, final TextRange range) {
         final List<GitHubAction> actions = new ArrayList<>();
         Optional.of(PsiManager.getInstance(project))
                 .map(psiManager -> psiManager.findFile(virtualFile))
                 .map(psiFile -> WorkflowPsi.getAllElements(psiFile, FIELD_USES))
                 .ifPresent(usesList -> usesList.stream()
+                        .filter(uses -> range == null || range.intersects(uses.getTextRange()))
                         .map(GitHubActionCache::getAction)
                         .filter(Objects::nonNull)
                         .filter(action -> !action.isSuppressed())
@@ -692,6 +899,96 @@ public class GitHubActionCache implements PersistentStateComponent<GitHubActionC
         return actions;
     }
 
+    /**
+     * Canonical form of a raw {@code uses} value.
+     *
+     * @param cleaned    raw value without the completion dummy identifier
+     * @param normalized value with the default ref appended to remote actions
+     * @param path       cache key: the resolved {@code action.yml} path for local actions, otherwise {@code normalized}
+     * @param candidate  absolute, system independent path a local action is looked up at; {@code null} for remote actions
+     */
+    private record UsesKey(String cleaned, String normalized, boolean local, String path, String candidate) {
+
+        private boolean affectedBy(final String eventPath) {
+            return local && (candidate == null || related(candidate, eventPath) || related(FileUtil.toSystemIndependentName(path), eventPath));
+        }
+
+        private static boolean related(final String keyPath, final String eventPath) {
+            return FileUtil.isAncestor(keyPath, eventPath, false) || FileUtil.isAncestor(eventPath, keyPath, false);
+        }
+    }
+
+    /**
+     * Bounded LRU memo from raw {@code uses} value and project to its {@link UsesKey}, so repeated lookups skip the
+     * normalization and the {@code action.yml} search. A local key is dropped when the VFS reports a file being
+     * created, deleted, moved, or renamed at, above, or below the path it resolves to, since that can change which
+     * {@code action.yml} the local path resolves to.
+     */
+    public static final class UsesKeys implements BulkFileListener {
+
+        private static final int MAX_KEYS = 4096;
+        private static final Map<List<String>, UsesKey> KEYS = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<List<String>, UsesKey> eldest) {
+                return size() > MAX_KEYS;
+            }
+        });
+
+        @Override
+        public void after(@NotNull final List<? extends VFileEvent> events) {
+            final List<String> paths = events.stream()
+                    .filter(event -> !(event instanceof VFileContentChangeEvent))
+                    .flatMap(UsesKeys::paths)
+                    .toList();
+            if (!paths.isEmpty()) {
+                synchronized (KEYS) {
+                    KEYS.values().removeIf(key -> paths.stream().anyMatch(key::affectedBy));
+                }
+            }
+        }
+
+        public static void clear() {
+            KEYS.clear();
+        }
+
+        private static Stream<String> paths(final VFileEvent event) {
+            if (event instanceof final VFileMoveEvent move) {
+                return Stream.of(move.getOldPath(), move.getNewPath());
+            }
+            if (event instanceof final VFilePropertyChangeEvent property && property.isRename()) {
+                return Stream.of(property.getOldPath(), property.getNewPath());
+            }
+            return Stream.of(event.getPath());
+        }
+
+        private static UsesKey of(final Project project, final String usesValue) {
+            final List<String> memoKey = List.of(project == null ? "" : project.getLocationHash(), usesValue);
+            final UsesKey existing = KEYS.get(memoKey);
+            if (existing != null) {
+                return existing;
+            }
+            final String usesCleaned = usesValue.replace("IntellijIdeaRulezzz", "");
+            final boolean isLocal = isLocalUses(usesCleaned);
+            final String normalizedUses = normalizeUsesValue(usesCleaned, isLocal);
+            final UsesKey created = new UsesKey(
+                    usesCleaned,
+                    normalizedUses,
+                    isLocal,
+                    getAbsolutePath(isLocal, normalizedUses, project),
+                    isLocal ? candidatePath(normalizedUses, project) : null
+            );
+            KEYS.put(memoKey, created);
+            return created;
+        }
+
+        private static String candidatePath(final String subPath, final Project project) {
+            return ofNullable(project)
+                    .map(ProjectUtil::guessProjectDir)
+                    .map(projectDir -> FileUtil.toCanonicalPath(projectDir.getPath() + "/" + subPath.replace('\\', '/')))
+                    .orElse(null);
+        }
+    }
+
     public record CacheSummary(long total, long resolved, long remote, long expired, long suppressed) {
     }
 
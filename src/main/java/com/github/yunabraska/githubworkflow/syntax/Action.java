@@ -53,7 +53,7 @@ import static com.github.yunabraska.githubworkflow.model.NodeIcon.RELOAD;
 import static com.github.yunabraska.githubworkflow.model.NodeIcon.SUPPRESS_ON;
 import static com.github.yunabraska.githubworkflow.model.NodeIcon.SUPPRESS_OFF;
 import static com.github.yunabraska.githubworkflow.model.SimpleElement.completionItemsOf;
-import static com.github.yunabraska.githubworkflow.state.GitHubActionCache.triggerSyntaxHighlightingForActiveFiles;
+import static com.github.yunabraska.githubworkflow.state.GitHubActionCache.triggerSyntaxHighlightingFor;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowReferences.ACTION_KEY;
 import static java.util.Optional.ofNullable;
 
@@ -217,7 +217,7 @@ public class Action {
                 suppressed ? ProblemHighlightType.WEAK_WARNING : ProblemHighlightType.INFORMATION,
                 f -> {
                     action.isSuppressed(!suppressed);
-                    triggerSyntaxHighlightingForActiveFiles();
+                    triggerSyntaxHighlightingFor(List.of(action));
                 }
         );
     }
@@ -232,7 +232,7 @@ public class Action {
                 suppressed ? ProblemHighlightType.WEAK_WARNING : ProblemHighlightType.INFORMATION,
                 f -> {
                     action.suppressInput(id, !suppressed);
-                    triggerSyntaxHighlightingForActiveFiles();
+                    triggerSyntaxHighlightingFor(List.of(action));
                 }
         );
     }
@@ -248,7 +248,7 @@ public class Action {
                 suppressed ? ProblemHighlightType.WEAK_WARNING : ProblemHighlightType.INFORMATION,
                 f -> {
                     action.suppressOutput(id, !suppressed);
-                    triggerSyntaxHighlightingForActiveFiles();
+                    triggerSyntaxHighlightingFor(List.of(action));
                 }
         );
     }
@@ -16,11 +16,9 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_ENVS;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_RUN;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.defaultEnvs;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowAnnotations.ifEnoughItems;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowAnnotations.isDefinedItem0;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getAllElements;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getChild;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getParentJob;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getParentStep;
@@ -61,11 +59,12 @@ public class Envs {
 
     private static void addRunEnvs(final PsiElement psiElement, final List<SimpleElement> result) {
         final TextRange currentRange = psiElement.getTextRange();
+        final WorkflowModel model = WorkflowModel.of(psiElement);
         result.addAll(completionItemsOf(
-                getAllElements(psiElement.getContainingFile(), FIELD_RUN).stream()
+                model.runs().stream()
                         // only FIELD_RUN from previous FIELD_STEP
                         .filter(keyValue -> getParentStep(keyValue).map(PsiElement::getTextRange).map(TextRange::getStartOffset).orElse(currentRange.getEndOffset()) < currentRange.getStartOffset())
-                        .map(WorkflowPsi::parseEnvVariables)
+                        .map(model::runEnvs)
                         .flatMap(Collection::stream)
                         .collect(Collectors.toMap(SimpleElement::key, SimpleElement::textNoQuotes, (existing, replacement) -> existing))
                 , ICON_TEXT_VARIABLE
@@ -81,10 +81,7 @@ public class JobContext {
 
     public static List<String> listServiceIds(final PsiElement psiElement) {
         return getParentJob(psiElement)
-                .flatMap(job -> getChild(job, FIELD_SERVICES))
-                .map(services -> com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getChildren(services).stream()
-                        .map(YAMLKeyValue::getKeyText)
-                        .toList())
+                .map(job -> WorkflowModel.of(job).serviceIds(job))
                 .orElseGet(List::of);
     }
 
@@ -14,7 +14,6 @@ import java.util.Objects;
 import java.util.stream.Stream;
 
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_ID;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_JOBS;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_ON;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_OUTPUTS;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_RESULT;
@@ -23,9 +22,7 @@ import static com.github.yunabraska.githubworkflow.syntax.WorkflowAnnotations.if
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowAnnotations.isDefinedItem0;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowAnnotations.isField2Valid;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowAnnotations.isValidItem3;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getAllElements;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getChild;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getChildren;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getParent;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getText;
 import static com.github.yunabraska.githubworkflow.syntax.Action.listActionsOutputs;
@@ -67,7 +64,7 @@ public class Jobs {
     }
 
     public static List<YAMLKeyValue> listAllJobs(final PsiElement psiElement) {
-        return ofNullable(psiElement).map(element -> getAllElements(element.getContainingFile(), FIELD_JOBS).stream().flatMap(jobs -> getChildren(jobs, YAMLKeyValue.class).stream()).toList()).orElseGet(Collections::emptyList);
+        return WorkflowModel.of(psiElement).jobs();
     }
 
     public static List<SimpleElement> listJobOutputs(final YAMLKeyValue job) {
@@ -0,0 +1,347 @@
+package com.github.yunabraska.githubworkflow.syntax;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Step outputs and environment variables a {@code run:} script writes through {@code $GITHUB_OUTPUT} and
+ * {@code $GITHUB_ENV} (or the Gitea variants). One sweep over the script lines recognizes
+ * <ul>
+ *     <li>{@code echo "name=value" >> "$GITHUB_OUTPUT"} and {@code ... | tee -a $GITHUB_OUTPUT},</li>
+ *     <li>{@code name<<EOF} heredoc declarations,</li>
+ *     <li>{@code echo "name=value"} lines inside a <code>{ ... } &gt;&gt; "$GITHUB_OUTPUT"</code> group,</li>
+ * </ul>
+ * and the result is cached on the scanned element until its file changes.
+ */
+public final class RunScriptWrites {
+
+    public enum Kind {
+        OUTPUT("_OUTPUT"),
+        ENV("_ENV");
+
+        private final String suffix;
+
+        Kind(final String suffix) {
+            this.suffix = suffix;
+        }
+
+        private boolean writtenBy(final String text, final int from, final int to) {
+            return contains(text, from, to, "GITHUB" + suffix) || contains(text, from, to, "GITEA" + suffix);
+        }
+    }
+
+    /**
+     * One write with the offsets of its script line.
+     *
+     * @param lineLocal {@code true} when the line alone names the target file, so the write can point at that line
+     */
+    public record Write(Kind kind, String name, String value, int lineStart, int lineEnd, boolean lineLocal) {
+    }
+
+    private static final RunScriptWrites EMPTY = new RunScriptWrites(List.of());
+    private static final String MULTILINE_VALUE = "<multiline>";
+
+    private final List<Write> writes;
+
+    private RunScriptWrites(final List<Write> writes) {
+        this.writes = writes;
+    }
+
+    /**
+     * Returns the writes of the script held by {@code element}, scanning its text at most once per file modification.
+     *
+     * @param element {@code run:} key-value, scalar, or text leaf
+     * @return cached writes, empty for invalid elements
+     */
+    public static RunScriptWrites of(final PsiElement element) {
+        if (element == null || !element.isValid()) {
+            return EMPTY;
+        }
+        return CachedValuesManager.getCachedValue(element, () -> CachedValueProvider.Result.create(scan(element.getText()), element));
+    }
+
+    /**
+     * Returns the writes of one kind, direct {@code >>} writes first, then {@code tee}, group, and heredoc writes, each in
+     * script order.
+     */
+    public List<Write> writes(final Kind kind) {
+        return writes.stream().filter(write -> write.kind() == kind).toList();
+    }
+
+    static RunScriptWrites scan(final String text) {
+        final boolean outputs = Kind.OUTPUT.writtenBy(text, 0, text.length());
+        final boolean envs = Kind.ENV.writtenBy(text, 0, text.length());
+        if (!outputs && !envs) {
+            return EMPTY;
+        }
+        final List<Write> assignments = new ArrayList<>();
+        final List<Write> tees = new ArrayList<>();
+        final List<Write> groups = new ArrayList<>();
+        final List<Write> heredocs = new ArrayList<>();
+        int groupBody = -1;
+        int lineStart = 0;
+        while (lineStart <= text.length()) {
+            final int newline = text.indexOf('\n', lineStart);
+            final int lineEnd = newline < 0 ? text.length() : newline;
+            if (outputs) {
+                scanAssignments(text, lineStart, lineEnd, Kind.OUTPUT, false, assignments);
+                scanAssignments(text, lineStart, lineEnd, Kind.OUTPUT, true, tees);
+            }
+            if (envs) {
+                scanAssignments(text, lineStart, lineEnd, Kind.ENV, false, assignments);
+            }
+            scanHeredocs(text, lineStart, lineEnd, outputs, envs, heredocs);
+            if (outputs && groupBody < 0 && newline >= 0 && isGroupStart(text, lineStart, lineEnd)) {
+                groupBody = newline + 1;
+            } else if (outputs && groupBody >= 0 && isGroupEnd(text, lineStart, lineEnd)) {
+                scanGroup(text, groupBody, lineStart, groups);
+                groupBody = -1;
+            }
+            if (newline < 0) {
+                break;
+            }
+            lineStart = newline + 1;
+        }
+        // direct writes win over tee, group, and heredoc writes of the same name
+        final List<Write> result = new ArrayList<>(assignments);
+        result.addAll(tees);
+        result.addAll(groups);
+        result.addAll(heredocs);
+        return result.isEmpty() ? EMPTY : new RunScriptWrites(List.copyOf(result));
+    }
+
+    /**
+     * Finds {@code "name=value" >> $TARGET} writes, or {@code "name=value" | tee ... $TARGET} writes when {@code tee}.
+     */
+    private static void scanAssignments(final String text, final int from, final int to, final Kind kind, final boolean tee, final List<Write> result) {
+        int quote = from;
+        while (quote < to) {
+            final int nameEnd = isQuote(text.charAt(quote)) ? nameEnd(text, quote + 1, to) : -1;
+            if (nameEnd < 0 || nameEnd >= to || text.charAt(nameEnd) != '=') {
+                quote++;
+                continue;
+            }
+            int matchEnd = -1;
+            int valueEnd = nameEnd + 1;
+            while (valueEnd < to && matchEnd < 0) {
+                if (isQuote(text.charAt(valueEnd))) {
+                    matchEnd = tee ? teeEnd(text, valueEnd + 1, to, kind) : redirectEnd(text, valueEnd + 1, to, kind, '>');
+                }
+                valueEnd++;
+            }
+            if (matchEnd < 0) {
+                quote++;
+                continue;
+            }
+            result.add(new Write(kind, text.substring(quote + 1, nameEnd), text.substring(nameEnd + 1, valueEnd - 1), from, to, true));
+            quote = matchEnd;
+        }
+    }
+
+    /**
+     * Finds {@code name<<DELIMITER} heredoc declarations, which count for every target the script writes to.
+     */
+    private static void scanHeredocs(final String text, final int from, final int to, final boolean outputs, final boolean envs, final List<Write> result) {
+        int matchEnd = from;
+        int marker = indexOf(text, "<<", from, to);
+        while (marker >= 0) {
+            int nameStart = marker;
+            while (nameStart > matchEnd && isNameChar(text.charAt(nameStart - 1))) {
+                nameStart--;
+            }
+            while (nameStart < marker && !isNameStart(text.charAt(nameStart))) {
+                nameStart++;
+            }
+            int delimiterEnd = marker + 2;
+            while (delimiterEnd < to && !isQuote(text.charAt(delimiterEnd)) && text.charAt(delimiterEnd) != '\r') {
+                delimiterEnd++;
+            }
+            if (nameStart == marker || delimiterEnd == marker + 2) {
+                marker = indexOf(text, "<<", marker + 1, to);
+                continue;
+            }
+            final String name = text.substring(nameStart, marker);
+            if (outputs) {
+                result.add(new Write(Kind.OUTPUT, name, MULTILINE_VALUE, from, to, Kind.OUTPUT.writtenBy(text, from, to)));
+            }
+            if (envs) {
+                result.add(new Write(Kind.ENV, name, MULTILINE_VALUE, from, to, Kind.ENV.writtenBy(text, from, to)));
+            }
+            matchEnd = delimiterEnd < to && isQuote(text.charAt(delimiterEnd)) ? delimiterEnd + 1 : delimiterEnd;
+            marker = indexOf(text, "<<", matchEnd, to);
+        }
+    }
+
+    /**
+     * Records {@code echo "name=value"} lines between a <code>{</code> line and its <code>} &gt;&gt; $GITHUB_OUTPUT</code> line.
+     */
+    private static void scanGroup(final String text, final int from, final int to, final List<Write> result) {
+        int lineStart = from;
+        while (lineStart < to) {
+            final int newline = text.indexOf('\n', lineStart);
+            final int lineEnd = newline < 0 || newline > to ? to : newline;
+            int quote = skipWhitespace(text, lineStart, lineEnd);
+            if (text.startsWith("echo", quote) && quote + 4 < lineEnd && isWhitespace(text.charAt(quote + 4))) {
+                quote = skipWhitespace(text, quote + 4, lineEnd);
+            }
+            final int nameEnd = quote < lineEnd && isQuote(text.charAt(quote)) ? nameEnd(text, quote + 1, lineEnd) : -1;
+            if (nameEnd >= 0 && nameEnd < lineEnd && text.charAt(nameEnd) == '=') {
+                for (int valueEnd = nameEnd + 1; valueEnd < lineEnd; valueEnd++) {
+                    if (isQuote(text.charAt(valueEnd)) && isStatementEnd(text, valueEnd + 1, lineEnd)) {
+                        result.add(new Write(Kind.OUTPUT, text.substring(quote + 1, nameEnd), text.substring(nameEnd + 1, valueEnd), lineStart, lineEnd, false));
+                        break;
+                    }
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    private static boolean isGroupStart(final String text, final int from, final int to) {
+        final int brace = skipWhitespace(text, from, to);
+        return brace < to && text.charAt(brace) == '{' && skipWhitespace(text, brace + 1, to) == to;
+    }
+
+    private static boolean isGroupEnd(final String text, final int from, final int to) {
+        final int brace = skipWhitespace(text, from, to);
+        return brace < to && text.charAt(brace) == '}' && redirectEnd(text, brace + 1, to, Kind.OUTPUT, '>') >= 0;
+    }
+
+    /**
+     * Matches {@code >> "$TARGET"} after optional whitespace and returns the end offset, or {@code -1}.
+     */
+    private static int redirectEnd(final String text, final int from, final int to, final Kind kind, final char redirect) {
+        int index = skipWhitespace(text, from, to);
+        if (index + 1 >= to || text.charAt(index) != redirect || text.charAt(index + 1) != redirect) {
+            return -1;
+        }
+        index = skipWhitespace(text, index + 2, to);
+        if (index < to && text.charAt(index) == '"') {
+            index++;
+        }
+        final int end = targetEnd(text, index, to, kind);
+        return end < 0 ? -1 : end < to && text.charAt(end) == '"' ? end + 1 : end;
+    }
+
+    /**
+     * Matches {@code | tee [flags] ... $TARGET} after optional whitespace and returns the end of the last target, or
+     * {@code -1}.
+     */
+    private static int teeEnd(final String text, final int from, final int to, final Kind kind) {
+        int index = skipWhitespace(text, from, to);
+        if (index >= to || text.charAt(index) != '|') {
+            return -1;
+        }
+        index = skipWhitespace(text, index + 1, to);
+        if (!text.startsWith("tee", index) || index + 3 >= to || !isWhitespace(text.charAt(index + 3))) {
+            return -1;
+        }
+        for (int dollar = text.lastIndexOf('$', to - 1); dollar > index + 3; dollar = text.lastIndexOf('$', dollar - 1)) {
+            final int end = targetEnd(text, dollar, to, kind);
+            if (end >= 0) {
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Matches {@code $GITHUB_OUTPUT}, <code>${GITHUB_OUTPUT}</code>, {@code $env:GITHUB_OUTPUT}, and the Gitea and env
+     * variants at {@code from} and returns the end offset, or {@code -1}.
+     */
+    private static int targetEnd(final String text, final int from, final int to, final Kind kind) {
+        if (from >= to || text.charAt(from) != '$') {
+            return -1;
+        }
+        int word = from + 1;
+        while (word < to && isWordChar(text.charAt(word))) {
+            word++;
+        }
+        int index = word;
+        if (index < to && text.charAt(index) == ':') {
+            index++;
+        }
+        if (index < to && text.charAt(index) == '{') {
+            index++;
+        }
+        int end = variableEnd(text, index, to, kind);
+        for (int split = word - 1; end < 0 && split > from; split--) {
+            end = variableEnd(text, split, to, kind);
+        }
+        return end < 0 ? -1 : end < to && text.charAt(end) == '}' ? end + 1 : end;
+    }
+
+    private static int variableEnd(final String text, final int from, final int to, final Kind kind) {
+        for (final String prefix : new String[]{"GITHUB", "GITEA"}) {
+            final int end = from + prefix.length() + kind.suffix.length();
+            if (end <= to && text.startsWith(prefix, from) && text.startsWith(kind.suffix, from + prefix.length())) {
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isStatementEnd(final String text, final int from, final int to) {
+        int index = skipWhitespace(text, from, to);
+        if (index < to && text.charAt(index) == ';') {
+            index++;
+        }
+        return skipWhitespace(text, index, to) == to;
+    }
+
+    private static int nameEnd(final String text, final int from, final int to) {
+        if (from >= to || !isNameStart(text.charAt(from))) {
+            return -1;
+        }
+        int index = from + 1;
+        while (index < to && isNameChar(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipWhitespace(final String text, final int from, final int to) {
+        int index = from;
+        while (index < to && isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean contains(final String text, final int from, final int to, final String value) {
+        return indexOf(text, value, from, to) >= 0;
+    }
+
+    private static int indexOf(final String text, final String value, final int from, final int to) {
+        for (int index = from; index + value.length() <= to; index++) {
+            if (text.startsWith(value, index)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isQuote(final char character) {
+        return character == '"' || character == '\'';
+    }
+
+    private static boolean isNameStart(final char character) {
+        return character >= 'A' && character <= 'Z' || character >= 'a' && character <= 'z' || character == '_';
+    }
+
+    private static boolean isNameChar(final char character) {
+        return isWordChar(character) || character == '-';
+    }
+
+    private static boolean isWordChar(final char character) {
+        return isNameStart(character) || character >= '0' && character <= '9';
+    }
+
+    private static boolean isWhitespace(final char character) {
+        return character == ' ' || character == '\t' || character == '\r' || character == '\u000B' || character == '\f';
+    }
+}
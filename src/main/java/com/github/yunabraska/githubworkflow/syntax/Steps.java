@@ -90,7 +90,7 @@ public class Steps {
         return getParentJob(psiElement).map(job -> {
             final YAMLSequenceItem currentStep = getParentStep(psiElement).orElse(null);
             final boolean isOutput = getParent(psiElement, FIELD_OUTPUTS).isPresent();
-            return getChildSteps(job).stream().takeWhile(step -> isOutput || step != currentStep).toList();
+            return WorkflowModel.of(job).steps(job).stream().takeWhile(step -> isOutput || step != currentStep).toList();
         }).orElseGet(() -> getParent(psiElement, FIELD_RUNS)
                 // Composite action [runs.steps]
                 .flatMap(runs -> getChild(runs, FIELD_STEPS))
@@ -117,7 +117,7 @@ public class Steps {
     @NotNull
     private static List<SimpleElement> listRunOutputs(final YAMLSequenceItem step) {
         return ofNullable(step).flatMap(s -> getChild(s, FIELD_RUN)
-                .map(WorkflowPsi::parseOutputVariables)
+                .map(run -> WorkflowModel.of(run).runOutputs(run))
                 .map(outputs -> outputs.stream().map(output -> completionItemOf(output.key(), output.text(), ICON_TEXT_VARIABLE)).toList())
         ).orElseGet(Collections::emptyList);
     }
@@ -0,0 +1,380 @@
+package com.github.yunabraska.githubworkflow.syntax;
+
+import com.github.yunabraska.githubworkflow.model.SimpleElement;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_ENVS;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_GITEA;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_GITHUB;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_INPUTS;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_JOB;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_JOBS;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_MATRIX;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_NEEDS;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_RUN;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_RUNNER;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_SECRETS;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_STEPS;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_STRATEGY;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_VARS;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getParent;
+
+/**
+ * Tokens of the expression references and function calls in one host element, such as {@code inputs.name},
+ * {@code steps.build.outputs['id']}, or {@code contains(}. The lexer records token kinds and offsets in one int array
+ * and the result is cached on the element until its file changes, so annotating, resolving, and documenting the same
+ * scalar share one pass instead of re-splitting its text each time.
+ * <p>
+ * {@code run:} scripts are scanned inside {@code ${{ }}} only. Other values are scanned line by line, skipping comment
+ * lines, because {@code if:} and similar keys hold bare expressions.
+ */
+public final class WorkflowExpressions {
+
+    private static final WorkflowExpressions EMPTY = new WorkflowExpressions("", new int[0]);
+    private static final String[] CONTEXTS = {FIELD_INPUTS, FIELD_SECRETS, FIELD_ENVS, FIELD_GITHUB, FIELD_GITEA, FIELD_JOB, FIELD_RUNNER, FIELD_MATRIX, FIELD_STRATEGY, FIELD_STEPS, FIELD_JOBS, FIELD_NEEDS, FIELD_VARS};
+    private static final int REFERENCE = 0;
+    private static final int SEGMENT = 1;
+    private static final int FUNCTION = 2;
+    private static final int TOKEN_SIZE = 3;
+
+    private final String text;
+    private final int[] tokens;
+    private final List<SimpleElement> references;
+    private final List<SimpleElement[]> segments;
+    private volatile List<TextRange> bareFunctionCalls;
+
+    private WorkflowExpressions(final String text, final int[] tokens) {
+        this.text = text;
+        this.tokens = tokens;
+        final List<SimpleElement> referenceList = new ArrayList<>();
+        final List<SimpleElement[]> segmentList = new ArrayList<>();
+        final List<SimpleElement> current = new ArrayList<>();
+        for (int index = 0; index < tokens.length; index += TOKEN_SIZE) {
+            if (tokens[index] == REFERENCE) {
+                if (!referenceList.isEmpty()) {
+                    segmentList.add(toSegments(current));
+                }
+                referenceList.add(element(text, tokens[index + 1], tokens[index + 2]));
+            } else if (tokens[index] == SEGMENT) {
+                current.add(element(text, tokens[index + 1], tokens[index + 2]));
+            }
+        }
+        if (!referenceList.isEmpty()) {
+            segmentList.add(toSegments(current));
+        }
+        this.references = List.copyOf(referenceList);
+        this.segments = List.copyOf(segmentList);
+    }
+
+    /**
+     * Returns the tokens of {@code element}, lexing its text at most once per file modification.
+     *
+     * @param element host scalar or text element
+     * @return cached tokens, empty for invalid elements
+     */
+    public static WorkflowExpressions of(final PsiElement element) {
+        if (element == null || !element.isValid()) {
+            return EMPTY;
+        }
+        return CachedValuesManager.getCachedValue(element, () -> CachedValueProvider.Result.create(lex(element), element));
+    }
+
+    /**
+     * Returns the dotted context references with ranges relative to the element.
+     */
+    public List<SimpleElement> references() {
+        return references;
+    }
+
+    /**
+     * Returns the identifier segments of {@link #references()} entry {@code index}.
+     *
+     * @param index reference index
+     * @return segments with ranges relative to the element
+     */
+    public SimpleElement[] segments(final int index) {
+        return segments.get(index);
+    }
+
+    /**
+     * Returns the ranges of function names called inside {@code ${{ }}}, or anywhere in the text for bare
+     * {@code if:} expressions. Names inside quoted strings are skipped.
+     *
+     * @param bareExpression {@code true} when the whole text is one expression
+     * @return function name ranges relative to the element
+     */
+    public List<TextRange> functionCalls(final boolean bareExpression) {
+        if (!bareExpression) {
+            final List<TextRange> result = new ArrayList<>();
+            for (int index = 0; index < tokens.length; index += TOKEN_SIZE) {
+                if (tokens[index] == FUNCTION) {
+                    result.add(new TextRange(tokens[index + 1], tokens[index + 2]));
+                }
+            }
+            return result;
+        }
+        List<TextRange> result = bareFunctionCalls;
+        if (result == null) {
+            final Tokens bare = new Tokens();
+            if (!text.isBlank()) {
+                lexFunctions(text, 0, text.length(), bare);
+            }
+            result = new ArrayList<>();
+            for (int index = 0; index < bare.size; index += TOKEN_SIZE) {
+                result.add(new TextRange(bare.values[index + 1], bare.values[index + 2]));
+            }
+            result = List.copyOf(result);
+            bareFunctionCalls = result;
+        }
+        return result;
+    }
+
+    /**
+     * Splits a reference into its identifier segments, for references that did not come from {@link #of}.
+     *
+     * @param source reference text with its range
+     * @return segments with ranges shifted by the source start offset
+     */
+    public static SimpleElement[] segmentsOf(final SimpleElement source) {
+        final Tokens result = new Tokens();
+        lexSegments(source.text(), 0, source.text().length(), result);
+        final int offset = source.range().getStartOffset();
+        final SimpleElement[] elements = new SimpleElement[result.size / TOKEN_SIZE];
+        for (int index = 0; index < result.size; index += TOKEN_SIZE) {
+            final int start = result.values[index + 1];
+            final int end = result.values[index + 2];
+            elements[index / TOKEN_SIZE] = new SimpleElement(source.text().substring(start, end), new TextRange(offset + start, offset + end));
+        }
+        return elements;
+    }
+
+    public static boolean isIdentifierChar(final char character) {
+        return Character.isLetterOrDigit(character) || character == '_' || character == '-';
+    }
+
+    private static WorkflowExpressions lex(final PsiElement element) {
+        final String text = element.getText();
+        final Tokens result = new Tokens();
+        if (getParent(element, FIELD_RUN).isPresent()) {
+            lexTemplates(text, result, true);
+        } else {
+            lexLines(text, result);
+            lexTemplates(text, result, false);
+        }
+        return text.isEmpty() ? EMPTY : new WorkflowExpressions(text, result.toArray());
+    }
+
+    private static void lexLines(final String text, final Tokens result) {
+        int lineStart = 0;
+        while (lineStart <= text.length()) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = text.length();
+            }
+            if (!isBlankOrComment(text, lineStart, lineEnd)) {
+                lexReferences(text, lineStart, lineEnd, result);
+            }
+            if (lineEnd == text.length()) {
+                break;
+            }
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    private static void lexTemplates(final String text, final Tokens result, final boolean references) {
+        int index = 0;
+        while (index < text.length()) {
+            final int expressionStart = text.indexOf("${{", index);
+            if (expressionStart < 0) {
+                break;
+            }
+            final int bodyStart = expressionStart + 3;
+            final int expressionEnd = text.indexOf("}}", bodyStart);
+            if (expressionEnd < 0) {
+                break;
+            }
+            if (references) {
+                lexReferences(text, bodyStart, expressionEnd, result);
+            }
+            lexFunctions(text, bodyStart, expressionEnd, result);
+            index = expressionEnd + 2;
+        }
+    }
+
+    private static void lexReferences(final String text, final int from, final int to, final Tokens result) {
+        int index = from;
+        while (index < to) {
+            if (!isContextStart(text, index, to)) {
+                index++;
+                continue;
+            }
+            final int start = index;
+            boolean hasSeparator = false;
+            index = identifierEnd(text, index, to);
+            while (index < to) {
+                final char current = text.charAt(index);
+                if (current == '.') {
+                    hasSeparator = true;
+                    index = identifierEnd(text, index + 1, to);
+                } else if (current == '[') {
+                    final int closingBracket = text.indexOf(']', index + 1);
+                    if (closingBracket < 0 || closingBracket >= to) {
+                        break;
+                    }
+                    hasSeparator = true;
+                    index = closingBracket + 1;
+                } else {
+                    break;
+                }
+            }
+            if (hasSeparator && start < index) {
+                result.add(REFERENCE, start, index);
+                lexSegments(text, start, index, result);
+            }
+        }
+    }
+
+    private static void lexSegments(final String text, final int from, final int to, final Tokens result) {
+        int index = from;
+        while (index < to) {
+            if (isIdentifierChar(text.charAt(index))) {
+                final int end = identifierEnd(text, index, to);
+                result.add(SEGMENT, index, end);
+                index = end;
+            } else {
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Records {@code name(} calls outside quoted strings. Single-quoted strings escape quotes by doubling them; double
+     * quotes accept backslash escapes.
+     */
+    private static void lexFunctions(final String text, final int from, final int to, final Tokens result) {
+        char quote = 0;
+        int quoted = from;
+        int index = from;
+        while (index < to) {
+            final char current = text.charAt(index);
+            if (!isFunctionNameStart(current) || index > from && isWordChar(text.charAt(index - 1))) {
+                index++;
+                continue;
+            }
+            int end = index + 1;
+            while (end < to && isWordChar(text.charAt(end))) {
+                end++;
+            }
+            int open = end;
+            while (open < to && isWhitespace(text.charAt(open))) {
+                open++;
+            }
+            if (open >= to || text.charAt(open) != '(') {
+                index = end;
+                continue;
+            }
+            while (quoted < index) {
+                final char next = text.charAt(quoted);
+                if (quote == '\'') {
+                    if (next == '\'' && quoted + 1 < to && text.charAt(quoted + 1) == '\'') {
+                        quoted++;
+                    } else if (next == '\'') {
+                        quote = 0;
+                    }
+                } else if (quote == '"') {
+                    if (next == '\\' && quoted + 1 < to) {
+                        quoted++;
+                    } else if (next == '"') {
+                        quote = 0;
+                    }
+                } else if (next == '\'' || next == '"') {
+                    quote = next;
+                }
+                quoted++;
+            }
+            if (quote == 0) {
+                result.add(FUNCTION, index, end);
+            }
+            index = open + 1;
+        }
+    }
+
+    private static boolean isContextStart(final String text, final int start, final int to) {
+        for (final String context : CONTEXTS) {
+            final int separator = start + context.length();
+            if (separator < to && text.startsWith(context, start) && (text.charAt(separator) == '.' || text.charAt(separator) == '[')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int identifierEnd(final String text, final int start, final int to) {
+        int index = start;
+        while (index < to && isIdentifierChar(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isBlankOrComment(final String text, final int from, final int to) {
+        for (int index = from; index < to; index++) {
+            final char current = text.charAt(index);
+            if (!Character.isWhitespace(current)) {
+                return current == '#';
+            }
+        }
+        return true;
+    }
+
+    private static boolean isFunctionNameStart(final char character) {
+        return character >= 'A' && character <= 'Z' || character >= 'a' && character <= 'z' || character == '_';
+    }
+
+    private static boolean isWordChar(final char character) {
+        return isFunctionNameStart(character) || character >= '0' && character <= '9';
+    }
+
+    private static boolean isWhitespace(final char character) {
+        return character == ' ' || character == '\t' || character == '\n' || character == '\u000B' || character == '\f' || character == '\r';
+    }
+
+    private static SimpleElement element(final String text, final int start, final int end) {
+        return new SimpleElement(text.substring(start, end), new TextRange(start, end));
+    }
+
+    private static SimpleElement[] toSegments(final List<SimpleElement> current) {
+        final SimpleElement[] result = current.toArray(SimpleElement[]::new);
+        current.clear();
+        return result;
+    }
+
+    /**
+     * Growable token buffer of {@code kind, start, end} triples.
+     */
+    private static final class Tokens {
+
+        private int[] values = new int[TOKEN_SIZE * 8];
+        private int size;
+
+        private void add(final int kind, final int start, final int end) {
+            if (size + TOKEN_SIZE > values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = kind;
+            values[size++] = start;
+            values[size++] = end;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
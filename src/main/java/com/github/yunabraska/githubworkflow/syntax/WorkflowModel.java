@@ -0,0 +1,288 @@
+package com.github.yunabraska.githubworkflow.syntax;
+
+import com.github.yunabraska.githubworkflow.model.SimpleElement;
+import com.intellij.psi.PsiElement;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.yaml.psi.YAMLAlias;
+import org.jetbrains.yaml.psi.YAMLKeyValue;
+import org.jetbrains.yaml.psi.YAMLSequenceItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_JOBS;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_RUN;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_SERVICES;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_STEPS;
+import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_USES;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Immutable structure of one workflow or action file: jobs, steps, service ids, {@code run:} outputs and env
+ * declarations, and {@code uses:} values. Highlighting, completion, references, and documentation used to re-derive
+ * these for every element; the model is built in one pass and cached on the file until its next modification.
+ * <p>
+ * The pass also indexes every key-value by key name with its text offsets, so {@link WorkflowPsi#getAllElements} and
+ * {@link WorkflowPsi#getChild(PsiElement, String)} answer scoped lookups with a hash probe and a binary search instead
+ * of walking the subtree.
+ */
+public final class WorkflowModel {
+
+    private static final WorkflowModel EMPTY = new WorkflowModel(Map.of(), false, List.of(), Map.of(), Map.of(), Map.of(), Map.of(), List.of());
+
+    private final Map<String, KeyIndex> keys;
+    private final boolean aliases;
+    private final List<YAMLKeyValue> jobs;
+    private final Map<YAMLKeyValue, List<YAMLSequenceItem>> steps;
+    private final Map<YAMLKeyValue, List<String>> serviceIds;
+    private final Map<YAMLKeyValue, List<SimpleElement>> runOutputs;
+    private final Map<YAMLKeyValue, List<SimpleElement>> runEnvs;
+    private final List<String> usesValues;
+
+    private WorkflowModel(
+            final Map<String, KeyIndex> keys,
+            final boolean aliases,
+            final List<YAMLKeyValue> jobs,
+            final Map<YAMLKeyValue, List<YAMLSequenceItem>> steps,
+            final Map<YAMLKeyValue, List<String>> serviceIds,
+            final Map<YAMLKeyValue, List<SimpleElement>> runOutputs,
+            final Map<YAMLKeyValue, List<SimpleElement>> runEnvs,
+            final List<String> usesValues
+    ) {
+        this.keys = keys;
+        this.aliases = aliases;
+        this.jobs = jobs;
+        this.steps = steps;
+        this.serviceIds = serviceIds;
+        this.runOutputs = runOutputs;
+        this.runEnvs = runEnvs;
+        this.usesValues = usesValues;
+    }
+
+    /**
+     * Returns the model of the file containing {@code psiElement}, building it at most once per file modification.
+     *
+     * @param psiElement any element of the file
+     * @return cached model, or an empty model when the element has no file
+     */
+    public static WorkflowModel of(final PsiElement psiElement) {
+        final PsiFile file = psiElement == null || !psiElement.isValid() ? null : psiElement.getContainingFile();
+        if (file == null) {
+            return EMPTY;
+        }
+        return CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(build(file), file));
+    }
+
+    /**
+     * Returns every key-value with {@code keyName} in document order.
+     *
+     * @param keyName YAML key text
+     * @return matching key-values, empty when none exist
+     */
+    public List<YAMLKeyValue> keys(final String keyName) {
+        return keyName == null ? List.of() : ofNullable(keys.get(keyName)).map(KeyIndex::values).orElseGet(List::of);
+    }
+
+    /**
+     * Returns every key-value with {@code keyName} inside {@code scope}, including {@code scope} itself.
+     *
+     * @param keyName YAML key text
+     * @param scope   element of this model's file
+     * @return matching key-values in document order, as a view without copying
+     */
+    public List<YAMLKeyValue> keys(final String keyName, final PsiElement scope) {
+        final KeyIndex index = keyName == null || scope == null ? null : keys.get(keyName);
+        return index == null ? List.of() : index.within(scope instanceof PsiFile ? null : scope.getTextRange());
+    }
+
+    /**
+     * Returns {@code true} when the file contains YAML aliases, whose resolved children lie outside the alias range.
+     */
+    public boolean hasAliases() {
+        return aliases;
+    }
+
+    /**
+     * Returns all jobs of every {@code jobs:} block in document order.
+     */
+    public List<YAMLKeyValue> jobs() {
+        return jobs;
+    }
+
+    /**
+     * Returns the steps of a job in document order.
+     *
+     * @param job job key-value from {@link #jobs()}
+     * @return job steps, computed directly for jobs outside this model
+     */
+    public List<YAMLSequenceItem> steps(final YAMLKeyValue job) {
+        return job == null ? List.of() : ofNullable(steps.get(job)).orElseGet(() -> WorkflowPsi.getChildSteps(job));
+    }
+
+    /**
+     * Returns the service container ids declared by a job.
+     *
+     * @param job job key-value from {@link #jobs()}
+     * @return service ids, computed directly for jobs outside this model
+     */
+    public List<String> serviceIds(final YAMLKeyValue job) {
+        return job == null ? List.of() : ofNullable(serviceIds.get(job)).orElseGet(() -> serviceIdsOf(job));
+    }
+
+    /**
+     * Returns every {@code run:} key-value in document order.
+     */
+    public List<YAMLKeyValue> runs() {
+        return keys(FIELD_RUN);
+    }
+
+    /**
+     * Returns the outputs a {@code run:} script writes to {@code $GITHUB_OUTPUT}.
+     *
+     * @param run {@code run:} key-value from {@link #runs()}
+     * @return declared outputs, parsed directly for elements outside this model
+     */
+    public List<SimpleElement> runOutputs(final YAMLKeyValue run) {
+        return run == null ? List.of() : ofNullable(runOutputs.get(run)).orElseGet(() -> WorkflowPsi.parseOutputVariables(run));
+    }
+
+    /**
+     * Returns the variables a {@code run:} script writes to {@code $GITHUB_ENV}.
+     *
+     * @param run {@code run:} key-value from {@link #runs()}
+     * @return declared variables, parsed directly for elements outside this model
+     */
+    public List<SimpleElement> runEnvs(final YAMLKeyValue run) {
+        return run == null ? List.of() : ofNullable(runEnvs.get(run)).orElseGet(() -> WorkflowPsi.parseEnvVariables(run));
+    }
+
+    /**
+     * Returns the distinct non-blank {@code uses:} values of the file in document order.
+     */
+    public List<String> usesValues() {
+        return usesValues;
+    }
+
+    private static WorkflowModel build(final PsiFile file) {
+        // WorkflowPsi lookups answer from this model, so building it must only use the collected keys and plain PSI.
+        final Map<String, List<YAMLKeyValue>> collected = new HashMap<>();
+        final boolean[] aliases = {false};
+        PsiTreeUtil.processElements(file, element -> {
+            if (element instanceof final YAMLKeyValue keyValue) {
+                collected.computeIfAbsent(keyValue.getKeyText(), ignored -> new ArrayList<>()).add(keyValue);
+            } else if (element instanceof YAMLAlias) {
+                aliases[0] = true;
+            }
+            return true;
+        });
+        final Map<String, KeyIndex> keys = new HashMap<>();
+        collected.forEach((key, values) -> keys.put(key, KeyIndex.of(values)));
+
+        final KeyIndex stepKeys = keys.getOrDefault(FIELD_STEPS, KeyIndex.EMPTY);
+        final KeyIndex serviceKeys = keys.getOrDefault(FIELD_SERVICES, KeyIndex.EMPTY);
+        final List<YAMLKeyValue> jobs = keys.getOrDefault(FIELD_JOBS, KeyIndex.EMPTY).values().stream()
+                .flatMap(block -> WorkflowPsi.getChildren(block, YAMLKeyValue.class).stream())
+                .toList();
+        final Map<YAMLKeyValue, List<YAMLSequenceItem>> steps = new HashMap<>();
+        final Map<YAMLKeyValue, List<String>> serviceIds = new HashMap<>();
+        jobs.forEach(job -> {
+            final TextRange range = job.getTextRange();
+            steps.put(job, stepKeys.within(range).stream()
+                    .flatMap(block -> WorkflowPsi.getChildren(block, YAMLSequenceItem.class).stream())
+                    .toList());
+            serviceIds.put(job, serviceKeys.within(range).stream()
+                    .filter(services -> PsiTreeUtil.getParentOfType(services, YAMLKeyValue.class) == job)
+                    .findFirst()
+                    .map(services -> WorkflowPsi.getChildren(services).stream().map(YAMLKeyValue::getKeyText).toList())
+                    .orElseGet(List::of));
+        });
+
+        final Map<YAMLKeyValue, List<SimpleElement>> runOutputs = new HashMap<>();
+        final Map<YAMLKeyValue, List<SimpleElement>> runEnvs = new HashMap<>();
+        keys.getOrDefault(FIELD_RUN, KeyIndex.EMPTY).values().forEach(run -> {
+            runOutputs.put(run, List.copyOf(WorkflowPsi.parseOutputVariables(run)));
+            runEnvs.put(run, List.copyOf(WorkflowPsi.parseEnvVariables(run)));
+        });
+
+        final Map<String, Boolean> usesValues = new LinkedHashMap<>();
+        keys.getOrDefault(FIELD_USES, KeyIndex.EMPTY).values().stream()
+                .map(WorkflowPsi::getText)
+                .flatMap(Optional::stream)
+                .forEach(uses -> usesValues.putIfAbsent(uses, Boolean.TRUE));
+
+        return new WorkflowModel(
+                Collections.unmodifiableMap(keys),
+                aliases[0],
+                jobs,
+                Collections.unmodifiableMap(steps),
+                Collections.unmodifiableMap(serviceIds),
+                Collections.unmodifiableMap(runOutputs),
+                Collections.unmodifiableMap(runEnvs),
+                List.copyOf(usesValues.keySet())
+        );
+    }
+
+    private static List<String> serviceIdsOf(final YAMLKeyValue job) {
+        return WorkflowPsi.getChild(job, FIELD_SERVICES)
+                .map(services -> WorkflowPsi.getChildren(services).stream().map(YAMLKeyValue::getKeyText).toList())
+                .orElseGet(List::of);
+    }
+
+    /**
+     * Key-values of one key name in document order with their start and end offsets.
+     */
+    private record KeyIndex(List<YAMLKeyValue> values, int[] starts, int[] ends) {
+
+        private static final KeyIndex EMPTY = new KeyIndex(List.of(), new int[0], new int[0]);
+
+        private static KeyIndex of(final List<YAMLKeyValue> values) {
+            final int[] starts = new int[values.size()];
+            final int[] ends = new int[values.size()];
+            for (int i = 0; i < values.size(); i++) {
+                final TextRange range = values.get(i).getTextRange();
+                starts[i] = range.getStartOffset();
+                ends[i] = range.getEndOffset();
+            }
+            return new KeyIndex(List.copyOf(values), starts, ends);
+        }
+
+        /**
+         * Returns the values inside {@code range}, or all values for {@code null}. Values are in pre-order, so the
+         * values inside a range are one contiguous run, preceded only by enclosing values that start at the same offset.
+         */
+        private List<YAMLKeyValue> within(final TextRange range) {
+            if (range == null) {
+                return values;
+            }
+            int from = firstStartAtOrAfter(range.getStartOffset());
+            final int to = firstStartAtOrAfter(range.getEndOffset());
+            while (from < to && ends[from] > range.getEndOffset()) {
+                from++;
+            }
+            return from >= to ? List.of() : values.subList(from, to);
+        }
+
+        private int firstStartAtOrAfter(final int offset) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (starts[middle] < offset) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
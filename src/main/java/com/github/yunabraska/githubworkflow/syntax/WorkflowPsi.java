@@ -27,26 +27,17 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.regex.Matcher;
 import java.util.stream.Collectors;
 
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_JOBS;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_STEPS;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.PATTERN_GITHUB_ENV;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.PATTERN_GITHUB_ENV_MULTILINE;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.PATTERN_GITHUB_OUTPUT;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.PATTERN_GITHUB_OUTPUT_GROUP;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.PATTERN_GITHUB_OUTPUT_MULTILINE;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.PATTERN_GITHUB_OUTPUT_TEE;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.PATTERN_SHELL_OUTPUT_ASSIGNMENT;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Optional.ofNullable;
 
@@ -61,19 +52,19 @@ public class WorkflowPsi {
     }
 
     public static List<SimpleElement> parseEnvVariables(final LeafPsiElement element) {
-        return element == null ? Collections.emptyList() : parseVariables(element, WorkflowPsi::toGithubEnvs);
+        return element == null ? Collections.emptyList() : parseVariables(element, RunScriptWrites.Kind.ENV);
     }
 
     public static List<SimpleElement> parseOutputVariables(final LeafPsiElement element) {
-        return element == null ? Collections.emptyList() : parseVariables(element, WorkflowPsi::toGithubOutputs);
+        return element == null ? Collections.emptyList() : parseVariables(element, RunScriptWrites.Kind.OUTPUT);
     }
 
     public static List<SimpleElement> parseEnvVariables(final PsiElement psiElement) {
-        return psiElement == null ? Collections.emptyList() : parseVariables(psiElement, WorkflowPsi::toGithubEnvs);
+        return psiElement == null ? Collections.emptyList() : parseVariables(psiElement, RunScriptWrites.Kind.ENV);
     }
 
     public static List<SimpleElement> parseOutputVariables(final PsiElement psiElement) {
-        return psiElement == null ? Collections.emptyList() : parseVariables(psiElement, WorkflowPsi::toGithubOutputs);
+        return psiElement == null ? Collections.emptyList() : parseVariables(psiElement, RunScriptWrites.Kind.OUTPUT);
     }
 
     public static <T> Optional<T> getChild(final PsiElement psiElement, final Class<T> clazz) {
@@ -85,20 +76,7 @@ public class WorkflowPsi {
     }
 
     public static List<YAMLKeyValue> getAllJobs(final PsiElement psiElement) {
-        final List<YAMLKeyValue> result = new ArrayList<>();
-        getAllJobs(result, ofNullable(psiElement).map(PsiElement::getContainingFile).orElse(null));
-        return unmodifiableList(result);
-    }
-
-    public static void getAllJobs(final List<YAMLKeyValue> result, final PsiElement element) {
-        if (result == null || element == null) {
-            return;
-        }
-        if (element instanceof final YAMLKeyValue keyValue && FIELD_JOBS.equals(keyValue.getKeyText())) {
-            result.addAll(getChildren(keyValue));
-        } else {
-            Arrays.stream(element.getChildren()).forEach(child -> getAllJobs(result, child));
-        }
+        return WorkflowModel.of(psiElement).jobs();
     }
 
     public static List<YAMLKeyValue> getChildren(final PsiElement psiElement) {
@@ -142,19 +120,7 @@ public class WorkflowPsi {
     }
 
     public static List<YAMLKeyValue> getAllElements(final PsiElement psiElement, final String keyName) {
-        return psiElement == null || keyName == null ? Collections.emptyList() : unmodifiableList(getAllElements(new ArrayList<>(), psiElement, keyName));
-    }
-
-    public static List<YAMLKeyValue> getAllElements(final List<YAMLKeyValue> result, final PsiElement psiElement, final String keyName) {
-        if (psiElement instanceof final YAMLKeyValue keyValue && keyName.equals(keyValue.getKeyText())) {
-            result.add(keyValue);
-        }
-
-        for (final PsiElement child : psiElement.getChildren()) {
-            getAllElements(result, child, keyName);
-        }
-
-        return result;
+        return psiElement == null || keyName == null ? Collections.emptyList() : WorkflowModel.of(psiElement).keys(keyName, psiElement);
     }
 
     public static Optional<PsiElement> getParentStepOrJob(final PsiElement psiElement) {
@@ -231,7 +197,15 @@ public class WorkflowPsi {
     }
 
     public static Optional<YAMLKeyValue> getChild(final PsiElement psiElement, final String childKey) {
-        return psiElement == null || childKey == null ? Optional.empty() : Optional.of(psiElement)
+        if (psiElement == null || childKey == null) {
+            return Optional.empty();
+        }
+        // Misses are the common case and used to walk the whole subtree; aliases may resolve to keys outside the range
+        final WorkflowModel model = WorkflowModel.of(psiElement);
+        if (!model.hasAliases() && model.keys(childKey, psiElement).isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(psiElement)
                 .map(WorkflowPsi::getChildren)
                 .flatMap(children -> children.stream()
                         .filter(Objects::nonNull)
@@ -332,41 +306,6 @@ public class WorkflowPsi {
         );
     }
 
-    private static Map<String, String> toGithubOutputs(final String text) {
-        final Map<String, String> variables = new HashMap<>();
-        if (text.contains("GITHUB_OUTPUT") || text.contains("GITEA_OUTPUT")) {
-            putMatches(variables, PATTERN_GITHUB_OUTPUT.matcher(text), false);
-            putMatches(variables, PATTERN_GITHUB_OUTPUT_TEE.matcher(text), false);
-            putGroupedOutputMatches(variables, text);
-            putMatches(variables, PATTERN_GITHUB_OUTPUT_MULTILINE.matcher(text), true);
-        }
-        return variables;
-    }
-
-    private static Map<String, String> toGithubEnvs(final String text) {
-        final Map<String, String> variables = new HashMap<>();
-        if (text.contains("GITHUB_ENV") || text.contains("GITEA_ENV")) {
-            putMatches(variables, PATTERN_GITHUB_ENV.matcher(text), false);
-            putMatches(variables, PATTERN_GITHUB_ENV_MULTILINE.matcher(text), true);
-        }
-        return variables;
-    }
-
-    private static void putGroupedOutputMatches(final Map<String, String> variables, final String text) {
-        final Matcher matcher = PATTERN_GITHUB_OUTPUT_GROUP.matcher(text);
-        while (matcher.find()) {
-            putMatches(variables, PATTERN_SHELL_OUTPUT_ASSIGNMENT.matcher(matcher.group(1)), false);
-        }
-    }
-
-    private static void putMatches(final Map<String, String> variables, final Matcher matcher, final boolean multiline) {
-        while (matcher.find()) {
-            if (matcher.groupCount() >= 1) {
-                variables.putIfAbsent(matcher.group(1), multiline ? "<multiline>" : matcher.group(2));
-            }
-        }
-    }
-
     private static String removeBrackets(final String text, final char... chars) {
         if (text != null && text.length() > 1) {
             for (final char c : chars) {
@@ -401,21 +340,26 @@ public class WorkflowPsi {
         }
     }
 
-    private static List<SimpleElement> parseVariables(final LeafPsiElement element, final Function<String, Map<String, String>> method) {
-        return ofNullable(element)
-                .filter(leafPsiElement -> method != null)
-                .map(line -> method.apply(line.getText()).entrySet().stream()
-                        .map(env -> new SimpleElement(env.getKey(), env.getValue(), line.getTextRange()))
-                        .toList()
-                )
-                .orElseGet(Collections::emptyList);
+    private static List<SimpleElement> parseVariables(final LeafPsiElement element, final RunScriptWrites.Kind kind) {
+        final Map<String, SimpleElement> result = new LinkedHashMap<>();
+        RunScriptWrites.of(element).writes(kind).forEach(write -> result.putIfAbsent(write.name(), new SimpleElement(write.name(), write.value(), element.getTextRange())));
+        return new ArrayList<>(result.values());
     }
 
-    private static List<SimpleElement> parseVariables(final PsiElement psiElement, final Function<String, Map<String, String>> method) {
-        final List<SimpleElement> lineElements = getLineElements(psiElement);
+    private static List<SimpleElement> parseVariables(final PsiElement psiElement, final RunScriptWrites.Kind kind) {
+        final List<RunScriptWrites.Write> writes = RunScriptWrites.of(psiElement).writes(kind);
+        final List<SimpleElement> lineElements = writes.isEmpty() ? Collections.emptyList() : getLineElements(psiElement);
+        final int offset = psiElement.getTextRange().getStartOffset();
         final Map<String, SimpleElement> result = new LinkedHashMap<>();
-        lineElements.forEach(line -> method.apply(line.text()).forEach((key, value) -> result.putIfAbsent(key, new SimpleElement(key, value, line.range()))));
-        method.apply(psiElement.getText()).forEach((key, value) -> result.putIfAbsent(key, new SimpleElement(key, value, psiElement.getTextRange())));
+        writes.stream()
+                .filter(RunScriptWrites.Write::lineLocal)
+                .sorted(Comparator.comparingInt(RunScriptWrites.Write::lineStart))
+                .forEach(write -> lineElements.stream()
+                        .filter(line -> line.startIndexOffset() < offset + write.lineEnd() && offset + write.lineStart() < line.endIndexOffset())
+                        .findFirst()
+                        .ifPresent(line -> result.putIfAbsent(write.name(), new SimpleElement(write.name(), write.value(), line.range())))
+                );
+        writes.forEach(write -> result.putIfAbsent(write.name(), new SimpleElement(write.name(), write.value(), psiElement.getTextRange())));
         return new ArrayList<>(result.values());
     }
 
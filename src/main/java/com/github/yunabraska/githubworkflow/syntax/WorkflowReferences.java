@@ -21,12 +21,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_ENVS;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_GITEA;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_GITHUB;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_ID;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_INPUTS;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_JOB;
@@ -37,16 +34,13 @@ import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_OUTPUTS;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_PORTS;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_RUN;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_RUNNER;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_SECRETS;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_SERVICES;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_STEPS;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_STRATEGY;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_USES;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.FIELD_VARS;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowYaml.getWorkflowFile;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getChild;
-import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getParent;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getText;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getTextElements;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.removeQuotes;
@@ -95,36 +89,7 @@ public class WorkflowReferences {
     }
 
     public static List<SimpleElement> toSimpleElements(final PsiElement element) {
-        if (getParent(element, FIELD_RUN).isPresent()) {
-            return toSimpleElementsInExpressions(element);
-        }
-        final List<SimpleElement> result = new ArrayList<>();
-        final String text = element.getText();
-        int lineStart = 0;
-        while (lineStart <= text.length()) {
-            int lineEnd = text.indexOf('\n', lineStart);
-            if (lineEnd < 0) {
-                lineEnd = text.length();
-            }
-            final String line = text.substring(lineStart, lineEnd);
-            if (!line.isBlank() && !line.trim().startsWith("#")) {
-                final int currentLineStart = lineStart;
-                findDottedExpressions(line).stream()
-                        .map(expression -> new SimpleElement(
-                                expression.text(),
-                                new TextRange(
-                                        currentLineStart + expression.range().getStartOffset(),
-                                        currentLineStart + expression.range().getEndOffset()
-                                )
-                        ))
-                        .forEach(result::add);
-            }
-            if (lineEnd == text.length()) {
-                break;
-            }
-            lineStart = lineEnd + 1;
-        }
-        return result;
+        return WorkflowExpressions.of(element).references();
     }
 
     private static Optional<PsiElement> textElement(final PsiElement psiElement) {
@@ -150,22 +115,16 @@ public class WorkflowReferences {
     }
 
     public static SimpleElement[] splitToElements(final SimpleElement simpleElement) {
-        final List<SimpleElement> result = new ArrayList<>();
-        final AtomicInteger index = new AtomicInteger(0);
-        while (index.get() < simpleElement.text().length()) {
-            if (isIdentifierChar(simpleElement.text().charAt(index.get()))) {
-                result.add(readIdentifier(simpleElement, index));
-            } else {
-                index.incrementAndGet();
-            }
-        }
-        return result.toArray(SimpleElement[]::new);
+        return WorkflowExpressions.segmentsOf(simpleElement);
     }
 
     public static List<Target> resolve(final PsiElement psiElement) {
-        return toSimpleElements(psiElement).stream()
-                .flatMap(source -> resolveSource(psiElement, source).stream())
-                .toList();
+        final WorkflowExpressions expressions = WorkflowExpressions.of(psiElement);
+        final List<Target> result = new ArrayList<>();
+        for (int index = 0; index < expressions.references().size(); index++) {
+            result.addAll(resolveSource(psiElement, expressions.references().get(index), expressions.segments(index)));
+        }
+        return result;
     }
 
     public static List<Target> resolveAt(final PsiElement psiElement, final int offsetInElement) {
@@ -175,125 +134,28 @@ public class WorkflowReferences {
     }
 
     public static Optional<SimpleElement> segmentAt(final PsiElement psiElement, final int offsetInElement) {
-        return toSimpleElements(psiElement).stream()
-                .filter(source -> contains(source, offsetInElement))
-                .flatMap(source -> Stream.of(splitToElements(source)))
-                .filter(segment -> contains(segment, offsetInElement))
-                .findFirst();
-    }
-
-    private static boolean contains(final SimpleElement segment, final int offsetInElement) {
-        return segment.startIndexOffset() - 1 <= offsetInElement && offsetInElement <= segment.endIndexOffset();
-    }
-
-    private static List<SimpleElement> findDottedExpressions(final String text) {
-        final List<SimpleElement> elements = new ArrayList<>();
-        int index = 0;
-        while (index < text.length()) {
-            if (!isContextStart(text, index)) {
-                index++;
-                continue;
-            }
-            final int start = index;
-            boolean hasSeparator = false;
-            index = readIdentifierEnd(text, index);
-            while (index < text.length()) {
-                final char current = text.charAt(index);
-                if (current == '.') {
-                    hasSeparator = true;
-                    index++;
-                    index = readIdentifierEnd(text, index);
-                } else if (current == '[') {
-                    final int closingBracket = findClosingBracket(text, index);
-                    if (closingBracket < 0) {
-                        break;
+        final WorkflowExpressions expressions = WorkflowExpressions.of(psiElement);
+        for (int index = 0; index < expressions.references().size(); index++) {
+            if (contains(expressions.references().get(index), offsetInElement)) {
+                for (final SimpleElement segment : expressions.segments(index)) {
+                    if (contains(segment, offsetInElement)) {
+                        return Optional.of(segment);
                     }
-                    hasSeparator = true;
-                    index = closingBracket + 1;
-                } else {
-                    break;
                 }
             }
-            if (hasSeparator && start < index) {
-                elements.add(new SimpleElement(text.substring(start, index), new TextRange(start, index)));
-            }
         }
-        return elements;
-    }
-
-    private static List<SimpleElement> toSimpleElementsInExpressions(final PsiElement element) {
-        final List<SimpleElement> result = new ArrayList<>();
-        final String text = element.getText();
-        int index = 0;
-        while (index < text.length()) {
-            final int expressionStart = text.indexOf("${{", index);
-            if (expressionStart < 0) {
-                break;
-            }
-            final int bodyStart = expressionStart + 3;
-            final int expressionEnd = text.indexOf("}}", bodyStart);
-            if (expressionEnd < 0) {
-                break;
-            }
-            final String body = text.substring(bodyStart, expressionEnd);
-            findDottedExpressions(body).stream()
-                    .map(expression -> new SimpleElement(
-                            expression.text(),
-                            new TextRange(
-                                    bodyStart + expression.range().getStartOffset(),
-                                    bodyStart + expression.range().getEndOffset()
-                            )
-                    ))
-                    .forEach(result::add);
-            index = expressionEnd + 2;
-        }
-        return result;
-    }
-
-    private static SimpleElement readIdentifier(final SimpleElement simpleElement, final AtomicInteger index) {
-        final int start = index.get();
-        index.set(readIdentifierEnd(simpleElement.text(), start));
-        return new SimpleElement(
-                simpleElement.text().substring(start, index.get()),
-                new TextRange(simpleElement.range().getStartOffset() + start, simpleElement.range().getStartOffset() + index.get())
-        );
-    }
-
-    private static int readIdentifierEnd(final String text, final int start) {
-        int index = start;
-        while (index < text.length() && isIdentifierChar(text.charAt(index))) {
-            index++;
-        }
-        return index;
-    }
-
-    private static int findClosingBracket(final String text, final int start) {
-        int index = start + 1;
-        while (index < text.length()) {
-            if (text.charAt(index) == ']') {
-                return index;
-            }
-            index++;
-        }
-        return -1;
-    }
-
-    private static boolean isContextStart(final String text, final int start) {
-        return List.of(FIELD_INPUTS, FIELD_SECRETS, FIELD_ENVS, FIELD_GITHUB, FIELD_GITEA, FIELD_JOB, FIELD_RUNNER, FIELD_MATRIX, FIELD_STRATEGY, FIELD_STEPS, FIELD_JOBS, FIELD_NEEDS, FIELD_VARS)
-                .stream()
-                .anyMatch(context -> text.startsWith(context, start) && hasContextSeparator(text, start + context.length()));
+        return Optional.empty();
     }
 
-    private static boolean hasContextSeparator(final String text, final int index) {
-        return index < text.length() && (text.charAt(index) == '.' || text.charAt(index) == '[');
+    private static boolean contains(final SimpleElement segment, final int offsetInElement) {
+        return segment.startIndexOffset() - 1 <= offsetInElement && offsetInElement <= segment.endIndexOffset();
     }
 
     public static boolean isIdentifierChar(final char character) {
-        return Character.isLetterOrDigit(character) || character == '_' || character == '-';
+        return WorkflowExpressions.isIdentifierChar(character);
     }
 
-    private static List<Target> resolveSource(final PsiElement psiElement, final SimpleElement source) {
-        final SimpleElement[] parts = splitToElements(source);
+    private static List<Target> resolveSource(final PsiElement psiElement, final SimpleElement source, final SimpleElement[] parts) {
         if (parts.length < 2) {
             return List.of();
         }
@@ -458,7 +320,7 @@ public class WorkflowReferences {
 
     private static Optional<PsiElement> stepOutputTarget(final YAMLSequenceItem step, final String outputId) {
         return getChild(step, FIELD_RUN)
-                .filter(run -> WorkflowPsi.parseOutputVariables(run).stream().anyMatch(output -> outputId.equals(output.key())))
+                .filter(run -> WorkflowModel.of(run).runOutputs(run).stream().anyMatch(output -> outputId.equals(output.key())))
                 .map(PsiElement.class::cast)
                 .or(() -> getChild(step, FIELD_USES)
                         .filter(uses -> com.github.yunabraska.githubworkflow.syntax.Action.listActionsOutputs(step).stream()
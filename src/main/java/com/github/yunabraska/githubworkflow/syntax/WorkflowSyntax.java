@@ -32,12 +32,16 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.file.Path;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowContextCatalog.*;
@@ -45,9 +49,7 @@ import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getChild;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getParentJob;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getParentStep;
 import static com.github.yunabraska.githubworkflow.syntax.WorkflowPsi.getText;
-import static com.github.yunabraska.githubworkflow.git.WorkflowLocation.isChildOf;
 import static com.github.yunabraska.githubworkflow.git.WorkflowLocation.pathEndsWith;
-import static com.github.yunabraska.githubworkflow.git.WorkflowLocation.pathMatches;
 
 /**
  * GitHub Actions workflow syntax completion tables from the public workflow syntax reference.
@@ -67,55 +69,48 @@ public class WorkflowSyntax {
             )
             .distinct()
             .toList();
-    private static final List<SyntaxRule> KEY_RULES = List.of(
-            rule((path, completion) -> path.isEmpty(), "top", "inspection.workflow.syntax.unknownTopLevelKey"),
-            rule((path, completion) -> pathMatches(path, FIELD_ON), "event", "inspection.workflow.syntax.unknownEventKey"),
-            rule((path, completion) -> pathMatches(path, FIELD_ON, "workflow_dispatch"), "trigger.workflow_dispatch", "inspection.workflow.syntax.unknownTriggerKey"),
-            rule((path, completion) -> pathMatches(path, FIELD_ON, "workflow_call"), "trigger.workflow_call", "inspection.workflow.syntax.unknownTriggerKey"),
+    private static final KeyRules KEY_RULES = new KeyRules(List.of(
+            rule(at(), "top", "inspection.workflow.syntax.unknownTopLevelKey"),
+            rule(at(FIELD_ON), "event", "inspection.workflow.syntax.unknownEventKey"),
+            rule(at(FIELD_ON, "workflow_dispatch"), "trigger.workflow_dispatch", "inspection.workflow.syntax.unknownTriggerKey"),
+            rule(at(FIELD_ON, "workflow_call"), "trigger.workflow_call", "inspection.workflow.syntax.unknownTriggerKey"),
             rule(
-                    (path, completion) -> isChildOf(path, FIELD_ON, "workflow_dispatch", FIELD_INPUTS)
-                            || isChildOf(path, FIELD_ON, "workflow_call", FIELD_INPUTS),
+                    List.of(at(FIELD_ON, "workflow_dispatch", FIELD_INPUTS, "*"), at(FIELD_ON, "workflow_call", FIELD_INPUTS, "*")),
                     (ignored, provider) -> workflowInputPropertyKeys(),
-                    "inspection.workflow.syntax.unknownTriggerKey"
+                    "inspection.workflow.syntax.unknownTriggerKey",
+                    false
             ),
             rule(
-                    (path, completion) -> isChildOf(path, FIELD_ON, "workflow_call", FIELD_OUTPUTS),
+                    List.of(at(FIELD_ON, "workflow_call", FIELD_OUTPUTS, "*")),
                     (ignored, provider) -> workflowOutputPropertyKeys(),
-                    "inspection.workflow.syntax.unknownTriggerKey"
+                    "inspection.workflow.syntax.unknownTriggerKey",
+                    false
             ),
             rule(
-                    (path, completion) -> isChildOf(path, FIELD_ON, "workflow_call", FIELD_SECRETS),
+                    List.of(at(FIELD_ON, "workflow_call", FIELD_SECRETS, "*")),
                     (ignored, provider) -> workflowSecretPropertyKeys(),
-                    "inspection.workflow.syntax.unknownTriggerKey"
+                    "inspection.workflow.syntax.unknownTriggerKey",
+                    false
             ),
             rule(
-                    (path, completion) -> pathMatches(path, FIELD_ON, "*"),
+                    List.of(at(FIELD_ON, "*")),
                     (path, provider) -> eventFilterKeysFor(path.get(path.size() - 1), provider),
-                    "inspection.workflow.syntax.unknownTriggerFilter"
+                    "inspection.workflow.syntax.unknownTriggerFilter",
+                    false
             ),
-            rule((path, completion) -> pathEndsWith(path, "permissions"), "permission", "inspection.workflow.syntax.unknownPermission"),
-            rule(
-                    (path, completion) -> pathMatches(path, "defaults", FIELD_RUN)
-                            || pathMatches(path, FIELD_JOBS, "*", "defaults", FIELD_RUN),
-                    "defaultsRun",
-                    "inspection.workflow.syntax.unknownTopLevelKey"
-            ),
-            rule(
-                    (path, completion) -> pathMatches(path, "concurrency")
-                            || pathMatches(path, FIELD_JOBS, "*", "concurrency"),
-                    "concurrency",
-                    "inspection.workflow.syntax.unknownTopLevelKey"
-            ),
-            rule((path, completion) -> pathMatches(path, FIELD_JOBS, "*", "environment"), "environment", "inspection.workflow.syntax.unknownTopLevelKey"),
-            rule((path, completion) -> pathMatches(path, FIELD_JOBS, "*"), "job", "inspection.workflow.syntax.unknownJobKey"),
-            rule((path, completion) -> pathMatches(path, FIELD_JOBS, "*", FIELD_STRATEGY), "strategy", "inspection.workflow.syntax.unknownTopLevelKey"),
-            rule((path, completion) -> completion && pathMatches(path, FIELD_JOBS, "*", FIELD_STRATEGY, FIELD_MATRIX), "matrix", "inspection.workflow.syntax.unknownTopLevelKey"),
-            rule((path, completion) -> pathMatches(path, FIELD_JOBS, "*", "container"), "container", "inspection.workflow.syntax.unknownTopLevelKey"),
-            rule((path, completion) -> pathMatches(path, FIELD_JOBS, "*", "container", "credentials"), "credentials", "inspection.workflow.syntax.unknownTopLevelKey"),
-            rule((path, completion) -> pathMatches(path, FIELD_JOBS, "*", FIELD_SERVICES, "*"), "service", "inspection.workflow.syntax.unknownTopLevelKey"),
-            rule((path, completion) -> pathMatches(path, FIELD_JOBS, "*", FIELD_SERVICES, "*", "credentials"), "credentials", "inspection.workflow.syntax.unknownTopLevelKey"),
-            rule((path, completion) -> pathMatches(path, FIELD_JOBS, "*", FIELD_STEPS), "step", "inspection.workflow.syntax.unknownStepKey")
-    );
+            rule(endingWith("permissions"), "permission", "inspection.workflow.syntax.unknownPermission"),
+            rule(List.of(at("defaults", FIELD_RUN), at(FIELD_JOBS, "*", "defaults", FIELD_RUN)), "defaultsRun", "inspection.workflow.syntax.unknownTopLevelKey", false),
+            rule(List.of(at("concurrency"), at(FIELD_JOBS, "*", "concurrency")), "concurrency", "inspection.workflow.syntax.unknownTopLevelKey", false),
+            rule(at(FIELD_JOBS, "*", "environment"), "environment", "inspection.workflow.syntax.unknownTopLevelKey"),
+            rule(at(FIELD_JOBS, "*"), "job", "inspection.workflow.syntax.unknownJobKey"),
+            rule(at(FIELD_JOBS, "*", FIELD_STRATEGY), "strategy", "inspection.workflow.syntax.unknownTopLevelKey"),
+            rule(List.of(at(FIELD_JOBS, "*", FIELD_STRATEGY, FIELD_MATRIX)), "matrix", "inspection.workflow.syntax.unknownTopLevelKey", true),
+            rule(at(FIELD_JOBS, "*", "container"), "container", "inspection.workflow.syntax.unknownTopLevelKey"),
+            rule(at(FIELD_JOBS, "*", "container", "credentials"), "credentials", "inspection.workflow.syntax.unknownTopLevelKey"),
+            rule(at(FIELD_JOBS, "*", FIELD_SERVICES, "*"), "service", "inspection.workflow.syntax.unknownTopLevelKey"),
+            rule(at(FIELD_JOBS, "*", FIELD_SERVICES, "*", "credentials"), "credentials", "inspection.workflow.syntax.unknownTopLevelKey"),
+            rule(at(FIELD_JOBS, "*", FIELD_STEPS), "step", "inspection.workflow.syntax.unknownStepKey")
+    ));
 
     private WorkflowSyntax() {
     }
@@ -466,9 +461,7 @@ public class WorkflowSyntax {
                 || pathEndsWith(path, FIELD_ON, "workflow_call", FIELD_SECRETS)) {
             return Optional.empty();
         }
-        return KEY_RULES.stream()
-                .flatMap(rule -> rule.known(path, completion, provider).stream())
-                .findFirst();
+        return KEY_RULES.find(path, completion).map(rule -> rule.known(path, provider));
     }
 
     public static Map<String, String> eventActivityTypesFor(final String event) {
@@ -585,27 +578,33 @@ public class WorkflowSyntax {
     }
 
     static Map<String, String> workflowInputPropertyKeys() {
-        final Map<String, String> result = new LinkedHashMap<>();
-        result.put("description", GitHubWorkflowBundle.message("documentation.description.label"));
-        result.put("type", GitHubWorkflowBundle.message("documentation.type", "string | boolean | choice | number | environment"));
-        result.put("required", GitHubWorkflowBundle.message("documentation.required", true));
-        result.put("default", GitHubWorkflowBundle.message("documentation.default", ""));
-        result.put("options", GitHubWorkflowBundle.message("documentation.value.label"));
-        return java.util.Collections.unmodifiableMap(result);
+        return LocalizedTables.get("property.input", () -> {
+            final Map<String, String> result = new LinkedHashMap<>();
+            result.put("description", GitHubWorkflowBundle.message("documentation.description.label"));
+            result.put("type", GitHubWorkflowBundle.message("documentation.type", "string | boolean | choice | number | environment"));
+            result.put("required", GitHubWorkflowBundle.message("documentation.required", true));
+            result.put("default", GitHubWorkflowBundle.message("documentation.default", ""));
+            result.put("options", GitHubWorkflowBundle.message("documentation.value.label"));
+            return java.util.Collections.unmodifiableMap(result);
+        });
     }
 
     static Map<String, String> workflowOutputPropertyKeys() {
-        final Map<String, String> result = new LinkedHashMap<>();
-        result.put("description", GitHubWorkflowBundle.message("documentation.description.label"));
-        result.put("value", GitHubWorkflowBundle.message("documentation.value.label"));
-        return java.util.Collections.unmodifiableMap(result);
+        return LocalizedTables.get("property.output", () -> {
+            final Map<String, String> result = new LinkedHashMap<>();
+            result.put("description", GitHubWorkflowBundle.message("documentation.description.label"));
+            result.put("value", GitHubWorkflowBundle.message("documentation.value.label"));
+            return java.util.Collections.unmodifiableMap(result);
+        });
     }
 
     static Map<String, String> workflowSecretPropertyKeys() {
-        final Map<String, String> result = new LinkedHashMap<>();
-        result.put("description", GitHubWorkflowBundle.message("documentation.description.label"));
-        result.put("required", GitHubWorkflowBundle.message("documentation.required", true));
-        return java.util.Collections.unmodifiableMap(result);
+        return LocalizedTables.get("property.secret", () -> {
+            final Map<String, String> result = new LinkedHashMap<>();
+            result.put("description", GitHubWorkflowBundle.message("documentation.description.label"));
+            result.put("required", GitHubWorkflowBundle.message("documentation.required", true));
+            return java.util.Collections.unmodifiableMap(result);
+        });
     }
 
     public static Map<String, String> booleanValues() {
@@ -637,6 +636,14 @@ public class WorkflowSyntax {
     }
 
     private static Map<String, String> table(final String group) {
+        return LocalizedTables.get(group, () -> localizedTable(group));
+    }
+
+    private static Map<String, String> table(final String group, final Provider provider) {
+        return provider != Provider.GITEA ? table(group) : LocalizedTables.get(group + "@gitea", () -> giteaTable(group));
+    }
+
+    private static Map<String, String> localizedTable(final String group) {
         final Map<String, String> keys = Tables.DATA.getOrDefault(group, Collections.emptyMap());
         if (keys.isEmpty()) {
             return Collections.emptyMap();
@@ -646,10 +653,7 @@ public class WorkflowSyntax {
         return Collections.unmodifiableMap(result);
     }
 
-    private static Map<String, String> table(final String group, final Provider provider) {
-        if (provider != Provider.GITEA) {
-            return table(group);
-        }
+    private static Map<String, String> giteaTable(final String group) {
         final Map<String, String> gitea = table(group + ".gitea");
         if (gitea.isEmpty()) {
             return table(group);
@@ -720,17 +724,58 @@ public class WorkflowSyntax {
         }
     }
 
-    private static SyntaxRule rule(final PathPredicate predicate, final String table, final String messageKey) {
-        return rule(predicate, (ignored, provider) -> table(table, provider), messageKey);
+    /**
+     * Localized tables of the active plugin language, dropped as a whole when
+     * {@link GitHubWorkflowBundle.Settings#languageTag()} changes.
+     */
+    private static final class LocalizedTables {
+        private static volatile LocalizedTables current = new LocalizedTables(null);
+
+        private final String languageTag;
+        private final Map<String, Map<String, String>> tables = new ConcurrentHashMap<>();
+
+        private LocalizedTables(final String languageTag) {
+            this.languageTag = languageTag;
+        }
+
+        static Map<String, String> get(final String key, final Supplier<Map<String, String>> builder) {
+            final String languageTag = GitHubWorkflowBundle.Settings.maybeInstance()
+                    .map(GitHubWorkflowBundle.Settings::languageTag)
+                    .orElse(GitHubWorkflowBundle.Settings.SYSTEM_LANGUAGE);
+            LocalizedTables localized = current;
+            if (!languageTag.equals(localized.languageTag)) {
+                localized = new LocalizedTables(languageTag);
+                current = localized;
+            }
+            // no computeIfAbsent: Gitea tables are built from the cached GitHub tables of the same map
+            final Map<String, String> cached = localized.tables.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            final Map<String, String> built = builder.get();
+            final Map<String, String> previous = localized.tables.putIfAbsent(key, built);
+            return previous == null ? built : previous;
+        }
     }
 
-    private static SyntaxRule rule(final PathPredicate predicate, final ValueProvider values, final String messageKey) {
-        return new SyntaxRule(predicate, values, messageKey);
+    private static SyntaxRule rule(final PathPattern pattern, final String table, final String messageKey) {
+        return rule(List.of(pattern), (ignored, provider) -> table(table, provider), messageKey, false);
     }
 
-    @FunctionalInterface
-    private interface PathPredicate {
-        boolean matches(List<String> path, boolean completion);
+    private static SyntaxRule rule(final List<PathPattern> patterns, final String table, final String messageKey, final boolean completionOnly) {
+        return rule(patterns, (ignored, provider) -> table(table, provider), messageKey, completionOnly);
+    }
+
+    private static SyntaxRule rule(final List<PathPattern> patterns, final ValueProvider values, final String messageKey, final boolean completionOnly) {
+        return new SyntaxRule(patterns, values, messageKey, completionOnly);
+    }
+
+    private static PathPattern at(final String... segments) {
+        return new PathPattern(List.of(segments), false);
+    }
+
+    private static PathPattern endingWith(final String... segments) {
+        return new PathPattern(List.of(segments), true);
     }
 
     @FunctionalInterface
@@ -738,11 +783,83 @@ public class WorkflowSyntax {
         Map<String, String> values(List<String> path, Provider provider);
     }
 
-    private record SyntaxRule(PathPredicate predicate, ValueProvider values, String messageKey) {
-        Optional<KnownKeys> known(final List<String> path, final boolean completion, final Provider provider) {
-            return predicate.matches(path, completion)
-                    ? Optional.of(new KnownKeys(values.values(path, provider), messageKey))
-                    : Optional.empty();
+    /**
+     * YAML key path a rule applies to; {@code *} matches any key, {@code suffix} patterns match at any depth.
+     */
+    private record PathPattern(List<String> segments, boolean suffix) {
+    }
+
+    private record SyntaxRule(List<PathPattern> patterns, ValueProvider values, String messageKey, boolean completionOnly) {
+        KnownKeys known(final List<String> path, final Provider provider) {
+            return new KnownKeys(values.values(path, provider), messageKey);
+        }
+    }
+
+    /**
+     * {@link SyntaxRule}s compiled into a path trie and a reversed suffix trie. A lookup walks both tries along the
+     * path and keeps the first declared rule that matches, so declaration order still decides between overlapping rules.
+     */
+    private static final class KeyRules {
+        private final List<SyntaxRule> rules;
+        private final RuleNode paths = new RuleNode();
+        private final RuleNode suffixes = new RuleNode();
+
+        KeyRules(final List<SyntaxRule> rules) {
+            this.rules = rules;
+            for (int index = 0; index < rules.size(); index++) {
+                for (final PathPattern pattern : rules.get(index).patterns()) {
+                    RuleNode node = pattern.suffix() ? suffixes : paths;
+                    final List<String> segments = pattern.suffix() ? pattern.segments().reversed() : pattern.segments();
+                    for (final String segment : segments) {
+                        node = node.child(segment);
+                    }
+                    node.rules.add(index);
+                }
+            }
+        }
+
+        Optional<SyntaxRule> find(final List<String> path, final boolean completion) {
+            int first = paths.first(path, 0, completion, rules, Integer.MAX_VALUE);
+            RuleNode node = suffixes;
+            for (int index = path.size() - 1; index >= 0 && node != null; index--) {
+                node = node.children.get(path.get(index));
+                first = node == null ? first : node.first(completion, rules, first);
+            }
+            return first == Integer.MAX_VALUE ? Optional.empty() : Optional.of(rules.get(first));
+        }
+    }
+
+    private static final class RuleNode {
+        private final Map<String, RuleNode> children = new HashMap<>();
+        private final List<Integer> rules = new ArrayList<>();
+
+        private RuleNode child(final String segment) {
+            return children.computeIfAbsent(segment, ignored -> new RuleNode());
+        }
+
+        private int first(final List<String> path, final int depth, final boolean completion, final List<SyntaxRule> declared, final int best) {
+            if (depth == path.size()) {
+                return first(completion, declared, best);
+            }
+            int result = best;
+            final RuleNode exact = children.get(path.get(depth));
+            if (exact != null) {
+                result = exact.first(path, depth + 1, completion, declared, result);
+            }
+            final RuleNode wildcard = children.get("*");
+            if (wildcard != null && wildcard != exact) {
+                result = wildcard.first(path, depth + 1, completion, declared, result);
+            }
+            return result;
+        }
+
+        private int first(final boolean completion, final List<SyntaxRule> declared, final int best) {
+            for (final int index : rules) {
+                if (index < best && (completion || !declared.get(index).completionOnly())) {
+                    return index;
+                }
+            }
+            return best;
         }
     }
 
@@ -5,12 +5,27 @@ import com.github.yunabraska.githubworkflow.test.FakeRemoteServer;
 import com.github.yunabraska.githubworkflow.git.RemoteActionProviders;
 
 import com.github.yunabraska.githubworkflow.model.GitHubAction;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.testFramework.fixtures.BasePlatformTestCase;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class RemoteActionProvidersTest extends BasePlatformTestCase {
 
@@ -20,6 +35,10 @@ public class RemoteActionProvidersTest extends BasePlatformTestCase {
             final RemoteActionProviders.Settings settings = RemoteActionProviders.Settings.getInstance();
             settings.customServers().forEach(settings::clearGiteaToken);
             settings.setCustomServers(List.of());
+            settings.setParallelRequestsPerServer(RemoteActionProviders.Settings.DEFAULT_PARALLEL_REQUESTS_PER_SERVER);
+            settings.setRequestIntervalMillis(RemoteActionProviders.Settings.DEFAULT_REQUEST_INTERVAL_MILLIS);
+            settings.setServerFanOut(RemoteActionProviders.ServerFanOut.SEQUENTIAL);
+            settings.setHedgeDelayMillis(RemoteActionProviders.Settings.DEFAULT_HEDGE_DELAY_MILLIS);
         } finally {
             super.tearDown();
         }
@@ -118,6 +137,66 @@ public class RemoteActionProvidersTest extends BasePlatformTestCase {
         }
     }
 
+    public void testFailedLookupIsNegativelyCachedUntilForgotten() throws Exception {
+        try (FakeRemoteServer server = new FakeRemoteServer()) {
+            useServer(server, "/api/v3");
+            final String usesValue = server.webUrl() + "/missing/tool@main";
+
+            assertThat(RemoteActionProviders.resolve(usesValue)).isEmpty();
+            final int requests = server.requests().size();
+            assertThat(RemoteActionProviders.resolve(usesValue)).isEmpty();
+
+            assertThat(server.requests()).hasSize(requests);
+            assertThat(RemoteActionProviders.backoff(usesValue)).hasValueSatisfying(backoff -> {
+                assertThat(backoff.reason()).isEqualTo(RemoteActionProviders.FailureReason.NOT_FOUND);
+                assertThat(backoff.failures()).isEqualTo(1);
+                assertThat(backoff.retryAtMillis()).isGreaterThan(System.currentTimeMillis());
+            });
+
+            server.addContent("missing", "tool", "action.yml", "main", "name: Found later");
+            RemoteActionProviders.forgetFailure(usesValue);
+
+            assertThat(RemoteActionProviders.resolve(usesValue)).isPresent();
+            assertThat(RemoteActionProviders.backoff(usesValue)).isEmpty();
+        }
+    }
+
+    public void testRateLimitHonorsRetryAfterAndBacksOffWholeServer() throws Exception {
+        try (FakeRemoteServer server = new FakeRemoteServer()) {
+            useServer(server, "/api/v3");
+            server.failWith(429, Map.of("Retry-After", "120"));
+            final long before = System.currentTimeMillis();
+
+            assertThat(RemoteActionProviders.resolve(server.webUrl() + "/acme/tool@v1")).isEmpty();
+            final int requests = server.requests().size();
+            server.recover();
+            server.addContent("acme", "other", "action.yml", "v1", "name: Other");
+
+            assertThat(RemoteActionProviders.resolve(server.webUrl() + "/acme/other@v1")).isEmpty();
+            assertThat(server.requests()).hasSize(requests);
+            assertThat(RemoteActionProviders.backoff(server.webUrl() + "/acme/tool@v1")).hasValueSatisfying(backoff -> {
+                assertThat(backoff.reason()).isEqualTo(RemoteActionProviders.FailureReason.RATE_LIMITED);
+                assertThat(backoff.retryAtMillis()).isGreaterThanOrEqualTo(before + 120_000);
+            });
+        }
+    }
+
+    public void testRateLimitedAuthorizationFallsBackToNextAuthorizationWithoutPausingServer() throws Exception {
+        RemoteActionProviders.clearFailures();
+        try (FakeRemoteServer server = new FakeRemoteServer()) {
+            server.addContent("acme", "tool", "action.yml", "v1", "name: Tool");
+            server.addContent("acme", "other", "action.yml", "v1", "name: Other");
+            useGiteaServer(server, "");
+            final RemoteActionProviders.Settings settings = RemoteActionProviders.Settings.getInstance();
+            settings.setGiteaToken(settings.customServers().getFirst(), "limited-token");
+            server.rateLimit("token limited-token");
+
+            assertThat(RemoteActionProviders.resolve(server.webUrl() + "/acme/tool@v1")).isPresent();
+            assertThat(RemoteActionProviders.resolve(server.webUrl() + "/acme/other@v1")).isPresent();
+            assertThat(server.authorizations()).containsOnlyOnce("token limited-token");
+        }
+    }
+
     public void testResolvedRemoteActionKeepsCachedMetadataWhenServerIsOffline() throws Exception {
         final String usesValue;
         final GitHubAction action;
@@ -151,6 +230,64 @@ public class RemoteActionProvidersTest extends BasePlatformTestCase {
         assertThat(refreshed.expiryTime()).isGreaterThan(System.currentTimeMillis());
     }
 
+    public void testRefreshRevalidatesWithEtagsAndOnlyExtendsExpiryWhenNotModified() throws Exception {
+        try (FakeRemoteServer server = new FakeRemoteServer()) {
+            server.addContent("acme", "tool", "action.yml", "v1", """
+                    name: Enterprise Tool
+                    inputs:
+                      token:
+                        description: Token
+                    runs:
+                      using: composite
+                      steps:
+                        - run: echo ok
+                          shell: sh
+                    """);
+            server.setBranches("acme", "tool", List.of("main"));
+            server.setTags("acme", "tool", List.of("v1"));
+            useServer(server, "/api/v3");
+            final GitHubAction action = GitHubAction.createGithubAction(false, "acme/tool@v1", "acme/tool@v1").resolve();
+            assertThat(action.validators()).containsKeys("contents/action.yml", "branches", "tags");
+
+            action.expiryTime(0);
+            action.resolve();
+
+            assertThat(server.notModifiedRequests()).containsExactly(
+                    "/api/v3/repos/acme/tool/contents/action.yml?ref=v1",
+                    "/api/v3/repos/acme/tool/branches",
+                    "/api/v3/repos/acme/tool/tags"
+            );
+            assertThat(action.isResolved()).isTrue();
+            assertThat(action.freshInputs()).containsKey("token");
+            assertThat(action.remoteRefs()).containsExactly("main", "v1");
+            assertThat(action.expiryTime()).isGreaterThan(System.currentTimeMillis());
+        }
+    }
+
+    public void testRefreshReplacesRefsWhenOnlyTagsChanged() throws Exception {
+        try (FakeRemoteServer server = new FakeRemoteServer()) {
+            server.addContent("acme", "tool", "action.yml", "v1", """
+                    name: Enterprise Tool
+                    runs:
+                      using: composite
+                      steps:
+                        - run: echo ok
+                          shell: sh
+                    """);
+            server.setBranches("acme", "tool", List.of("main"));
+            server.setTags("acme", "tool", List.of("v1"));
+            useServer(server, "/api/v3");
+            final GitHubAction action = GitHubAction.createGithubAction(false, "acme/tool@v1", "acme/tool@v1").resolve();
+
+            server.setTags("acme", "tool", List.of("v2", "v1"));
+            action.expiryTime(0);
+            action.resolve();
+
+            assertThat(action.isResolved()).isTrue();
+            assertThat(action.remoteRefs()).containsExactly("main", "v2", "v1");
+        }
+    }
+
     public void testGithubReusableWorkflowPathIsDetectedAsWorkflowMetadata() throws Exception {
         try (FakeRemoteServer server = new FakeRemoteServer()) {
             server.addContent("acme", "automation", ".github/workflows/reuse.yml", "main", """
@@ -246,6 +383,257 @@ public class RemoteActionProvidersTest extends BasePlatformTestCase {
         }
     }
 
+    public void testPerServerRequestLimitsStillResolveWithSingleSlot() throws Exception {
+        try (FakeRemoteServer server = new FakeRemoteServer()) {
+            server.setTags("acme", "tool", List.of("v2", "v1"));
+            useServer(server, "/api/v3");
+            final RemoteActionProviders.Settings settings = RemoteActionProviders.Settings.getInstance()
+                    .setParallelRequestsPerServer(0)
+                    .setRequestIntervalMillis(-5);
+
+            final List<String> refs = RemoteActionProviders.latestRefs("acme/tool", 2);
+
+            assertThat(settings.parallelRequestsPerServer()).isEqualTo(1);
+            assertThat(settings.requestIntervalMillis()).isZero();
+            assertThat(refs).containsExactly("v2", "v1");
+        }
+    }
+
+    public void testPerServerRequestLimitsBoundInFlightRequestsAndSpaceStarts() throws Exception {
+        try (FakeRemoteServer server = new FakeRemoteServer()) {
+            final int lookupCount = 6;
+            for (int index = 0; index < lookupCount; index++) {
+                server.setTags("acme", "tool" + index, List.of("v1"));
+            }
+            server.setResponseDelayMillis(300);
+            useServer(server, "/api/v3");
+            RemoteActionProviders.Settings.getInstance()
+                    .setParallelRequestsPerServer(2)
+                    .setRequestIntervalMillis(100);
+            final ExecutorService executor = Executors.newFixedThreadPool(lookupCount);
+            try {
+                final List<Future<List<String>>> lookups = new ArrayList<>();
+                for (int index = 0; index < lookupCount; index++) {
+                    final String repository = "acme/tool" + index;
+                    lookups.add(executor.submit(() -> RemoteActionProviders.latestRefs(repository, 1)));
+                }
+                for (final Future<List<String>> lookup : lookups) {
+                    assertThat(lookup.get(10, TimeUnit.SECONDS)).containsExactly("v1");
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            final List<Long> starts = server.requestStartNanos().stream().sorted().toList();
+            assertThat(starts).hasSize(lookupCount);
+            assertThat(server.maxConcurrentRequests()).isEqualTo(2);
+            for (int index = 1; index < starts.size(); index++) {
+                // small allowance for loopback jitter between the client's slot and the server's arrival time
+                assertThat(TimeUnit.NANOSECONDS.toMillis(starts.get(index) - starts.get(index - 1))).isGreaterThanOrEqualTo(80);
+            }
+        }
+    }
+
+    public void testConcurrentIdenticalLookupsShareOneRequest() throws Exception {
+        try (FakeRemoteServer server = new FakeRemoteServer()) {
+            server.setTags("acme", "tool", List.of("v2", "v1"));
+            server.setResponseDelayMillis(300);
+            useServer(server, "/api/v3");
+            final ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                final List<Future<List<String>>> lookups = new ArrayList<>();
+                for (int index = 0; index < 4; index++) {
+                    lookups.add(executor.submit(() -> RemoteActionProviders.latestRefs("acme/tool", 2)));
+                }
+
+                for (final Future<List<String>> lookup : lookups) {
+                    assertThat(lookup.get(10, TimeUnit.SECONDS)).containsExactly("v2", "v1");
+                }
+                assertThat(server.requests()).containsOnlyOnce("/api/v3/repos/acme/tool/tags?per_page=2");
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    public void testCompletionSuggestionsAreCachedOnlyWhenUseful() {
+        RemoteActionProviders.Settings.getInstance().setCustomServers(List.of());
+        final AtomicInteger lookups = new AtomicInteger();
+        final Supplier<List<String>> found = () -> {
+            lookups.incrementAndGet();
+            return List.of("v1");
+        };
+        final Supplier<List<String>> missing = () -> {
+            lookups.incrementAndGet();
+            return List.of();
+        };
+
+        assertThat(RemoteActionProviders.Suggestions.await("refs\nsuggest/found", found, refs -> !refs.isEmpty(), List.of())).containsExactly("v1");
+        assertThat(RemoteActionProviders.Suggestions.await("refs\nsuggest/found", found, refs -> !refs.isEmpty(), List.of())).containsExactly("v1");
+        assertThat(lookups).hasValue(1);
+
+        RemoteActionProviders.Suggestions.await("refs\nsuggest/missing", missing, refs -> !refs.isEmpty(), List.of());
+        RemoteActionProviders.Suggestions.await("refs\nsuggest/missing", missing, refs -> !refs.isEmpty(), List.of());
+        assertThat(lookups).hasValue(3);
+    }
+
+    public void testCancelledCompletionInterruptsItsSuggestionLookup() throws Exception {
+        RemoteActionProviders.Settings.getInstance().setCustomServers(List.of());
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final ProgressIndicator indicator = new EmptyProgressIndicator();
+        final Supplier<List<String>> slow = () -> {
+            running.countDown();
+            try {
+                Thread.sleep(10_000);
+                return List.of("late");
+            } catch (final InterruptedException exception) {
+                interrupted.countDown();
+                return List.of();
+            }
+        };
+        final Thread closePopup = new Thread(() -> {
+            try {
+                running.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            indicator.cancel();
+        });
+        closePopup.start();
+
+        assertThatThrownBy(() -> ProgressManager.getInstance().runProcess(
+                () -> RemoteActionProviders.Suggestions.await("uses\nsuggest/slow", slow, refs -> !refs.isEmpty(), List.of()),
+                indicator
+        )).isInstanceOf(ProcessCanceledException.class);
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        closePopup.join();
+    }
+
+    public void testCancelledCompletionKeepsSuggestionLookupSharedWithOtherPopups() throws Exception {
+        RemoteActionProviders.Settings.getInstance().setCustomServers(List.of());
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger interrupts = new AtomicInteger();
+        final ProgressIndicator closed = new EmptyProgressIndicator();
+        final Supplier<List<String>> slow = () -> {
+            running.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+                return List.of("v1");
+            } catch (final InterruptedException exception) {
+                interrupts.incrementAndGet();
+                return List.of();
+            }
+        };
+        final Thread closePopup = new Thread(() -> assertThatThrownBy(() -> ProgressManager.getInstance().runProcess(
+                () -> RemoteActionProviders.Suggestions.await("uses\nsuggest/shared", slow, refs -> !refs.isEmpty(), List.of()),
+                closed
+        )).isInstanceOf(ProcessCanceledException.class));
+        closePopup.start();
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        final CompletableFuture<List<String>> openPopup = CompletableFuture.supplyAsync(
+                () -> RemoteActionProviders.Suggestions.await("uses\nsuggest/shared", slow, refs -> !refs.isEmpty(), List.of())
+        );
+        Thread.sleep(200);
+
+        closed.cancel();
+        closePopup.join();
+        release.countDown();
+
+        assertThat(openPopup.get(5, TimeUnit.SECONDS)).containsExactly("v1");
+        assertThat(interrupts).hasValue(0);
+    }
+
+    public void testParallelFanOutTakesFasterServerWithoutWaitingForSlowerOne() throws Exception {
+        try (FakeRemoteServer slow = new FakeRemoteServer(); FakeRemoteServer fast = new FakeRemoteServer()) {
+            slow.addContent("acme", "tool", "action.yml", "v1", "name: Slow Tool");
+            slow.setResponseDelayMillis(3000);
+            fast.addContent("acme", "tool", "action.yml", "v1", "name: Fast Tool");
+            useServers(slow, fast);
+            RemoteActionProviders.Settings.getInstance().setServerFanOut(RemoteActionProviders.ServerFanOut.PARALLEL);
+
+            final long started = System.nanoTime();
+            final Optional<RemoteActionProviders.Resolution> resolution = RemoteActionProviders.resolve("acme/tool@v1");
+
+            assertThat(resolution).hasValueSatisfying(value -> assertThat(value.githubUrl()).startsWith(fast.webUrl()));
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(2000);
+        }
+    }
+
+    public void testParallelFanOutTakesLaterServerWhenEarlierServersHaveNoAnswer() throws Exception {
+        try (FakeRemoteServer empty = new FakeRemoteServer(); FakeRemoteServer fast = new FakeRemoteServer()) {
+            fast.addContent("acme", "tool", "action.yml", "v1", "name: Fast Tool");
+            useServers(empty, fast);
+            RemoteActionProviders.Settings.getInstance().setServerFanOut(RemoteActionProviders.ServerFanOut.PARALLEL);
+
+            final Optional<RemoteActionProviders.Resolution> resolution = RemoteActionProviders.resolve("acme/tool@v1");
+
+            assertThat(resolution).hasValueSatisfying(value -> assertThat(value.githubUrl()).startsWith(fast.webUrl()));
+        }
+    }
+
+    public void testInterruptedFanOutIsNotRecordedAsFailedLookup() throws Exception {
+        RemoteActionProviders.clearFailures();
+        try (FakeRemoteServer first = new FakeRemoteServer(); FakeRemoteServer second = new FakeRemoteServer()) {
+            first.addContent("acme", "tool", "action.yml", "v1", "name: First Tool");
+            first.setResponseDelayMillis(3000);
+            second.setResponseDelayMillis(3000);
+            useServers(first, second);
+            RemoteActionProviders.Settings.getInstance().setServerFanOut(RemoteActionProviders.ServerFanOut.PARALLEL);
+
+            final Thread lookup = new Thread(() -> RemoteActionProviders.resolve("acme/tool@v1"));
+            lookup.start();
+            Thread.sleep(200);
+            lookup.interrupt();
+            lookup.join(5000);
+
+            assertThat(lookup.isAlive()).isFalse();
+            assertThat(RemoteActionProviders.backoff("acme/tool@v1")).isEmpty();
+        }
+    }
+
+    public void testHedgedFanOutKeepsServerOrderWhenFirstServerAnswersInTime() throws Exception {
+        try (FakeRemoteServer first = new FakeRemoteServer(); FakeRemoteServer second = new FakeRemoteServer()) {
+            first.addContent("acme", "tool", "action.yml", "v1", "name: First Tool");
+            second.addContent("acme", "tool", "action.yml", "v1", "name: Second Tool");
+            useServers(first, second);
+            RemoteActionProviders.Settings.getInstance()
+                    .setServerFanOut(RemoteActionProviders.ServerFanOut.HEDGED)
+                    .setHedgeDelayMillis(2000);
+
+            final Optional<RemoteActionProviders.Resolution> resolution = RemoteActionProviders.resolve("acme/tool@v1");
+
+            assertThat(resolution).hasValueSatisfying(value -> assertThat(value.githubUrl()).startsWith(first.webUrl()));
+            assertThat(second.requests()).isEmpty();
+        }
+    }
+
+    public void testGraphQlBatchResolvesActionsAndRefsInOneRequest() throws Exception {
+        try (FakeRemoteServer server = new FakeRemoteServer()) {
+            server.addContent("acme", "tool", "action.yml", "v1", "name: Tool");
+            server.addContent("acme", "tool", "nested/action.yaml", "main", "name: Nested Tool");
+            server.addContent("acme", "flows", ".github/workflows/build.yml", "v2", "on: workflow_call");
+            server.setBranches("acme", "tool", List.of("main"));
+            server.setTags("acme", "tool", List.of("v1"));
+            useServer(server, "/api/v3");
+            final String tool = server.webUrl() + "/acme/tool@v1";
+            final String nested = server.webUrl() + "/acme/tool/nested@main";
+            final String workflow = server.webUrl() + "/acme/flows/.github/workflows/build.yml@v2";
+            final String missing = server.webUrl() + "/acme/missing@v1";
+
+            final Map<String, RemoteActionProviders.Resolution> resolutions = RemoteActionProviders.resolveBatch(List.of(tool, nested, workflow, missing));
+
+            assertThat(resolutions).containsOnlyKeys(tool, nested, workflow);
+            assertThat(resolutions.get(tool).content()).isEqualTo("name: Tool");
+            assertThat(resolutions.get(tool).refs()).containsExactly("main", "v1");
+            assertThat(resolutions.get(tool).githubUrl()).isEqualTo(server.webUrl() + "/acme/tool/tree/v1#readme");
+            assertThat(resolutions.get(nested).content()).isEqualTo("name: Nested Tool");
+            assertThat(resolutions.get(workflow).action()).isFalse();
+            assertThat(server.requests()).containsExactly("/api/graphql");
+        }
+    }
+
     public void testStandardEnvironmentTokensAreTriedBeforeAnonymous() {
         final List<RemoteActionProviders.Authorizations.Authorization> authorizations = RemoteActionProviders.Authorizations.forApiUrl(
                 "https://api.example.test",
@@ -485,6 +873,14 @@ public class RemoteActionProvidersTest extends BasePlatformTestCase {
         )));
     }
 
+    private static void useServers(final FakeRemoteServer... servers) {
+        final List<RemoteActionProviders.Server> configured = new ArrayList<>();
+        for (int index = 0; index < servers.length; index++) {
+            configured.add(new RemoteActionProviders.Server("Fake " + index, servers[index].webUrl(), servers[index].apiUrl("/api/v3"), "", true));
+        }
+        RemoteActionProviders.Settings.getInstance().setCustomServers(configured);
+    }
+
     private static void useGiteaServer(final FakeRemoteServer server, final String tokenEnvVar) {
         RemoteActionProviders.Settings.getInstance().setCustomServers(List.of(RemoteActionProviders.Server.gitea(
                 "Fake Gitea",
@@ -0,0 +1,77 @@
+package com.github.yunabraska.githubworkflow.git;
+
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WorkflowLocationSnapshotTest extends BasePlatformTestCase {
+
+    private Path repository;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        WorkflowLocation.GitSnapshots.clear();
+        repository = Files.createDirectories(Path.of(getProject().getBasePath(), "snapshot-" + getTestName(true)));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            WorkflowLocation.GitSnapshots.clear();
+            FileUtil.delete(repository);
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testBranchIsCachedUntilTheVfsReportsHeadChanges() throws Exception {
+        final Path head = write(".git/HEAD", "ref: refs/heads/main\n");
+        final VirtualFile headFile = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(head);
+        final WorkflowLocation.RepositoryResolver resolver = new WorkflowLocation.RepositoryResolver();
+
+        assertThat(resolver.branch(repository)).contains("main");
+
+        Files.writeString(head, "ref: refs/heads/feature/snapshot\n");
+        assertThat(resolver.branch(repository)).contains("main");
+
+        VfsUtil.markDirtyAndRefresh(false, false, false, headFile);
+        assertThat(resolver.branch(repository)).contains("feature/snapshot");
+    }
+
+    public void testRefsCombineLooseAndPackedRefsUntilPackedRefsChange() throws Exception {
+        write(".git/HEAD", "ref: refs/heads/main\n");
+        write(".git/refs/heads/main", "abc123\n");
+        final Path packedRefs = write(".git/packed-refs", """
+                # pack-refs with: peeled fully-peeled sorted
+                abc123 refs/heads/main
+                def456 refs/heads/release/1.x
+                fed789 refs/tags/v1.0.0
+                ^fed780
+                """);
+        final VirtualFile packedRefsFile = LocalFileSystem.getInstance().refreshAndFindFileByNioFile(packedRefs);
+        final WorkflowLocation.RepositoryResolver resolver = new WorkflowLocation.RepositoryResolver();
+
+        assertThat(resolver.refs(repository, "heads")).containsExactly("main", "release/1.x");
+        assertThat(resolver.refs(repository, "tags")).containsExactly("v1.0.0");
+
+        Files.writeString(packedRefs, "abc123 refs/heads/main\n0a1b2c refs/heads/release/2.x\n");
+        VfsUtil.markDirtyAndRefresh(false, false, false, packedRefsFile);
+
+        assertThat(resolver.refs(repository, "heads")).containsExactly("main", "release/2.x");
+        assertThat(resolver.refs(repository, "tags")).isEmpty();
+    }
+
+    private Path write(final String relativePath, final String content) throws Exception {
+        final Path path = repository.resolve(relativePath);
+        Files.createDirectories(path.getParent());
+        return Files.writeString(path, content);
+    }
+}
@@ -14,11 +14,13 @@ import java.net.http.HttpClient.Version;
 import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -537,6 +539,83 @@ public class WorkflowRunProcessHandlerTest extends BasePlatformTestCase {
         return response(request, 404, "{}");
     }
 
+    public void testProcessPrintsLogsLargerThanOneChunkWithoutSplittingLines() throws Exception {
+        final StringBuilder log = new StringBuilder();
+        for (int line = 1; line <= 3000; line++) {
+            log.append("line ").append(line).append(" of a long job log that crosses the read chunk size\n");
+        }
+        final CapturingJobConsole jobConsole = new CapturingJobConsole();
+        final WorkflowRun client = new WorkflowRun(
+                request -> {
+                    final String path = request.uri().getPath();
+                    if (path.endsWith("/jobs/100/logs")) {
+                        return response(request, 200, log.toString());
+                    }
+                    return multiJobResponseFor(request, new AtomicInteger(0));
+                },
+                request -> List.of(RemoteActionProviders.Authorizations.Authorization.anonymous())
+        );
+        final WorkflowRun.Request request = new WorkflowRun.Request(
+                "https://api.github.test",
+                "acme",
+                "tool",
+                ".github/workflows/test.yml",
+                "main",
+                Map.of(),
+                ""
+        );
+        final WorkflowRunProcessHandler handler = new WorkflowRunProcessHandler(
+                getProject(),
+                request,
+                client,
+                new WorkflowRunProcessHandler.PollSettings(10, 10, 10),
+                jobConsole
+        );
+        final CountDownLatch terminated = new CountDownLatch(1);
+        handler.addProcessListener(new ProcessListener() {
+            @Override
+            public void processTerminated(@NotNull final ProcessEvent event) {
+                terminated.countDown();
+            }
+        });
+
+        handler.startNotify();
+
+        assertThat(terminated.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(log.length()).isGreaterThan(2 * 64 * 1024);
+        final String output = jobConsole.output(100);
+        for (int line = 1; line <= 3000; line++) {
+            assertThat(output).contains("line " + line + " of a long job log that crosses the read chunk size");
+        }
+    }
+
+    public void testPollerRunsDueStepsWhileOtherStepsBlock() throws Exception {
+        final WorkflowRun.Poller poller = WorkflowRun.Poller.getInstance(getProject());
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch blocked = new CountDownLatch(3);
+        final CountDownLatch ran = new CountDownLatch(1);
+        final List<Future<?>> slowSteps = new ArrayList<>();
+        for (int step = 0; step < 3; step++) {
+            slowSteps.add(poller.schedule(() -> {
+                blocked.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (final InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }, 0));
+        }
+        try {
+            assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+            poller.schedule(ran::countDown, 10);
+
+            assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            release.countDown();
+            slowSteps.forEach(step -> step.cancel(true));
+        }
+    }
+
     private static HttpResponse<String> multiJobResponseFor(
             final HttpRequest request,
             final AtomicInteger statusCalls
@@ -6,7 +6,10 @@ import com.sun.net.httpserver.HttpServer;
 import junit.framework.TestCase;
 
 import javax.net.ssl.SSLSession;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.URI;
@@ -16,8 +19,11 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpClient.Version;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -201,11 +207,13 @@ public class WorkflowRunTest extends TestCase {
             final WorkflowRun client = new WorkflowRun();
             final WorkflowRun.Request request = new WorkflowRun.Request(server.apiUrl(), "acme", "tool", "build.yml", "main", Map.of(), "");
 
+            final Path directory = Files.createTempDirectory("workflow-artifacts");
             final List<WorkflowRun.ArtifactStatus> artifacts = client.artifacts(request, 42);
-            final byte[] zip = client.artifactZip(request, artifacts.get(0).id());
+            final Path zip = client.downloadArtifact(request, artifacts.get(0).id(), directory.resolve("reports.zip"));
 
             assertThat(artifacts).containsExactly(new WorkflowRun.ArtifactStatus(300, "reports", 9, false, "artifact-url"));
-            assertThat(new String(zip, StandardCharsets.UTF_8)).isEqualTo("zip-bytes");
+            assertThat(Files.readString(zip)).isEqualTo("zip-bytes");
+            assertThat(directory.resolve("reports.zip.part")).doesNotExist();
             assertThat(server.requests()).contains(
                     "/repos/acme/tool/actions/runs/42/artifacts?per_page=100",
                     "/repos/acme/tool/actions/artifacts/300/zip"
@@ -213,6 +221,78 @@ public class WorkflowRunTest extends TestCase {
         }
     }
 
+    public void testDownloadResumesBrokenTransferWithRangeRequest() throws Exception {
+        final List<String> ranges = new ArrayList<>();
+        final WorkflowRun client = new WorkflowRun(new WorkflowRun.HttpTransport() {
+            @Override
+            public HttpResponse<String> send(final HttpRequest request) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public HttpResponse<InputStream> sendStream(final HttpRequest request) {
+                final String range = request.headers().firstValue("Range").orElse("");
+                ranges.add(range);
+                if (range.isEmpty()) {
+                    final InputStream broken = new SequenceInputStream(
+                            new ByteArrayInputStream("zip-".getBytes(StandardCharsets.UTF_8)),
+                            new InputStream() {
+                                @Override
+                                public int read() throws IOException {
+                                    throw new IOException("connection reset");
+                                }
+                            }
+                    );
+                    return new StreamClientResponse(request, 200, broken);
+                }
+                return new StreamClientResponse(request, 206, new ByteArrayInputStream("bytes".getBytes(StandardCharsets.UTF_8)), "bytes 4-8/9");
+            }
+        }, request -> List.of(RemoteActionProviders.Authorizations.Authorization.anonymous()));
+        final WorkflowRun.Request request = new WorkflowRun.Request("https://api.github.test", "acme", "tool", "build.yml", "main", Map.of(), "");
+        final Path directory = Files.createTempDirectory("workflow-artifacts");
+
+        final Path zip = client.downloadArtifact(request, 300, directory.resolve("reports.zip"));
+
+        assertThat(Files.readString(zip)).isEqualTo("zip-bytes");
+        assertThat(ranges).containsExactly("", "bytes=4-");
+    }
+
+    public void testDownloadDiscardsStalePartialFileAndRestartsOnMismatchingRanges() throws Exception {
+        final List<String> ranges = new ArrayList<>();
+        final WorkflowRun client = new WorkflowRun(new WorkflowRun.HttpTransport() {
+            @Override
+            public HttpResponse<String> send(final HttpRequest request) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public HttpResponse<InputStream> sendStream(final HttpRequest request) {
+                final String range = request.headers().firstValue("Range").orElse("");
+                ranges.add(range);
+                if (!range.isEmpty()) {
+                    return new StreamClientResponse(request, 416, InputStream.nullInputStream(), "bytes */9");
+                }
+                final InputStream body = ranges.size() > 1
+                        ? new ByteArrayInputStream("zip-bytes".getBytes(StandardCharsets.UTF_8))
+                        : new SequenceInputStream(new ByteArrayInputStream("zip".getBytes(StandardCharsets.UTF_8)), new InputStream() {
+                            @Override
+                            public int read() throws IOException {
+                                throw new IOException("connection reset");
+                            }
+                        });
+                return new StreamClientResponse(request, 200, body);
+            }
+        }, request -> List.of(RemoteActionProviders.Authorizations.Authorization.anonymous()));
+        final WorkflowRun.Request request = new WorkflowRun.Request("https://api.github.test", "acme", "tool", "build.yml", "main", Map.of(), "");
+        final Path directory = Files.createTempDirectory("workflow-artifacts");
+        Files.writeString(directory.resolve("reports.zip.part"), "stale-and-longer-than-the-artifact");
+
+        final Path zip = client.downloadArtifact(request, 300, directory.resolve("reports.zip"));
+
+        assertThat(Files.readString(zip)).isEqualTo("zip-bytes");
+        assertThat(ranges).containsExactly("", "bytes=3-", "");
+    }
+
     public void testDispatchRetriesConfiguredAuthorizationsBeforeAnonymous() throws Exception {
         try (FakeWorkflowRunServer server = new FakeWorkflowRunServer(false, 2)) {
             final HttpClient httpClient = HttpClient.newHttpClient();
@@ -261,6 +341,65 @@ public class WorkflowRunTest extends TestCase {
         assertThat(authorizations).containsExactly("Bearer account-token", "Bearer account-token");
     }
 
+    public void testJobLogsRequestOnlyBytesAfterOffset() throws Exception {
+        final String log = "first line\nsecond line\n";
+        final List<String> ranges = new ArrayList<>();
+        final WorkflowRun client = new WorkflowRun(
+                request -> {
+                    final String range = request.headers().firstValue("Range").orElse("");
+                    ranges.add(range);
+                    if (range.isEmpty()) {
+                        return new ClientResponse(request, 200, "text/plain", log);
+                    }
+                    final int offset = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+                    return offset >= log.length()
+                            ? new ClientResponse(request, 416, "text/plain", "")
+                            : new ClientResponse(request, 206, "text/plain", log.substring(offset));
+                },
+                request -> List.of(RemoteActionProviders.Authorizations.Authorization.anonymous())
+        );
+        final WorkflowRun.Request request = new WorkflowRun.Request("https://api.github.test", "acme", "tool", "build.yml", "main", Map.of(), "");
+
+        try (InputStream full = client.jobLogs(request, 100, 0);
+             InputStream delta = client.jobLogs(request, 100, "first line\n".length());
+             InputStream none = client.jobLogs(request, 100, log.length())) {
+            assertThat(new String(full.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(log);
+            assertThat(new String(delta.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("second line\n");
+            assertThat(none.readAllBytes()).isEmpty();
+        }
+        assertThat(ranges).containsExactly("", "bytes=11-", "bytes=24-");
+    }
+
+    public void testJobLogsSkipKnownPrefixWhenServerIgnoresRange() throws Exception {
+        final WorkflowRun client = new WorkflowRun(
+                request -> new ClientResponse(request, 200, "text/plain", "first line\nsecond line\n"),
+                request -> List.of(RemoteActionProviders.Authorizations.Authorization.anonymous())
+        );
+        final WorkflowRun.Request request = new WorkflowRun.Request("https://api.github.test", "acme", "tool", "build.yml", "main", Map.of(), "");
+
+        try (InputStream delta = client.jobLogs(request, 100, 11);
+             InputStream beyond = client.jobLogs(request, 100, 500)) {
+            assertThat(new String(delta.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("second line\n");
+            assertThat(beyond.readAllBytes()).isEmpty();
+        }
+    }
+
+    public void testRateLimitHeadersStretchPollDelayOnlyWhenBudgetRunsLow() {
+        final long now = 1_000_000L;
+        final long reset = (now + 600_000L) / 1000;
+
+        final WorkflowRun.RateLimit healthy = rateLimit(Map.of("x-ratelimit-remaining", "4000", "x-ratelimit-limit", "5000", "x-ratelimit-reset", String.valueOf(reset)), now);
+        final WorkflowRun.RateLimit low = rateLimit(Map.of("x-ratelimit-remaining", "100", "x-ratelimit-limit", "5000", "x-ratelimit-reset", String.valueOf(reset)), now);
+        final WorkflowRun.RateLimit exhausted = rateLimit(Map.of("x-ratelimit-remaining", "0", "x-ratelimit-reset", String.valueOf(reset)), now);
+        final WorkflowRun.RateLimit retryAfter = rateLimit(Map.of("retry-after", "30"), now);
+
+        assertThat(healthy.delayMillis(now, 3)).isZero();
+        assertThat(low.delayMillis(now, 3)).isEqualTo(600_000L * 3 / 100);
+        assertThat(exhausted.waitMillis(now)).isEqualTo(600_000L);
+        assertThat(retryAfter.waitMillis(now)).isEqualTo(30_000L);
+        assertThat(WorkflowRun.RateLimit.from(HttpHeaders.of(Map.of("Content-Type", List.of("text/plain")), (left, right) -> true), now)).isEmpty();
+    }
+
     public void testAuthenticatedRateLimitDoesNotFallBackToAnonymous() {
         final List<String> authorizations = new ArrayList<>();
         final WorkflowRun client = new WorkflowRun(
@@ -538,6 +677,47 @@ public class WorkflowRunTest extends TestCase {
         }
     }
 
+    private record StreamClientResponse(HttpRequest request, int statusCode, InputStream body, String contentRange) implements HttpResponse<InputStream> {
+        private StreamClientResponse(final HttpRequest request, final int statusCode, final InputStream body) {
+            this(request, statusCode, body, "");
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            final Map<String, List<String>> headers = new HashMap<>(Map.of("Content-Type", List.of("application/zip")));
+            if (!contentRange.isEmpty()) {
+                headers.put("Content-Range", List.of(contentRange));
+            }
+            return HttpHeaders.of(headers, (left, right) -> true);
+        }
+
+        @Override
+        public Optional<HttpResponse<InputStream>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return request.uri();
+        }
+
+        @Override
+        public Version version() {
+            return Version.HTTP_1_1;
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+    }
+
+    private static WorkflowRun.RateLimit rateLimit(final Map<String, String> headers, final long now) {
+        final Map<String, List<String>> values = new HashMap<>();
+        headers.forEach((name, value) -> values.put(name, List.of(value)));
+        return WorkflowRun.RateLimit.from(HttpHeaders.of(values, (left, right) -> true), now).orElseThrow();
+    }
+
     private static String authorizationHeader(final HttpRequest request) {
         return request.headers().firstValue("Authorization").orElse("");
     }
@@ -2,7 +2,11 @@ package com.github.yunabraska.githubworkflow.run;
 
 import junit.framework.TestCase;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -147,4 +151,32 @@ public class WorkflowRunViewTest extends TestCase {
                         WorkflowRunView.LogRenderer.Kind.ERROR
                 );
     }
+
+    public void testOutputBufferSpillsOldOutputAndReplaysInOrder() throws Exception {
+        final Path directory = Files.createTempDirectory("workflow-console");
+        final WorkflowRunView.OutputBuffer<String> buffer = new WorkflowRunView.OutputBuffer<>(1024, () -> directory);
+        final StringBuilder expected = new StringBuilder();
+        for (int line = 0; line < 200; line++) {
+            final String text = "line " + line + " ä\n";
+            buffer.append(text, line % 50 == 0 ? "error" : "normal");
+            expected.append(text);
+        }
+
+        assertThat(buffer.memoryBytes()).isLessThanOrEqualTo(1024);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.toList()).hasSize(1);
+        }
+        assertThat(buffer.snapshot().map(WorkflowRunView.OutputBuffer.Chunk::text).collect(Collectors.joining()))
+                .isEqualTo(expected.toString());
+        assertThat(buffer.snapshot().filter(chunk -> "error".equals(chunk.type())).map(WorkflowRunView.OutputBuffer.Chunk::text))
+                .containsExactly("line 0 ä\n", "line 50 ä\n", "line 100 ä\n", "line 150 ä\n");
+
+        buffer.clear();
+
+        assertThat(buffer.isEmpty()).isTrue();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.toList()).isEmpty();
+        }
+        Files.deleteIfExists(directory);
+    }
 }
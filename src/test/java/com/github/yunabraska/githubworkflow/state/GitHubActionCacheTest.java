@@ -3,11 +3,17 @@ package com.github.yunabraska.githubworkflow.state;
 import com.github.yunabraska.githubworkflow.state.GitHubActionCache;
 
 import com.github.yunabraska.githubworkflow.model.GitHubAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
 import com.intellij.testFramework.fixtures.BasePlatformTestCase;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -132,6 +138,107 @@ public class GitHubActionCacheTest extends BasePlatformTestCase {
         assertThat(imported.removeAll(java.util.List.of("actions/checkout@v4")).total()).isZero();
     }
 
+    public void testBinaryStoreLoadsEntriesLazilyAndPersistsRemovals() throws IOException {
+        final Path file = Files.createTempDirectory("github-workflow-cache").resolve("action-cache.bin");
+        final GitHubAction checkout = GitHubAction.createGithubAction(false, "actions/checkout@v4", "actions/checkout@v4")
+                .displayName("Checkout")
+                .isResolved(true)
+                .setInputs(Map.of("fetch-depth", "Fetch depth"))
+                .setOutputs(Map.of("ref", "Checked out ref"));
+        final GitHubAction setupJava = GitHubAction.createGithubAction(false, "actions/setup-java@v4", "actions/setup-java@v4")
+                .displayName("Setup Java");
+
+        final ActionCacheStore store = new ActionCacheStore();
+        store.open(file);
+        store.put(checkout.usesValue(), checkout);
+        store.put(setupJava.usesValue(), setupJava);
+        store.flush();
+        assertThat(file).isRegularFile();
+
+        final ActionCacheStore reopened = new ActionCacheStore();
+        reopened.open(file);
+        assertThat(reopened).hasSize(2).containsKey("actions/setup-java@v4");
+        assertThat(reopened.get("actions/checkout@v4").displayName()).isEqualTo("Checkout");
+        assertThat(reopened.get("actions/checkout@v4").getInputs()).containsEntry("fetch-depth", "Fetch depth");
+        assertThat(reopened.get("actions/checkout@v4").getOutputs()).containsEntry("ref", "Checked out ref");
+        reopened.remove("actions/setup-java@v4");
+        reopened.flush();
+
+        final ActionCacheStore afterRemoval = new ActionCacheStore();
+        afterRemoval.open(file);
+        assertThat(afterRemoval.keySet()).containsExactly("actions/checkout@v4");
+        assertThat(afterRemoval.get("actions/checkout@v4").isResolved()).isTrue();
+    }
+
+    public void testBinaryStoreAppendsOnlyChangedEntriesAndReadsHeadersWithoutDecoding() throws IOException {
+        final Path file = Files.createTempDirectory("github-workflow-cache").resolve("action-cache.bin");
+        final GitHubAction checkout = GitHubAction.createGithubAction(false, "actions/checkout@v4", "actions/checkout@v4")
+                .displayName("Checkout")
+                .isResolved(true);
+
+        final ActionCacheStore store = new ActionCacheStore();
+        store.open(file);
+        store.put(checkout.usesValue(), checkout);
+        store.flush();
+        final long written = Files.size(file);
+        store.flush();
+        assertThat(Files.size(file)).isEqualTo(written);
+        checkout.displayName("Checkout v4").suppressInput("token", true);
+        store.flush();
+        assertThat(Files.size(file)).isGreaterThan(written);
+
+        final ActionCacheStore reopened = new ActionCacheStore();
+        reopened.open(file);
+        assertThat(reopened.keys()).containsExactly("actions/checkout@v4");
+        assertThat(reopened.info("actions/checkout@v4")).hasValueSatisfying(info -> {
+            assertThat(info.resolved()).isTrue();
+            assertThat(info.local()).isFalse();
+            assertThat(info.suppressed()).isTrue();
+            assertThat(info.usesValue()).isEqualTo("actions/checkout@v4");
+        });
+        assertThat(reopened.peek("actions/checkout@v4")).isEmpty();
+        assertThat(reopened.actions(ActionCacheStore.EntryInfo::suppressed)).singleElement()
+                .satisfies(action -> assertThat(action.displayName()).isEqualTo("Checkout v4"));
+        assertThat(reopened.peek("actions/checkout@v4")).isPresent();
+    }
+
+    public void testRemoteIndexesFollowPutsRemovalsAndReopenedStores() throws IOException {
+        final Path file = Files.createTempDirectory("github-workflow-cache").resolve("action-cache.bin");
+        final GitHubAction checkoutV4 = GitHubAction.createGithubAction(false, "actions/checkout@v4", "actions/checkout@v4")
+                .remoteRefs(List.of("v4", "v3", "v4"));
+        final GitHubAction checkoutV3 = GitHubAction.createGithubAction(false, "actions/checkout@v3", "actions/checkout@v3")
+                .remoteRefs(List.of("v3", "v2"));
+        final GitHubAction setupJava = GitHubAction.createGithubAction(false, "actions/setup-java@v4", "actions/setup-java@v4")
+                .remoteRefs(List.of("v4"));
+        final GitHubAction local = GitHubAction.createGithubAction(true, localActionPath(), localActionPath());
+
+        final ActionCacheStore store = new ActionCacheStore();
+        store.open(file);
+        store.put(checkoutV4.usesValue(), checkoutV4);
+        store.put(checkoutV3.usesValue(), checkoutV3);
+        store.put("refs:actions/setup-java", setupJava);
+        store.put(local.usesValue(), local);
+        store.flush();
+
+        assertThat(checkoutV4.remoteRefs()).containsExactly("v4", "v3").isSameAs(checkoutV4.remoteRefs());
+        assertThat(store.remoteActions()).containsExactlyInAnyOrder(checkoutV4, checkoutV3, setupJava);
+        assertThat(store.remoteActions("actions/checkout")).containsExactlyInAnyOrder(checkoutV4, checkoutV3);
+
+        final ActionCacheStore reopened = new ActionCacheStore();
+        reopened.open(file);
+        assertThat(reopened.remoteActions("actions/setup-java")).singleElement()
+                .satisfies(action -> assertThat(action.remoteRefs()).containsExactly("v4"));
+        assertThat(reopened.remoteActions("actions/checkout")).hasSize(2);
+        reopened.remove("actions/checkout@v3");
+        assertThat(reopened.remoteActions("actions/checkout")).singleElement()
+                .satisfies(action -> assertThat(action.usesValue()).isEqualTo("actions/checkout@v4"));
+        assertThat(reopened.remoteActions()).extracting(GitHubAction::usesValue)
+                .containsExactlyInAnyOrder("actions/checkout@v4", "actions/setup-java@v4");
+        reopened.clear();
+        assertThat(reopened.remoteActions()).isEmpty();
+        assertThat(reopened.remoteActions("actions/checkout")).isEmpty();
+    }
+
     public void testRestoreWarningsClearsActionInputAndOutputSuppressions() throws IOException {
         final GitHubActionCache cache = new GitHubActionCache();
         final GitHubAction action = GitHubAction.createGithubAction(true, localActionPath(), localActionPath())
@@ -186,6 +293,105 @@ public class GitHubActionCacheTest extends BasePlatformTestCase {
         }
     }
 
+    public void testBackgroundResolutionRunsQueuedActionsInParallel() throws Exception {
+        final GitHubActionCache cache = new GitHubActionCache();
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch finished = new CountDownLatch(2);
+        final GitHubActionCache.ActionResolver previous = cache.useActionResolverForTests(action -> {
+            started.countDown();
+            try {
+                action.isResolved(started.await(5, TimeUnit.SECONDS));
+            } catch (final InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            finished.countDown();
+            return action;
+        });
+        try {
+            final GitHubAction checkout = cache.get(getProject(), "actions/checkout@v4");
+            final GitHubAction setupJava = cache.get(getProject(), "actions/setup-java@v4");
+
+            assertThat(finished.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(checkout.isResolved()).isTrue();
+            assertThat(setupJava.isResolved()).isTrue();
+        } finally {
+            cache.useActionResolverForTests(previous);
+        }
+    }
+
+    public void testRestartTargetsFollowTheCurrentUsesOfEachWorkflowFile() {
+        final PsiFile build = myFixture.addFileToProject(".github/workflows/build.yml", """
+                on: push
+                jobs:
+                  build:
+                    runs-on: ubuntu-latest
+                    steps:
+                      - uses: actions/checkout@v4
+                      - uses: actions/setup-java@v4
+                """);
+
+        assertThat(GitHubActionCache.usesAnyOf(build, List.of("actions/checkout@v4"))).isTrue();
+        assertThat(GitHubActionCache.usesAnyOf(build, List.of("actions/cache@v4", "actions/setup-java@v4"))).isTrue();
+        assertThat(GitHubActionCache.usesAnyOf(build, List.of("actions/cache@v4"))).isFalse();
+
+        final Document document = PsiDocumentManager.getInstance(getProject()).getDocument(build);
+        assertThat(document).isNotNull();
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+            final int start = document.getText().indexOf("      - uses: actions/checkout@v4\n");
+            document.deleteString(start, start + "      - uses: actions/checkout@v4\n".length());
+        });
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+
+        assertThat(GitHubActionCache.usesAnyOf(build, List.of("actions/checkout@v4"))).isFalse();
+        assertThat(GitHubActionCache.usesAnyOf(build, List.of("actions/setup-java@v4"))).isTrue();
+    }
+
+    public void testChangedRangeOnlyCollectsUnresolvedUsesInsideThatRange() {
+        final GitHubActionCache cache = GitHubActionCache.getActionCache();
+        final GitHubActionCache.ActionResolver previous = cache.useActionResolverForTests(action -> action);
+        try {
+            final PsiFile workflow = myFixture.addFileToProject(".github/workflows/build.yml", """
+                    on: push
+                    jobs:
+                      build:
+                        runs-on: ubuntu-latest
+                        steps:
+                          - uses: actions/checkout@v4
+                          - uses: actions/setup-java@v4
+                    """);
+            final int edited = workflow.getText().indexOf("actions/setup-java@v4");
+
+            assertThat(GitHubActionCache.unresolvedActions(getProject(), workflow.getVirtualFile(), new TextRange(edited, edited + 1)))
+                    .extracting(GitHubAction::usesValue)
+                    .containsExactly("actions/setup-java@v4");
+            assertThat(GitHubActionCache.unresolvedActions(getProject(), workflow.getVirtualFile(), null))
+                    .extracting(GitHubAction::usesValue)
+                    .containsExactly("actions/checkout@v4", "actions/setup-java@v4");
+        } finally {
+            cache.useActionResolverForTests(previous);
+            cache.clear();
+        }
+    }
+
+    public void testLocalUsesKeyFollowsActionFilesCreatedLater() {
+        GitHubActionCache.UsesKeys.clear();
+        final GitHubActionCache cache = new GitHubActionCache();
+
+        cache.get(getProject(), "./.github/actions/later");
+        cache.get(getProject(), "./.github/actions/later");
+        assertThat(cache.getState().actions).containsOnlyKeys("./.github/actions/later");
+
+        final PsiFile actionFile = myFixture.addFileToProject(".github/actions/later/action.yml", """
+                name: Later
+                runs:
+                  using: composite
+                """);
+        final GitHubAction action = cache.get(getProject(), "./.github/actions/later");
+
+        assertThat(cache.getState().actions).containsKey(actionFile.getVirtualFile().getPath());
+        assertThat(cache.getState().actions.get(actionFile.getVirtualFile().getPath())).isSameAs(action);
+    }
+
     private static String localActionPath() throws IOException {
         final Path actionPath = Files.createTempDirectory("github-workflow-action").resolve("action.yml");
         Files.writeString(actionPath, """
@@ -1,9 +1,14 @@
 package com.github.yunabraska.githubworkflow.syntax;
 
+import com.github.yunabraska.githubworkflow.model.SimpleElement;
 import com.github.yunabraska.githubworkflow.test.EditorFeatureTestCase;
 
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiFile;
+import org.jetbrains.yaml.psi.YAMLKeyValue;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -20,6 +25,57 @@ public class WorkflowLargeWorkflowTest extends EditorFeatureTestCase {
         assertThat(elapsedMillis).isLessThan(10_000L);
     }
 
+    public void testWorkflowModelIsReusedUntilTheFileChanges() {
+        configureWorkflowProjectFile(largeWorkflow());
+        final PsiFile file = myFixture.getFile();
+
+        final WorkflowModel model = WorkflowModel.of(file);
+        assertThat(model.jobs()).hasSize(40);
+        assertThat(model.runOutputs(model.runs().getFirst())).extracting(SimpleElement::key).containsExactly("artifact");
+        assertThat(WorkflowModel.of(file)).isSameAs(model);
+
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> myFixture.getEditor().getDocument().insertString(
+                myFixture.getEditor().getDocument().getTextLength(),
+                "  extra:\n    runs-on: ubuntu-latest\n    services:\n      redis:\n        image: redis\n"
+        ));
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+
+        final WorkflowModel changed = WorkflowModel.of(myFixture.getFile());
+        assertThat(changed).isNotSameAs(model);
+        assertThat(changed.jobs()).hasSize(41);
+        assertThat(changed.serviceIds(changed.jobs().getLast())).containsExactly("redis");
+    }
+
+    public void testKeyIndexAnswersScopedLookupsLikeTheTreeWalk() {
+        configureWorkflowProjectFile(largeWorkflow());
+        final PsiFile file = myFixture.getFile();
+        final List<YAMLKeyValue> jobs = WorkflowPsi.getAllJobs(file);
+
+        assertThat(WorkflowPsi.getAllElements(file, "run")).hasSize(80);
+        assertThat(WorkflowPsi.getAllElements(jobs.get(3), "run")).hasSize(2)
+                .allMatch(run -> WorkflowPsi.getParentJob(run).orElseThrow() == jobs.get(3));
+        assertThat(WorkflowPsi.getAllElements(jobs.get(3), "jobs")).isEmpty();
+        assertThat(WorkflowPsi.getChild(jobs.get(3), "needs")).flatMap(WorkflowPsi::getText).contains("build_2");
+        assertThat(WorkflowPsi.getChild(jobs.get(3), "services")).isEmpty();
+    }
+
+    public void testKeyIndexStillFollowsAliases() {
+        configureWorkflowProjectFile("""
+                on: push
+                env: &shared
+                  TOOL: value
+                jobs:
+                  build:
+                    runs-on: ubuntu-latest
+                    env: *shared
+                    steps:
+                      - run: echo
+                """);
+        final YAMLKeyValue build = WorkflowPsi.getAllJobs(myFixture.getFile()).getFirst();
+
+        assertThat(WorkflowPsi.getChild(WorkflowPsi.getChild(build, "env").orElseThrow(), "TOOL")).isPresent();
+    }
+
     public void testLargeShowcaseWorkflowHighlightsWithoutErrors() {
         final PsiFile localAction = myFixture.addFileToProject(".github/actions/local/action.yml", """
                 name: Local Action
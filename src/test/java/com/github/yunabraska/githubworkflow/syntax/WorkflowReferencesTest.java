@@ -11,10 +11,12 @@ import com.github.yunabraska.githubworkflow.git.RemoteActionProviders;
 import com.github.yunabraska.githubworkflow.state.GitHubActionCache;
 
 import com.github.yunabraska.githubworkflow.model.GitHubAction;
+import com.github.yunabraska.githubworkflow.model.SimpleElement;
 import com.intellij.openapi.paths.WebReference;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiReference;
+import com.intellij.psi.util.PsiTreeUtil;
 import org.jetbrains.yaml.psi.YAMLKeyValue;
 
 import java.util.List;
@@ -744,4 +746,60 @@ public class WorkflowReferencesTest extends EditorFeatureTestCase {
         assertThat(resolved).isInstanceOf(YAMLKeyValue.class);
         assertThat(((YAMLKeyValue) resolved).getKeyText()).isEqualTo("ports");
     }
+
+    public void testExpressionTokensAreCachedPerScalarAndSkipQuotedFunctionNames() {
+        configureWorkflowProjectFile("""
+                name: References
+                on: workflow_dispatch
+                jobs:
+                  build:
+                    runs-on: ubuntu-latest
+                    steps:
+                      - run: echo "${{ format('call(', inputs.name) }} ${{ steps.<caret>build.outputs['id'] }}"
+                """);
+        final PsiElement element = myFixture.getFile().findElementAt(myFixture.getCaretOffset());
+        final String text = element.getText();
+
+        final WorkflowExpressions expressions = WorkflowExpressions.of(element);
+
+        assertThat(WorkflowExpressions.of(element)).isSameAs(expressions);
+        assertThat(expressions.references()).extracting(SimpleElement::text)
+                .containsExactly("inputs.name", "steps.build.outputs['id']");
+        assertThat(expressions.segments(1)).extracting(SimpleElement::text)
+                .containsExactly("steps", "build", "outputs", "id");
+        assertThat(expressions.functionCalls(false)).extracting(range -> range.substring(text))
+                .containsExactly("format");
+        assertThat(WorkflowReferences.segmentAt(element, myFixture.getCaretOffset() - element.getTextRange().getStartOffset()))
+                .map(SimpleElement::text)
+                .contains("build");
+    }
+
+    public void testRunScriptWritesAreScannedOncePerScalarWithLineRanges() {
+        configureWorkflowProjectFile("""
+                name: References
+                on: workflow_dispatch
+                jobs:
+                  build:
+                    runs-on: ubuntu-latest
+                    steps:
+                      - <caret>run: |
+                          echo "artifact=dist" >> "$GITHUB_OUTPUT"
+                          echo "mirror=copy" | tee -a "${GITHUB_OUTPUT}"
+                          {
+                            echo "grouped=yes"
+                          } >> $GITHUB_OUTPUT
+                          echo "notes<<EOF" >> "$GITHUB_OUTPUT"
+                          echo "MODE=release" >> $GITHUB_ENV
+                """);
+        final YAMLKeyValue run = PsiTreeUtil.getParentOfType(myFixture.getFile().findElementAt(myFixture.getCaretOffset()), YAMLKeyValue.class);
+        final String text = myFixture.getFile().getText();
+
+        assertThat(RunScriptWrites.of(run)).isSameAs(RunScriptWrites.of(run));
+        final List<SimpleElement> outputs = WorkflowPsi.parseOutputVariables(run);
+        assertThat(outputs).extracting(SimpleElement::key).containsExactly("artifact", "mirror", "notes", "grouped");
+        assertThat(outputs).extracting(SimpleElement::text).containsExactly("dist", "copy", "<multiline>", "yes");
+        assertThat(outputs.get(0).range().substring(text)).contains("artifact=dist").doesNotContain("mirror");
+        assertThat(outputs.get(3).range()).isEqualTo(run.getTextRange());
+        assertThat(WorkflowPsi.parseEnvVariables(run)).extracting(SimpleElement::key).startsWith("MODE").doesNotContain("artifact");
+    }
 }
@@ -16,6 +16,8 @@ import com.github.yunabraska.githubworkflow.model.GitHubAction;
 import com.intellij.codeInsight.editorActions.TypedHandlerDelegate;
 import com.intellij.codeInsight.lookup.LookupElement;
 import com.intellij.codeInsight.lookup.LookupElementPresentation;
+import com.intellij.codeInsight.lookup.LookupManager;
+import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.util.ThreeState;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -1006,6 +1008,33 @@ public class WorkflowSyntaxCompletionTest extends EditorFeatureTestCase {
         }
     }
 
+    public void testSyntaxTablesAreSharedPerLanguageAndRulesKeepDeclarationOrder() {
+        final GitHubWorkflowBundle.Settings settings = GitHubWorkflowBundle.Settings.getInstance();
+        final String previousLanguage = settings.languageTag();
+        try {
+            settings.languageTag("en");
+            final Map<String, String> english = WorkflowSyntax.jobKeys();
+
+            assertThat(WorkflowSyntax.jobKeys()).isSameAs(english);
+            settings.languageTag("de");
+            assertThat(WorkflowSyntax.jobKeys()).isNotSameAs(english).containsEntry("environment", "Bereitstellungsumgebung");
+        } finally {
+            settings.languageTag(previousLanguage);
+        }
+
+        assertThat(WorkflowSyntax.validationKeysForPath(List.of("on", "permissions")))
+                .map(WorkflowSyntax.KnownKeys::messageKey)
+                .contains("inspection.workflow.syntax.unknownTriggerFilter");
+        assertThat(WorkflowSyntax.validationKeysForPath(List.of("jobs", "build", "permissions")))
+                .map(WorkflowSyntax.KnownKeys::messageKey)
+                .contains("inspection.workflow.syntax.unknownPermission");
+        assertThat(WorkflowSyntax.validationKeysForPath(List.of("jobs", "build", "strategy", "matrix"))).isEmpty();
+        assertThat(WorkflowSyntax.completionKeysForPath(List.of("jobs", "build", "strategy", "matrix"))).isPresent();
+        assertThat(WorkflowSyntax.validationKeysForPath(List.of("on", "workflow_call", "secrets", "token")))
+                .map(known -> known.values().keySet())
+                .hasValueSatisfying(keys -> assertThat(keys).containsExactly("description", "required"));
+    }
+
     public void testDefaultsRunCompletionSuggestsShellAndWorkingDirectory() {
         assertThat(completeWorkflow("""
                 name: Completion
@@ -1673,6 +1702,45 @@ public class WorkflowSyntaxCompletionTest extends EditorFeatureTestCase {
         assertThat(completeBasicLookupStrings()).contains("local-input");
     }
 
+    public void testLocalActionMetadataIsReparsedOnlyWhenTheFileChanges() throws Exception {
+        final Path actionYaml = Files.createTempFile("github-workflow-local-action", ".yaml");
+        actionYaml.toFile().deleteOnExit();
+        Files.writeString(actionYaml, """
+                name: Local Action
+                inputs:
+                  first-input:
+                    description: First input
+                runs:
+                  using: composite
+                """);
+        final GitHubAction action = GitHubAction.createGithubAction(true, "./.github/actions/local", actionYaml.toString());
+        final GitHubAction sibling = GitHubAction.createGithubAction(true, "./.github/actions/local", actionYaml.toString());
+
+        assertThat(action.freshInputs()).containsOnlyKeys("first-input");
+        assertThat(sibling.freshInputs()).containsOnlyKeys("first-input");
+        final long revision = action.revision();
+        assertThat(action.freshInputs()).containsOnlyKeys("first-input");
+        assertThat(action.freshOutputs()).isEmpty();
+        assertThat(action.revision()).isEqualTo(revision);
+
+        Files.writeString(actionYaml, """
+                name: Local Action
+                inputs:
+                  second-input:
+                    description: Second input
+                outputs:
+                  artifact:
+                    description: Built artifact
+                runs:
+                  using: composite
+                """);
+        LocalFileSystem.getInstance().refreshNioFiles(List.of(actionYaml));
+
+        assertThat(action.freshInputs()).containsOnlyKeys("second-input");
+        assertThat(action.revision()).isNotEqualTo(revision);
+        assertThat(sibling.freshOutputs()).containsOnlyKeys("artifact");
+    }
+
     public void testProjectLocalActionInputCompletionUsesActionYamlMetadata() {
         final GitHubAction action = seedLocalAction("./.github/actions/local", myFixture.addFileToProject(".github/actions/local/action.yml", """
                 name: Local Action
@@ -1818,6 +1886,40 @@ public class WorkflowSyntaxCompletionTest extends EditorFeatureTestCase {
         assertThat(completeBasicLookupStrings()).contains("./.github/actions/local");
     }
 
+    public void testUsesCompletionFollowsLocalActionsAndWorkflowsAddedLater() {
+        myFixture.addFileToProject(".github/actions/first/action.yml", "name: First\n");
+
+        configureWorkflowProjectFile("""
+                name: Completion
+                on: workflow_dispatch
+                jobs:
+                  build:
+                    runs-on: ubuntu-latest
+                    steps:
+                      - uses: <caret>
+                """);
+
+        assertThat(completeBasicLookupStrings()).contains("./.github/actions/first").doesNotContain("./.github/actions/second");
+        LookupManager.getInstance(getProject()).hideActiveLookup();
+
+        myFixture.addFileToProject(".github/actions/second/action.yaml", "name: Second\n");
+        myFixture.addFileToProject(".github/workflows/reusable.yml", "on: workflow_call\n");
+
+        assertThat(completeBasicLookupStrings())
+                .contains("./.github/actions/first", "./.github/actions/second")
+                .doesNotContain("./.github/workflows/reusable.yml");
+
+        configureProjectFile(".github/workflows/caller.yml", """
+                name: Caller
+                on: workflow_dispatch
+                jobs:
+                  call:
+                    uses: <caret>
+                """);
+
+        assertThat(completeBasicLookupStrings()).contains("./.github/workflows/reusable.yml", "./.github/workflows/workflow.yml");
+    }
+
     public void testUsesCompletionSuggestsKnownRemoteCallableTargets() {
         seedRemoteAction("owner/tool@v1", Map.of(), Map.of());
 
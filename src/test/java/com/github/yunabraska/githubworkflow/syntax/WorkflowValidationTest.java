@@ -1,8 +1,15 @@
 package com.github.yunabraska.githubworkflow.syntax;
 
 import com.github.yunabraska.githubworkflow.test.EditorFeatureTestCase;
+import com.intellij.codeInsight.daemon.impl.HighlightInfo;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.psi.PsiDocumentManager;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class WorkflowValidationTest extends EditorFeatureTestCase {
 
@@ -393,6 +400,34 @@ public class WorkflowValidationTest extends EditorFeatureTestCase {
                 """);
     }
 
+    public void testUnusedJobOutputWarningFollowsEditsToOtherJobs() {
+        configureWorkflowProjectFile("""
+                name: Syntax
+                on: push
+                jobs:
+                  build:
+                    runs-on: ubuntu-latest
+                    outputs:
+                      artifact: ${{ steps.package.outputs.artifact }}
+                    steps:
+                      - id: package
+                        run: echo "artifact=dist" >> "$GITHUB_OUTPUT"
+                """);
+        assertThat(highlightDescriptions()).contains("Unused [artifact]");
+
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> myFixture.getEditor().getDocument().insertString(
+                myFixture.getEditor().getDocument().getTextLength(),
+                "  publish:\n    needs: build\n    runs-on: ubuntu-latest\n    steps:\n      - run: echo \"${{ needs.build.outputs.artifact }}\"\n"
+        ));
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+
+        assertThat(highlightDescriptions()).doesNotContain("Unused [artifact]");
+    }
+
+    private List<String> highlightDescriptions() {
+        return myFixture.doHighlighting().stream().map(HighlightInfo::getDescription).filter(Objects::nonNull).toList();
+    }
+
     public void testResolvedActionInputIsAccepted() {
         seedRemoteAction("owner/tool@v1", Map.of("known-input", "Known input"), Map.of());
 
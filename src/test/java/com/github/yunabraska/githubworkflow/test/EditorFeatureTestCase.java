@@ -1,6 +1,7 @@
 package com.github.yunabraska.githubworkflow.test;
 
 import com.github.yunabraska.githubworkflow.git.RemoteActionProviders;
+import com.github.yunabraska.githubworkflow.git.WorkflowLocation;
 
 import com.github.yunabraska.githubworkflow.state.GitHubActionCache;
 
@@ -38,6 +39,9 @@ public abstract class EditorFeatureTestCase extends BasePlatformTestCase {
         super.setUp();
         getActionCache().getState().actions.clear();
         RemoteActionProviders.Settings.getInstance().setCustomServers(List.of());
+        WorkflowLocation.GitSnapshots.clear();
+        GitHubAction.LocalMetadata.clear();
+        GitHubActionCache.UsesKeys.clear();
         ((CodeInsightTestFixtureImpl) myFixture).canChangeDocumentDuringHighlighting(true);
     }
 
@@ -100,7 +104,7 @@ public abstract class EditorFeatureTestCase extends BasePlatformTestCase {
         return completeBasicLookupStrings();
     }
 
-    private void configureProjectFile(final String path, final String text) {
+    protected final void configureProjectFile(final String path, final String text) {
         final int caretOffset = text.indexOf("<caret>");
         final String fileText = text.replace("<caret>", "");
         myFixture.addFileToProject(path, fileText);
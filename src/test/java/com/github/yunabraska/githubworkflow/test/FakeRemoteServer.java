@@ -1,5 +1,9 @@
 package com.github.yunabraska.githubworkflow.test;
 
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpServer;
 
 import java.io.IOException;
@@ -9,32 +13,43 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class FakeRemoteServer implements AutoCloseable {
 
+    private static final Pattern GRAPHQL_REPOSITORY = Pattern.compile("^\\s*(\\w+): repository\\(owner: (\"(?:[^\"\\\\]|\\\\.)*\"), name: (\"(?:[^\"\\\\]|\\\\.)*\")\\)");
+    private static final Pattern GRAPHQL_REFS = Pattern.compile("^\\s*(heads|tags): refs\\(");
+    private static final Pattern GRAPHQL_OBJECT = Pattern.compile("^\\s*(\\w+): object\\(expression: (\"(?:[^\"\\\\]|\\\\.)*\")\\)");
+
     private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
     private final Map<String, String> contents = new HashMap<>();
     private final Map<String, List<String>> branches = new HashMap<>();
     private final Map<String, List<String>> tags = new HashMap<>();
     private final Map<String, Map<String, String>> repositories = new HashMap<>();
-    private final List<String> requests = new ArrayList<>();
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> notModified = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> authorizations = Collections.synchronizedList(new ArrayList<>());
+    private final List<Long> requestStartNanos = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile long responseDelayMillis;
+    private volatile Response failure;
+    private volatile Map<String, String> failureHeaders = Map.of();
+    private volatile String rateLimitedAuthorization;
 
     public FakeRemoteServer() throws IOException {
         server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
-        server.createContext("/", exchange -> {
-            final URI uri = exchange.getRequestURI();
-            final String request = uri.getPath() + (uri.getQuery() == null ? "" : "?" + uri.getQuery());
-            requests.add(request);
-            final Response response = responseFor(uri);
-            final byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
-            exchange.getResponseHeaders().set("Content-Type", "application/json");
-            exchange.sendResponseHeaders(response.status(), bytes.length);
-            exchange.getResponseBody().write(bytes);
-            exchange.close();
-        });
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
         server.start();
     }
 
@@ -47,7 +62,37 @@ public class FakeRemoteServer implements AutoCloseable {
     }
 
     public List<String> requests() {
-        return List.copyOf(requests);
+        synchronized (requests) {
+            return List.copyOf(requests);
+        }
+    }
+
+    public List<String> authorizations() {
+        synchronized (authorizations) {
+            return List.copyOf(authorizations);
+        }
+    }
+
+    public List<String> notModifiedRequests() {
+        synchronized (notModified) {
+            return List.copyOf(notModified);
+        }
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} at which each request reached the server, in arrival order.
+     */
+    public List<Long> requestStartNanos() {
+        synchronized (requestStartNanos) {
+            return List.copyOf(requestStartNanos);
+        }
+    }
+
+    /**
+     * Returns the highest number of requests the server was handling at the same time.
+     */
+    public int maxConcurrentRequests() {
+        return maxInFlight.get();
     }
 
     public void addContent(final String owner, final String repo, final String path, final String ref, final String content) {
@@ -62,6 +107,24 @@ public class FakeRemoteServer implements AutoCloseable {
         tags.put(owner + "/" + repo, values);
     }
 
+    public void setResponseDelayMillis(final long delayMillis) {
+        this.responseDelayMillis = delayMillis;
+    }
+
+    public void failWith(final int status, final Map<String, String> headers) {
+        this.failureHeaders = Map.copyOf(headers);
+        this.failure = new Response(status, "{}");
+    }
+
+    public void rateLimit(final String authorization) {
+        this.rateLimitedAuthorization = authorization;
+    }
+
+    public void recover() {
+        this.failure = null;
+        this.failureHeaders = Map.of();
+    }
+
     public void setRepositories(final String owner, final Map<String, String> values) {
         repositories.put(owner, values);
     }
@@ -69,6 +132,62 @@ public class FakeRemoteServer implements AutoCloseable {
     @Override
     public void close() {
         server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        final URI uri = exchange.getRequestURI();
+        final String request = uri.getPath() + (uri.getQuery() == null ? "" : "?" + uri.getQuery());
+        final String authorization = String.valueOf(exchange.getRequestHeaders().getFirst("Authorization"));
+        requests.add(request);
+        authorizations.add(authorization);
+        requestStartNanos.add(System.nanoTime());
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            delayResponse();
+        } finally {
+            // counted as in flight until the answer is about to be sent, so the client cannot start the next one earlier
+            inFlight.decrementAndGet();
+        }
+        if (authorization.equals(rateLimitedAuthorization)) {
+            exchange.getResponseHeaders().set("Retry-After", "120");
+            exchange.sendResponseHeaders(429, -1);
+            exchange.close();
+            return;
+        }
+        final Response response = failure != null
+                ? failure
+                : "POST".equals(exchange.getRequestMethod()) && uri.getPath().endsWith("/graphql")
+                ? graphQl(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8))
+                : responseFor(uri);
+        if (failure != null) {
+            failureHeaders.forEach(exchange.getResponseHeaders()::set);
+        }
+        final byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+        final String etag = "\"" + Integer.toHexString(response.body().hashCode()) + "\"";
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (response.status() == 200) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.add(request);
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+        exchange.sendResponseHeaders(response.status(), bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private void delayResponse() {
+        if (responseDelayMillis > 0) {
+            try {
+                Thread.sleep(responseDelayMillis);
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
     private Response responseFor(final URI uri) {
@@ -107,6 +226,50 @@ public class FakeRemoteServer implements AutoCloseable {
         return new Response(404, "{}");
     }
 
+    /**
+     * Answers the repository, blob, and refs selections the plugin's GraphQL batch sends, one selection per line.
+     */
+    private Response graphQl(final String requestBody) {
+        final String query = JsonParser.parseString(requestBody).getAsJsonObject().get("query").getAsString();
+        final JsonObject data = new JsonObject();
+        JsonObject repository = null;
+        String owner = "";
+        String repo = "";
+        for (final String line : query.split("\n")) {
+            final Matcher repositoryMatch = GRAPHQL_REPOSITORY.matcher(line);
+            final Matcher refsMatch = GRAPHQL_REFS.matcher(line);
+            final Matcher objectMatch = GRAPHQL_OBJECT.matcher(line);
+            if (repositoryMatch.find()) {
+                owner = JsonParser.parseString(repositoryMatch.group(2)).getAsString();
+                repo = JsonParser.parseString(repositoryMatch.group(3)).getAsString();
+                repository = knownRepository(owner, repo) ? new JsonObject() : null;
+                data.add(repositoryMatch.group(1), repository == null ? JsonNull.INSTANCE : repository);
+            } else if (repository != null && refsMatch.find()) {
+                final List<String> names = ("heads".equals(refsMatch.group(1)) ? branches : tags).getOrDefault(owner + "/" + repo, List.of());
+                final JsonObject refs = new JsonObject();
+                refs.add("nodes", JsonParser.parseString(names(names)));
+                repository.add(refsMatch.group(1), refs);
+            } else if (repository != null && objectMatch.find()) {
+                final String expression = JsonParser.parseString(objectMatch.group(2)).getAsString();
+                final int separator = expression.indexOf(':');
+                final String content = contents.get(key(owner, repo, expression.substring(separator + 1), expression.substring(0, separator)));
+                final JsonObject blob = new JsonObject();
+                blob.addProperty("text", content);
+                repository.add(objectMatch.group(1), content == null ? JsonNull.INSTANCE : blob);
+            }
+        }
+        final JsonObject response = new JsonObject();
+        response.add("data", data);
+        return new Response(200, response.toString());
+    }
+
+    private boolean knownRepository(final String owner, final String repo) {
+        final String prefix = owner + "/" + repo + "/";
+        return branches.containsKey(owner + "/" + repo)
+                || tags.containsKey(owner + "/" + repo)
+                || contents.keySet().stream().anyMatch(key -> key.startsWith(prefix));
+    }
+
     private static int indexOf(final String[] parts, final String value) {
         for (int index = 0; index < parts.length; index++) {
             if (value.equals(parts[index])) {